@@ -0,0 +1,113 @@
+package com.delivery_api.Projeto.Delivery.API.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache em memória com limite de entradas e remoção da menos usada recentemente (LRU),
+ * mais um tempo de vida por entrada como rede de segurança para alterações feitas fora
+ * da aplicação.
+ *
+ * O carregamento roda fora do lock. Uma invalidação que acontece durante o carregamento
+ * descarta o valor carregado, que pode ser anterior à alteração. Valores nulos não são
+ * aceitos (use Optional para guardar ausências).
+ */
+public class CacheLru<K, V> {
+
+    private record Entrada<V>(V valor, long carregadoEm) {
+    }
+
+    private final int capacidade;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+    // Incrementada a cada invalidação; um carregamento só é guardado se ela não mudou
+    private long geracao;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+    private final LongAdder invalidacoes = new LongAdder();
+
+    public CacheLru(int capacidade, Duration ttl) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("Capacidade do cache deve ser maior que zero");
+        }
+        this.capacidade = capacidade;
+        this.ttlNanos = ttl.toNanos();
+        // accessOrder = true: get() move a entrada para o fim, a primeira é a menos usada
+        this.entradas = new LinkedHashMap<>(Math.min(capacidade, 1024) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> maisAntiga) {
+                if (size() > CacheLru.this.capacidade) {
+                    remocoes.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Obter o valor da chave, carregando-o em caso de falta
+     */
+    public V obter(K chave, Function<K, V> carregar) {
+        long geracaoLida;
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(chave);
+            if (entrada != null && System.nanoTime() - entrada.carregadoEm() < ttlNanos) {
+                acertos.increment();
+                return entrada.valor();
+            }
+            geracaoLida = geracao;
+        }
+
+        faltas.increment();
+        V valor = Objects.requireNonNull(carregar.apply(chave), "Carregamento do cache devolveu null");
+        synchronized (this) {
+            if (geracao == geracaoLida) {
+                entradas.put(chave, new Entrada<>(valor, System.nanoTime()));
+            }
+        }
+        return valor;
+    }
+
+    public synchronized void invalidar(K chave) {
+        geracao++;
+        entradas.remove(chave);
+        invalidacoes.increment();
+    }
+
+    public synchronized void limpar() {
+        geracao++;
+        entradas.clear();
+        invalidacoes.increment();
+    }
+
+    public synchronized int getTamanho() {
+        return entradas.size();
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFaltas() {
+        return faltas.sum();
+    }
+
+    public long getRemocoes() {
+        return remocoes.sum();
+    }
+
+    public long getInvalidacoes() {
+        return invalidacoes.sum();
+    }
+}
@@ -0,0 +1,152 @@
+package com.delivery_api.Projeto.Delivery.API.colunar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * Escreve um arquivo Arrow IPC (formato de arquivo, .arrow) em record batches de
+ * linhas-por-grupo linhas, com os buffers comprimidos em ZSTD. A memória fica limitada ao
+ * batch atual. O arquivo é lido por pyarrow, DuckDB, Spark etc. sem conversão.
+ *
+ * Tipos: INT64 como Int64, TIMESTAMP como Timestamp(MILLISECOND) sem fuso (o horário
+ * gravado no banco) e STRING como Utf8. Todas as colunas aceitam nulos.
+ *
+ * Não é thread-safe.
+ */
+public class EscritorColunar implements Closeable {
+
+    public enum Tipo {
+        INT64(new ArrowType.Int(64, true)),
+        TIMESTAMP(new ArrowType.Timestamp(TimeUnit.MILLISECOND, null)),
+        STRING(ArrowType.Utf8.INSTANCE);
+
+        private final ArrowType arrow;
+
+        Tipo(ArrowType arrow) {
+            this.arrow = arrow;
+        }
+
+        ArrowType getArrow() {
+            return arrow;
+        }
+
+        static Tipo de(ArrowType arrow) {
+            for (Tipo tipo : values()) {
+                if (tipo.arrow.equals(arrow)) {
+                    return tipo;
+                }
+            }
+            throw new IllegalArgumentException("Tipo Arrow não suportado: " + arrow);
+        }
+    }
+
+    public record Coluna(String nome, Tipo tipo) {
+    }
+
+    private final BufferAllocator allocator = new RootAllocator();
+    private final VectorSchemaRoot root;
+    private final ArrowFileWriter writer;
+    private final List<Coluna> colunas;
+    private final int linhasPorGrupo;
+    private int linhasGrupo;
+    private long linhas;
+
+    public EscritorColunar(OutputStream destino, List<Coluna> colunas, int linhasPorGrupo) throws IOException {
+        this.colunas = List.copyOf(colunas);
+        this.linhasPorGrupo = linhasPorGrupo;
+        this.root = VectorSchemaRoot.create(new Schema(colunas.stream()
+                .map(coluna -> new Field(coluna.nome(), FieldType.nullable(coluna.tipo().getArrow()), null))
+                .toList()), allocator);
+        this.writer = new ArrowFileWriter(root, null, Channels.newChannel(destino), Map.of(), IpcOption.DEFAULT,
+                CommonsCompressionFactory.INSTANCE, CompressionUtil.CodecType.ZSTD);
+        writer.start();
+    }
+
+    /**
+     * Acrescentar uma linha: Long (ou Integer) para INT64, LocalDateTime para TIMESTAMP,
+     * String para STRING, null para ausente
+     */
+    public void escrever(Object... valores) throws IOException {
+        if (valores.length != colunas.size()) {
+            throw new IllegalArgumentException("Esperadas " + colunas.size() + " colunas, recebidas " + valores.length);
+        }
+        for (int i = 0; i < valores.length; i++) {
+            acrescentar(root.getVector(i), colunas.get(i).tipo(), valores[i]);
+        }
+        linhasGrupo++;
+        linhas++;
+        if (linhasGrupo == linhasPorGrupo) {
+            gravarGrupo();
+        }
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            gravarGrupo();
+            writer.end();
+        } finally {
+            try {
+                writer.close();
+            } finally {
+                root.close();
+                allocator.close();
+            }
+        }
+    }
+
+    private void acrescentar(FieldVector vetor, Tipo tipo, Object valor) {
+        if (valor == null) {
+            vetor.setNull(linhasGrupo);
+            return;
+        }
+        switch (tipo) {
+            case INT64 -> ((BigIntVector) vetor).setSafe(linhasGrupo, ((Number) valor).longValue());
+            case TIMESTAMP -> ((TimeStampMilliVector) vetor).setSafe(linhasGrupo,
+                    ((LocalDateTime) valor).toInstant(ZoneOffset.UTC).toEpochMilli());
+            case STRING -> ((VarCharVector) vetor).setSafe(linhasGrupo,
+                    valor.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void gravarGrupo() throws IOException {
+        if (linhasGrupo == 0) {
+            return;
+        }
+        root.setRowCount(linhasGrupo);
+        writer.writeBatch();
+        // Mantém a capacidade alocada para o próximo batch
+        for (FieldVector vetor : root.getFieldVectors()) {
+            vetor.reset();
+        }
+        linhasGrupo = 0;
+    }
+}
@@ -0,0 +1,84 @@
+package com.delivery_api.Projeto.Delivery.API.colunar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.List;
+
+import com.delivery_api.Projeto.Delivery.API.colunar.EscritorColunar.Coluna;
+import com.delivery_api.Projeto.Delivery.API.colunar.EscritorColunar.Tipo;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+
+/**
+ * Lê linha a linha um arquivo Arrow IPC gravado por EscritorColunar, um record batch por
+ * vez: a memória fica limitada ao batch atual, como na escrita.
+ *
+ * Não é thread-safe.
+ */
+public class LeitorColunar implements Closeable {
+
+    private final BufferAllocator allocator = new RootAllocator();
+    private final ArrowFileReader reader;
+    private final List<Coluna> colunas;
+
+    private int proxima;
+    private int linhasBatch;
+
+    public LeitorColunar(SeekableByteChannel origem) throws IOException {
+        this.reader = new ArrowFileReader(origem, allocator, CommonsCompressionFactory.INSTANCE);
+        try {
+            this.colunas = reader.getVectorSchemaRoot().getSchema().getFields().stream()
+                    .map(campo -> new Coluna(campo.getName(), Tipo.de(campo.getType())))
+                    .toList();
+        } catch (IOException e) {
+            close();
+            throw e;
+        } catch (RuntimeException e) {
+            // Assinatura ou rodapé inválidos, ou tipo que EscritorColunar não grava
+            close();
+            throw new IOException("Arquivo não é um Arrow IPC de EscritorColunar", e);
+        }
+    }
+
+    public List<Coluna> getColunas() {
+        return colunas;
+    }
+
+    /**
+     * Próxima linha, na ordem das colunas: Long para INT64, LocalDateTime para TIMESTAMP,
+     * String para STRING, null para ausente. Retorna null no fim do arquivo.
+     */
+    public Object[] ler() throws IOException {
+        while (proxima == linhasBatch) {
+            if (!reader.loadNextBatch()) {
+                return null;
+            }
+            linhasBatch = reader.getVectorSchemaRoot().getRowCount();
+            proxima = 0;
+        }
+        VectorSchemaRoot root = reader.getVectorSchemaRoot();
+        Object[] linha = new Object[colunas.size()];
+        for (int c = 0; c < linha.length; c++) {
+            FieldVector vetor = root.getVector(c);
+            Object valor = vetor.getObject(proxima);
+            // VarCharVector devolve Text
+            linha[c] = valor != null && colunas.get(c).tipo() == Tipo.STRING ? valor.toString() : valor;
+        }
+        proxima++;
+        return linha;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } finally {
+            allocator.close();
+        }
+    }
+}
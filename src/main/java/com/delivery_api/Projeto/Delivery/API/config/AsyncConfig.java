@@ -0,0 +1,13 @@
+package com.delivery_api.Projeto.Delivery.API.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Tarefas @Async usam o applicationTaskExecutor do Spring Boot: pool de threads de
+ * plataforma por padrão, threads virtuais com spring.threads.virtual.enabled=true.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,229 @@
+package com.delivery_api.Projeto.Delivery.API.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.ErrorResponse;
+import com.delivery_api.Projeto.Delivery.API.service.IdempotenciaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Deduplica a criação de pedidos (POST /api/pedidos e /api/pedidos/lote) pelo header Idempotency-Key: a primeira requisição é
+ * processada e sua resposta 2xx gravada; repetições recebem a mesma resposta sem
+ * chegar ao controller. O corpo é lido em memória para o hash, por isso tem limite
+ * de tamanho (delivery.idempotencia.max-corpo).
+ */
+@Component
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String HEADER_REPETIDA = "Idempotent-Replayed";
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    // Endpoints que criam pedidos, sem barra final
+    private static final Set<String> CAMINHOS = Set.of("/api/pedidos", "/api/pedidos/lote");
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${delivery.idempotencia.max-corpo:1MB}")
+    private DataSize tamanhoMaximoCorpo;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !CAMINHOS.contains(semBarraFinal(UrlPathHelper.defaultInstance.getPathWithinApplication(request)))
+                || request.getHeader(HEADER) == null;
+    }
+
+    private static String semBarraFinal(String caminho) {
+        return caminho.length() > 1 && caminho.endsWith("/") ? caminho.substring(0, caminho.length() - 1) : caminho;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String chave = request.getHeader(HEADER).trim();
+        if (chave.isEmpty() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            escreverErro(response, HttpStatus.BAD_REQUEST, "INVALID_IDEMPOTENCY_KEY",
+                    "Idempotency-Key deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+            return;
+        }
+
+        long limite = tamanhoMaximoCorpo.toBytes();
+        byte[] corpo = request.getContentLengthLong() > limite
+                ? null
+                : request.getInputStream().readNBytes((int) Math.min(limite + 1, Integer.MAX_VALUE - 8));
+        // Sem Content-Length (chunked) o excesso só aparece na leitura
+        if (corpo == null || corpo.length > limite) {
+            escreverErro(response, HttpStatus.PAYLOAD_TOO_LARGE, "PAYLOAD_TOO_LARGE",
+                    "Corpo da requisição excede o limite de " + limite + " bytes");
+            return;
+        }
+        String hash = sha256(corpo);
+
+        IdempotenciaService.Reserva reserva = idempotenciaService.reservar(chave, hash);
+        switch (reserva.situacao()) {
+            case REPETIDA -> {
+                IdempotenciaService.RespostaArmazenada resposta = reserva.resposta();
+                response.setStatus(resposta.status());
+                if (resposta.contentType() != null) {
+                    response.setContentType(resposta.contentType());
+                }
+                response.setHeader(HEADER_REPETIDA, "true");
+                response.getOutputStream().write(resposta.corpo());
+                return;
+            }
+            case EM_ANDAMENTO -> {
+                escreverErro(response, HttpStatus.CONFLICT, "IDEMPOTENCY_KEY_IN_PROGRESS",
+                        "Requisição com esta Idempotency-Key ainda está em processamento");
+                return;
+            }
+            case CORPO_DIFERENTE -> {
+                escreverErro(response, HttpStatus.UNPROCESSABLE_ENTITY, "IDEMPOTENCY_KEY_REUSED",
+                        "Idempotency-Key já utilizada com um corpo de requisição diferente");
+                return;
+            }
+            case NOVA -> {
+                // segue para o processamento
+            }
+        }
+
+        ContentCachingResponseWrapper respostaCacheada = new ContentCachingResponseWrapper(response);
+        boolean sucesso = false;
+        try {
+            chain.doFilter(new CorpoLidoRequest(request, corpo), respostaCacheada);
+            int status = respostaCacheada.getStatus();
+            sucesso = status >= 200 && status < 300;
+        } finally {
+            // Erros não são gravados: o cliente pode tentar de novo com a mesma chave
+            if (!sucesso) {
+                idempotenciaService.liberar(chave);
+                respostaCacheada.copyBodyToResponse();
+            }
+        }
+
+        try {
+            idempotenciaService.concluir(chave, hash, respostaCacheada.getStatus(), respostaCacheada.getContentType(),
+                    respostaCacheada.getContentAsByteArray());
+        } catch (RuntimeException e) {
+            // O pedido já foi criado: liberar a chave deixaria a nova tentativa duplicá-lo
+            idempotenciaService.manterPendente(chave, hash);
+            logger.warn("Falha ao gravar a resposta da Idempotency-Key " + chave, e);
+        } finally {
+            respostaCacheada.copyBodyToResponse();
+        }
+    }
+
+    private void escreverErro(HttpServletResponse response, HttpStatus status, String codigo, String detalhe)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.of(codigo, status.getReasonPhrase(), detalhe));
+    }
+
+    private static String sha256(byte[] corpo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(corpo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Reapresenta o corpo já lido (para o hash) ao restante da cadeia.
+     */
+    private static class CorpoLidoRequest extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        CorpoLidoRequest(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // O corpo inteiro já está em memória: tudo disponível de imediato
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corpo.length;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.delivery_api.Projeto.Delivery.API.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -3,6 +3,7 @@ package com.delivery_api.Projeto.Delivery.API.controller;
 import com.delivery_api.Projeto.Delivery.API.dto.request.ClienteRequestDTO;
 import com.delivery_api.Projeto.Delivery.API.dto.response.ApiResponse;
 import com.delivery_api.Projeto.Delivery.API.dto.response.ClienteResponseDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.PageCursor;
 import com.delivery_api.Projeto.Delivery.API.dto.response.PagedResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -64,6 +65,33 @@ public class ClienteController {
         return ResponseEntity.ok(ApiResponse.success(response.getContent()));
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Listar clientes por cursor", description = "Lista clientes ativos ordenados por nome usando paginação por cursor (keyset)")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista de clientes retornada"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<PagedResponse<ClienteResponseDTO>> listarPorCursor(
+            @Parameter(description = "Cursor da próxima página (vazio para a primeira)") @RequestParam String cursor,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Incluir contagem total (executa COUNT)") @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        size = PagedResponse.limitarTamanho(size);
+
+        // Busca um item a mais para saber se existe próxima página
+        List<ClienteResponseDTO> clientes = clienteService.listarAtivosPorCursor(PageCursor.decode(cursor), size + 1);
+
+        String next = null;
+        if (clientes.size() > size) {
+            clientes = clientes.subList(0, size);
+            ClienteResponseDTO ultimo = clientes.get(size - 1);
+            next = PageCursor.encode(ultimo.getNome(), ultimo.getId());
+        }
+
+        Long total = incluirTotal ? clienteService.contarAtivos() : null;
+
+        return ResponseEntity.ok(PagedResponse.ofCursor(clientes, size, next, total, "/api/clientes"));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar cliente por ID", description = "Retorna um cliente específico pelo ID")
     @ApiResponses({
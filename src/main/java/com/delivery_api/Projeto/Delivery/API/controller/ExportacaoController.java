@@ -0,0 +1,99 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.ApiResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.response.ParticaoExportacaoDTO;
+import com.delivery_api.Projeto.Delivery.API.enums.TabelaExportacao;
+import com.delivery_api.Projeto.Delivery.API.service.ExportacaoColunarService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Globals;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/exportacoes/colunar")
+@CrossOrigin(origins = "*")
+@Tag(name = "Exportações", description = "Exportação colunar particionada por dia para o data warehouse")
+public class ExportacaoController {
+
+    private static final String TIPO_ARROW = "application/vnd.apache.arrow.file";
+
+    @Autowired
+    private ExportacaoColunarService exportacaoColunarService;
+
+    @PostMapping
+    @Operation(summary = "Exportar dias", description = "Enfileira a exportação de pedidos e vendas por hora dos dias do intervalo, uma partição por tabela e dia")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Dias enfileirados"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Período inválido")
+    })
+    public ResponseEntity<ApiResponse<List<LocalDate>>> exportar(
+            @Parameter(description = "Data inicial (formato: yyyy-MM-dd)") @RequestParam String dataInicio,
+            @Parameter(description = "Data final (formato: yyyy-MM-dd)") @RequestParam String dataFim,
+            @Parameter(description = "Regerar dias já exportados") @RequestParam(defaultValue = "false") boolean substituir) {
+        List<LocalDate> dias = exportacaoColunarService.agendar(LocalDate.parse(dataInicio), LocalDate.parse(dataFim),
+                substituir);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(dias, "Exportação enfileirada"));
+    }
+
+    @GetMapping("/{tabela}")
+    @Operation(summary = "Listar partições", description = "Lista as partições diárias de pedidos ou vendas_hora; geradoEm indica partições novas ou regeradas para a carga incremental")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Partições listadas"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Tabela inválida")
+    })
+    public ResponseEntity<ApiResponse<List<ParticaoExportacaoDTO>>> listar(
+            @Parameter(description = "Tabela: pedidos ou vendas_hora") @PathVariable String tabela,
+            @Parameter(description = "Primeiro dia (formato: yyyy-MM-dd)") @RequestParam(required = false) String desde) {
+        List<ParticaoExportacaoDTO> particoes = exportacaoColunarService.listar(TabelaExportacao.porNome(tabela),
+                desde != null ? LocalDate.parse(desde) : null);
+        return ResponseEntity.ok(ApiResponse.success(particoes));
+    }
+
+    @GetMapping("/{tabela}/{dia}")
+    @Operation(summary = "Baixar partição", description = "Envia o arquivo Arrow IPC da geração atual da partição. No conector HTTP do Tomcat, o envio é feito por sendfile (do page cache para o socket, sem passar pela JVM); como cada geração é um arquivo imutável, tamanho e conteúdo sempre batem, mesmo que a exportação noturna gere uma nova durante o download")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Arquivo da partição"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Partição não encontrada")
+    })
+    public void baixar(
+            @Parameter(description = "Tabela: pedidos ou vendas_hora") @PathVariable String tabela,
+            @Parameter(description = "Dia (formato: yyyy-MM-dd)") @PathVariable String dia,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        TabelaExportacao tabelaExportacao = TabelaExportacao.porNome(tabela);
+        LocalDate data = LocalDate.parse(dia);
+        Path arquivo = exportacaoColunarService.arquivo(tabelaExportacao, data);
+        long tamanho = Files.size(arquivo);
+
+        response.setContentType(TIPO_ARROW);
+        response.setContentLengthLong(tamanho);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + tabelaExportacao.getNome() + "-" + data + ".arrow\"");
+
+        // O Tomcat envia o arquivo depois que o método retorna; a geração fica no disco por
+        // retencao-geracao-ms mesmo que outra a substitua
+        if (Boolean.TRUE.equals(request.getAttribute(Globals.SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, arquivo.toAbsolutePath().toString());
+            request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, 0L);
+            request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, tamanho);
+            return;
+        }
+        // Sem sendfile (HTTPS, outro container, MockMvc): cópia comum pelo OutputStream
+        Files.copy(arquivo, response.getOutputStream());
+    }
+}
@@ -1,24 +1,49 @@
 package com.delivery_api.Projeto.Delivery.API.controller;
 
+import com.delivery_api.Projeto.Delivery.API.config.IdempotenciaFilter;
 import com.delivery_api.Projeto.Delivery.API.dto.request.PedidoRequestDTO;
 import com.delivery_api.Projeto.Delivery.API.dto.response.ApiResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.response.ItemPedidoResponseDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.PageCursor;
+import com.delivery_api.Projeto.Delivery.API.dto.response.PagedResponse;
 import com.delivery_api.Projeto.Delivery.API.dto.response.PedidoResponseDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.ResultadoLotePedidoDTO;
 import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.enums.FormatoExportacao;
 import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.exceptions.EntityNotFoundException;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoEventosService;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoExportacaoService;
+import com.delivery_api.Projeto.Delivery.API.service.PedidoPipelineService;
 import com.delivery_api.Projeto.Delivery.API.service.PedidoService;
+import com.delivery_api.Projeto.Delivery.API.service.RestauranteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.groups.Default;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,21 +55,54 @@ public class PedidoController {
     @Autowired
     private PedidoService pedidoService;
 
+    @Autowired
+    private PedidoExportacaoService pedidoExportacaoService;
+
+    @Autowired
+    private PedidoEventosService pedidoEventosService;
+
+    @Autowired
+    private RestauranteService restauranteService;
+
+    // Presente apenas com delivery.pedidos.pipeline.habilitado=true
+    @Autowired(required = false)
+    private PedidoPipelineService pedidoPipelineService;
+
     @PostMapping
-    @Operation(summary = "Criar pedido", description = "Cria um novo pedido no sistema")
+    @Operation(summary = "Criar pedido", description = "Cria um novo pedido no sistema. Com cepEntrega, a taxa de entrega cobrada é a cotada por distância para o CEP (a mesma de GET /api/restaurantes/{id}/taxa-entrega/{cep}); sem ele, a taxa base do restaurante. Com o header Idempotency-Key, repetições da mesma requisição devolvem o pedido já criado")
+    @Parameter(in = ParameterIn.HEADER, name = IdempotenciaFilter.HEADER, description = "Chave única da tentativa de criação (ex.: UUID gerado pelo cliente)")
     @ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Pedido criado com sucesso"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Dados inválidos"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Cliente ou Restaurante não encontrado")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Cliente ou Restaurante não encontrado"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Requisição com a mesma Idempotency-Key em processamento"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Idempotency-Key reutilizada com outro corpo"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Fila de gravação cheia (modo pipeline)")
     })
-    public ResponseEntity<ApiResponse<PedidoResponseDTO>> criarPedido(@Valid @RequestBody PedidoRequestDTO dto) {
-        Pedido pedido = pedidoService.criarPedido(dto);
+    public ResponseEntity<ApiResponse<PedidoResponseDTO>> criarPedido(
+            @Validated({Default.class, PedidoRequestDTO.Gravacao.class}) @RequestBody PedidoRequestDTO dto) {
+        Pedido pedido = pedidoPipelineService != null
+                ? pedidoPipelineService.criarPedido(dto)
+                : pedidoService.criarPedido(dto);
         PedidoResponseDTO response = toResponseDTO(pedido);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .header("Location", "/api/pedidos/" + response.getId())
                 .body(ApiResponse.success(response, "Pedido criado com sucesso"));
     }
 
+    @PostMapping("/lote")
+    @Operation(summary = "Criar pedidos em lote", description = "Cria vários pedidos em uma única chamada, com resultado individual por pedido")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lote processado; ver resultado de cada pedido"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Lote vazio, acima do limite ou com elemento nulo")
+    })
+    public ResponseEntity<ApiResponse<List<ResultadoLotePedidoDTO>>> criarLote(@RequestBody List<@NotNull PedidoRequestDTO> dtos) {
+        List<ResultadoLotePedidoDTO> resultados = pedidoService.criarPedidosEmLote(dtos);
+        long criados = resultados.stream().filter(ResultadoLotePedidoDTO::isSucesso).count();
+        return ResponseEntity.ok(ApiResponse.success(resultados,
+                criados + " de " + resultados.size() + " pedidos criados"));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar pedido por ID", description = "Retorna um pedido completo pelo ID")
     @ApiResponses({
@@ -59,32 +117,95 @@ public class PedidoController {
     }
 
     @GetMapping
-    @Operation(summary = "Listar pedidos", description = "Lista pedidos com filtros opcionais (status, data)")
+    @Operation(summary = "Listar pedidos", description = "Lista pedidos com filtros opcionais (status, data) usando paginação por cursor")
     @ApiResponses({
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista de pedidos retornada")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista de pedidos retornada"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Cursor inválido")
     })
-    public ResponseEntity<ApiResponse<List<PedidoResponseDTO>>> listar(
+    public ResponseEntity<PagedResponse<PedidoResponseDTO>> listar(
             @Parameter(description = "Status do pedido") @RequestParam(required = false) StatusPedido status,
             @Parameter(description = "Data inicial (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String dataInicio,
-            @Parameter(description = "Data final (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String dataFim) {
-        
-        List<Pedido> pedidos;
-        
-        if (status != null) {
-            pedidos = pedidoService.listarPorStatus(status);
-        } else if (dataInicio != null && dataFim != null) {
-            LocalDateTime inicio = LocalDateTime.parse(dataInicio);
-            LocalDateTime fim = LocalDateTime.parse(dataFim);
-            pedidos = pedidoService.listarPorPeriodo(inicio, fim);
-        } else {
-            pedidos = pedidoService.listarTodos();
+            @Parameter(description = "Data final (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String dataFim,
+            @Parameter(description = "Cursor da próxima página (vazio para a primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Incluir contagem total (executa COUNT)") @RequestParam(defaultValue = "false") boolean incluirTotal) {
+
+        size = PagedResponse.limitarTamanho(size);
+        LocalDateTime inicio = dataInicio != null ? LocalDateTime.parse(dataInicio) : null;
+        LocalDateTime fim = dataFim != null ? LocalDateTime.parse(dataFim) : null;
+
+        // Busca um item a mais para saber se existe próxima página
+        List<Pedido> pedidos = pedidoService.listarPorCursor(status, inicio, fim,
+                PageCursor.decode(cursor, LocalDateTime::parse), size + 1);
+
+        String next = null;
+        if (pedidos.size() > size) {
+            pedidos = pedidos.subList(0, size);
+            Pedido ultimo = pedidos.get(size - 1);
+            next = PageCursor.encode(
+                    ultimo.getDataPedido() != null ? ultimo.getDataPedido().toString() : null, ultimo.getId());
         }
-        
-        List<PedidoResponseDTO> response = pedidos.stream()
+
+        List<PedidoResponseDTO> content = pedidos.stream()
                 .map(this::toResponseDTO)
                 .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+
+        Long total = incluirTotal ? pedidoService.contar(status, inicio, fim) : null;
+
+        String baseUrl = UriComponentsBuilder.fromPath("/api/pedidos")
+                .queryParamIfPresent("status", Optional.ofNullable(status))
+                .queryParamIfPresent("dataInicio", Optional.ofNullable(dataInicio))
+                .queryParamIfPresent("dataFim", Optional.ofNullable(dataFim))
+                .toUriString();
+
+        return ResponseEntity.ok(PagedResponse.ofCursor(content, size, next, total, baseUrl));
+    }
+
+    @GetMapping(value = "/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar pedido", description = "Abre um stream Server-Sent Events com o status atual do pedido e cada mudança de status posterior")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stream de eventos aberto"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Pedido não encontrado"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Limite de conexões atingido")
+    })
+    public SseEmitter acompanharPedido(@Parameter(description = "ID do pedido") @PathVariable Long id) {
+        return pedidoEventosService.assinarPedido(id, pedidoService::buscarPorId);
+    }
+
+    @GetMapping(value = "/restaurantes/{restauranteId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Feed de pedidos do restaurante", description = "Abre um stream Server-Sent Events com novos pedidos e mudanças de status do restaurante")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stream de eventos aberto"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Restaurante não encontrado"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Limite de conexões atingido")
+    })
+    public SseEmitter acompanharRestaurante(
+            @Parameter(description = "ID do restaurante") @PathVariable Long restauranteId) {
+        restauranteService.findById(restauranteId)
+                .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado: " + restauranteId));
+        return pedidoEventosService.assinarRestaurante(restauranteId);
+    }
+
+    @GetMapping("/exportar")
+    @Operation(summary = "Exportar pedidos", description = "Exporta os pedidos de um período em NDJSON ou CSV, em streaming")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Exportação iniciada"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    })
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Data inicial (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam String dataInicio,
+            @Parameter(description = "Data final (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam String dataFim,
+            @Parameter(description = "Formato do arquivo (NDJSON ou CSV)") @RequestParam(defaultValue = "NDJSON") FormatoExportacao formato) {
+        LocalDateTime inicio = LocalDateTime.parse(dataInicio);
+        LocalDateTime fim = LocalDateTime.parse(dataFim);
+
+        StreamingResponseBody body = out -> pedidoExportacaoService.exportar(inicio, fim, formato, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"pedidos." + formato.getExtensao() + "\"")
+                .body(body);
     }
 
     @PatchMapping("/{id}/status")
@@ -92,7 +213,8 @@ public class PedidoController {
     @ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Status atualizado com sucesso"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Pedido não encontrado"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Status inválido")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Status inválido"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Transição de status não permitida a partir do status atual")
     })
     public ResponseEntity<ApiResponse<PedidoResponseDTO>> atualizarStatus(
             @Parameter(description = "ID do pedido") @PathVariable Long id,
@@ -107,7 +229,7 @@ public class PedidoController {
     @ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Pedido cancelado com sucesso"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Pedido não encontrado"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Pedido não pode ser cancelado")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Pedido não pode ser cancelado no status atual")
     })
     public ResponseEntity<ApiResponse<PedidoResponseDTO>> cancelar(
             @Parameter(description = "ID do pedido") @PathVariable Long id) {
@@ -131,22 +253,39 @@ public class PedidoController {
     }
 
     @GetMapping("/restaurantes/{restauranteId}/pedidos")
-    @Operation(summary = "Pedidos de um restaurante", description = "Retorna todos os pedidos de um restaurante específico")
+    @Operation(summary = "Pedidos de um restaurante", description = "Retorna os pedidos de um restaurante específico, paginados e ordenados do mais recente para o mais antigo")
     @ApiResponses({
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista de pedidos retornada")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista de pedidos retornada"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Parâmetros de paginação inválidos")
     })
-    public ResponseEntity<ApiResponse<List<PedidoResponseDTO>>> pedidosRestaurante(
-            @Parameter(description = "ID do restaurante") @PathVariable Long restauranteId) {
-        List<Pedido> todosPedidos = pedidoService.listarTodos();
-        List<Pedido> pedidos = todosPedidos.stream()
-                .filter(p -> p.getRestaurante() != null && p.getRestaurante().getId().equals(restauranteId))
-                .collect(Collectors.toList());
-        
-        List<PedidoResponseDTO> response = pedidos.stream()
+    public ResponseEntity<PagedResponse<PedidoResponseDTO>> pedidosRestaurante(
+            @Parameter(description = "ID do restaurante") @PathVariable Long restauranteId,
+            @Parameter(description = "Status do pedido") @RequestParam(required = false) StatusPedido status,
+            @Parameter(description = "Número da página (0-indexed)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Número da página não pode ser negativo");
+        }
+        size = PagedResponse.limitarTamanho(size);
+        // O OFFSET vai para o banco como int
+        if ((long) page * size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Página além do limite de paginação por número");
+        }
+
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Direction.DESC, "dataPedido").and(Sort.by(Sort.Direction.DESC, "id")));
+        Page<Pedido> pedidos = pedidoService.listarPorRestaurante(restauranteId, status, pageable);
+
+        List<PedidoResponseDTO> content = pedidos.getContent().stream()
                 .map(this::toResponseDTO)
                 .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+
+        PagedResponse<PedidoResponseDTO> response = PagedResponse.of(
+            content, page, size, pedidos.getTotalElements(),
+            "/api/pedidos/restaurantes/" + restauranteId + "/pedidos"
+        );
+
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/calcular")
@@ -171,7 +310,10 @@ public class PedidoController {
         dto.setObservacoes(pedido.getObservacoes());
         dto.setClienteId(pedido.getClienteId());
         dto.setRestauranteId(pedido.getRestaurante() != null ? pedido.getRestaurante().getId() : null);
-        dto.setItens(pedido.getItens());
+        dto.setItens(pedido.getItens().stream()
+                .map(item -> new ItemPedidoResponseDTO(item.getProdutoId(), item.getQuantidade(),
+                        item.getPrecoUnitario(), item.getSubtotal()))
+                .collect(Collectors.toList()));
         return dto;
     }
 }
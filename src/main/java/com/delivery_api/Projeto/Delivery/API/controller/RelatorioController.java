@@ -1,23 +1,54 @@
 package com.delivery_api.Projeto.Delivery.API.controller;
 
+import com.delivery_api.Projeto.Delivery.API.dto.request.RelatorioJobRequestDTO;
 import com.delivery_api.Projeto.Delivery.API.dto.response.ApiResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.response.ClientesUnicosDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.ConsultaAnaliticaDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.DistribuicaoDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.MetricasCacheRelatorioDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.ProdutoRankingDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.RelatorioJobDTO;
+import com.delivery_api.Projeto.Delivery.API.enums.AgrupamentoPeriodo;
+import com.delivery_api.Projeto.Delivery.API.enums.DimensaoAnalitica;
+import com.delivery_api.Projeto.Delivery.API.enums.MetricaDistribuicao;
+import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.exceptions.BusinessException;
+import com.delivery_api.Projeto.Delivery.API.projection.ClienteAtivo;
 import com.delivery_api.Projeto.Delivery.API.projection.RelatorioVendas;
+import com.delivery_api.Projeto.Delivery.API.projection.ResumoPedidos;
 import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
 import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
 import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
 import com.delivery_api.Projeto.Delivery.API.repository.ClienteRepository;
-import com.delivery_api.Projeto.Delivery.API.service.RestauranteService;
+import com.delivery_api.Projeto.Delivery.API.service.AnaliticoPedidosService;
+import com.delivery_api.Projeto.Delivery.API.service.ClienteResumoService;
+import com.delivery_api.Projeto.Delivery.API.service.ClientesUnicosService;
+import com.delivery_api.Projeto.Delivery.API.service.DistribuicaoPedidosService;
+import com.delivery_api.Projeto.Delivery.API.service.RankingProdutosService;
+import com.delivery_api.Projeto.Delivery.API.service.RelatorioCacheService;
+import com.delivery_api.Projeto.Delivery.API.service.RelatorioJobService;
+import com.delivery_api.Projeto.Delivery.API.service.VendaHoraService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/relatorios")
@@ -26,7 +57,29 @@ import java.util.Map;
 public class RelatorioController {
 
     @Autowired
-    private RestauranteService restauranteService;
+    private VendaHoraService vendaHoraService;
+
+    @Autowired
+    private RankingProdutosService rankingProdutosService;
+
+    @Autowired
+    private ClienteResumoService clienteResumoService;
+
+    @Autowired
+    private ClientesUnicosService clientesUnicosService;
+
+    @Autowired
+    private DistribuicaoPedidosService distribuicaoPedidosService;
+
+    @Autowired
+    private RelatorioCacheService relatorioCacheService;
+
+    @Autowired
+    private RelatorioJobService relatorioJobService;
+
+    // Presente apenas com delivery.analitico.habilitado=true
+    @Autowired(required = false)
+    private AnaliticoPedidosService analiticoPedidosService;
 
     @Autowired
     private PedidoRepository pedidoRepository;
@@ -38,49 +91,113 @@ public class RelatorioController {
     private ClienteRepository clienteRepository;
 
     @GetMapping("/vendas-por-restaurante")
-    @Operation(summary = "Vendas por restaurante", description = "Retorna relatório de vendas agrupado por restaurante")
+    @Operation(summary = "Vendas por restaurante", description = "Retorna relatório de vendas agrupado por restaurante, a partir do agregado por hora (o período é considerado com granularidade de hora)")
     @ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Relatório gerado com sucesso")
     })
     public ResponseEntity<ApiResponse<List<RelatorioVendas>>> vendasPorRestaurante(
             @Parameter(description = "Data inicial (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String dataInicio,
-            @Parameter(description = "Data final (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String dataFim) {
-        List<RelatorioVendas> relatorio = restauranteService.relatorioVendasPorRestaurante();
+            @Parameter(description = "Data final (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String dataFim,
+            @Parameter(description = "Consistência estrita: ignora resultados calculados antes do último pedido gravado") @RequestParam(defaultValue = "false") boolean consistente) {
+        LocalDateTime inicio = dataInicio != null ? LocalDateTime.parse(dataInicio) : null;
+        LocalDateTime fim = dataFim != null ? LocalDateTime.parse(dataFim) : null;
+        List<RelatorioVendas> relatorio = relatorioCacheService.obter("vendas-por-restaurante",
+                inicio + "|" + fim, consistente,
+                () -> vendaHoraService.relatorioVendasPorRestaurante(inicio, fim));
         return ResponseEntity.ok(ApiResponse.success(relatorio));
     }
 
     @GetMapping("/produtos-mais-vendidos")
-    @Operation(summary = "Produtos mais vendidos", description = "Retorna ranking dos produtos mais vendidos")
+    @Operation(summary = "Produtos mais vendidos", description = "Retorna ranking dos produtos mais vendidos, geral ou de um restaurante. Sem período, o ranking acumulado vem da memória e é atualizado a cada segundo")
     @ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Relatório gerado com sucesso")
     })
-    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> produtosMaisVendidos(
-            @Parameter(description = "Limite de resultados") @RequestParam(defaultValue = "10") int limite) {
-        // Implementação simplificada - em produção, usar consulta nativa
-        List<Map<String, Object>> produtos = List.of(
-            Map.of("produto", "Pizza Margherita", "quantidade", 150, "totalVendas", 5385.00),
-            Map.of("produto", "X-Burger", "quantidade", 120, "totalVendas", 2268.00),
-            Map.of("produto", "Combo Sashimi", "quantidade", 80, "totalVendas", 3672.00)
-        );
+    public ResponseEntity<ApiResponse<List<ProdutoRankingDTO>>> produtosMaisVendidos(
+            @Parameter(description = "Limite de resultados") @RequestParam(defaultValue = "10") int limite,
+            @Parameter(description = "ID do restaurante") @RequestParam(required = false) Long restauranteId,
+            @Parameter(description = "Data inicial (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String dataInicio,
+            @Parameter(description = "Data final (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String dataFim,
+            @Parameter(description = "Consistência estrita: ignora resultados calculados antes do último pedido gravado") @RequestParam(defaultValue = "false") boolean consistente) {
+        if (limite < 1 || limite > rankingProdutosService.getTamanhoMaximo()) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + rankingProdutosService.getTamanhoMaximo());
+        }
+
+        List<ProdutoRankingDTO> produtos;
+        if (dataInicio == null && dataFim == null) {
+            // Ranking acumulado: lido do snapshot em memória
+            produtos = rankingProdutosService.ranking(restauranteId, limite);
+        } else {
+            // Só o ranking por período vai ao banco e passa pelo cache
+            LocalDateTime inicio = dataInicio != null ? LocalDateTime.parse(dataInicio) : null;
+            LocalDateTime fim = dataFim != null ? LocalDateTime.parse(dataFim) : null;
+            produtos = relatorioCacheService.obter("produtos-mais-vendidos",
+                    restauranteId + "|" + inicio + "|" + fim + "|" + limite, consistente,
+                    () -> rankingProdutosService.rankingPorPeriodo(restauranteId, inicio, fim, limite));
+        }
         return ResponseEntity.ok(ApiResponse.success(produtos));
     }
 
     @GetMapping("/clientes-ativos")
-    @Operation(summary = "Clientes mais ativos", description = "Retorna ranking de clientes por número de pedidos")
+    @Operation(summary = "Clientes mais ativos", description = "Retorna ranking de clientes por número de pedidos ou valor gasto (pedidos cancelados não contam)")
     @ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Relatório gerado com sucesso")
     })
-    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> clientesAtivos(
-            @Parameter(description = "Limite de resultados") @RequestParam(defaultValue = "10") int limite) {
-        // Implementação simplificada - em produção, usar consulta nativa
-        List<Map<String, Object>> clientes = List.of(
-            Map.of("cliente", "João Silva", "totalPedidos", 25, "valorTotal", 1250.50),
-            Map.of("cliente", "Maria Santos", "totalPedidos", 18, "valorTotal", 890.30),
-            Map.of("cliente", "Pedro Oliveira", "totalPedidos", 12, "valorTotal", 650.20)
-        );
+    public ResponseEntity<ApiResponse<List<ClienteAtivo>>> clientesAtivos(
+            @Parameter(description = "Limite de resultados") @RequestParam(defaultValue = "10") int limite,
+            @Parameter(description = "Critério de ordenação: pedidos ou valor") @RequestParam(defaultValue = "pedidos") String ordenarPor,
+            @Parameter(description = "Consistência estrita: ignora resultados calculados antes do último pedido gravado") @RequestParam(defaultValue = "false") boolean consistente) {
+        if (limite < 1 || limite > 100) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e 100");
+        }
+        if (!"pedidos".equals(ordenarPor) && !"valor".equals(ordenarPor)) {
+            throw new IllegalArgumentException("ordenarPor deve ser 'pedidos' ou 'valor'");
+        }
+        List<ClienteAtivo> clientes = relatorioCacheService.obter("clientes-ativos",
+                ordenarPor + "|" + limite, consistente,
+                () -> clienteResumoService.ranking("valor".equals(ordenarPor), limite));
         return ResponseEntity.ok(ApiResponse.success(clientes));
     }
 
+    @GetMapping("/clientes-unicos")
+    @Operation(summary = "Clientes únicos por restaurante", description = "Estima clientes distintos por restaurante unindo sketches HyperLogLog diários (erro padrão de cerca de 1,6%), agrupados por dia, semana, mês ou período inteiro")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Relatório gerado com sucesso"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Período inválido")
+    })
+    public ResponseEntity<ApiResponse<List<ClientesUnicosDTO>>> clientesUnicos(
+            @Parameter(description = "ID do restaurante") @RequestParam(required = false) Long restauranteId,
+            @Parameter(description = "Data inicial (formato: yyyy-MM-dd)") @RequestParam String dataInicio,
+            @Parameter(description = "Data final (formato: yyyy-MM-dd)") @RequestParam String dataFim,
+            @Parameter(description = "Agrupamento: DIA, SEMANA, MES ou PERIODO") @RequestParam(defaultValue = "PERIODO") AgrupamentoPeriodo agrupamento,
+            @Parameter(description = "Consistência estrita: ignora resultados calculados antes do último pedido gravado") @RequestParam(defaultValue = "false") boolean consistente) {
+        LocalDate inicio = LocalDate.parse(dataInicio);
+        LocalDate fim = LocalDate.parse(dataFim);
+        List<ClientesUnicosDTO> relatorio = relatorioCacheService.obter("clientes-unicos",
+                restauranteId + "|" + inicio + "|" + fim + "|" + agrupamento, consistente,
+                () -> clientesUnicosService.contar(restauranteId, inicio, fim, agrupamento));
+        return ResponseEntity.ok(ApiResponse.success(relatorio));
+    }
+
+    @GetMapping("/distribuicao")
+    @Operation(summary = "Distribuição de valor ou tempo de entrega", description = "Retorna p50, p90 e p99 do valor dos pedidos (por dia do pedido) ou do tempo até a entrega em minutos (por dia da entrega), somando sketches diários com erro relativo de até 1%")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Relatório gerado com sucesso"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Período inválido")
+    })
+    public ResponseEntity<ApiResponse<DistribuicaoDTO>> distribuicao(
+            @Parameter(description = "Métrica: VALOR_PEDIDO ou TEMPO_ENTREGA") @RequestParam(defaultValue = "VALOR_PEDIDO") MetricaDistribuicao metrica,
+            @Parameter(description = "ID do restaurante") @RequestParam(required = false) Long restauranteId,
+            @Parameter(description = "Data inicial (formato: yyyy-MM-dd)") @RequestParam String dataInicio,
+            @Parameter(description = "Data final (formato: yyyy-MM-dd)") @RequestParam String dataFim,
+            @Parameter(description = "Consistência estrita: ignora resultados calculados antes do último pedido gravado") @RequestParam(defaultValue = "false") boolean consistente) {
+        LocalDate inicio = LocalDate.parse(dataInicio);
+        LocalDate fim = LocalDate.parse(dataFim);
+        DistribuicaoDTO relatorio = relatorioCacheService.obter("distribuicao",
+                metrica + "|" + restauranteId + "|" + inicio + "|" + fim, consistente,
+                () -> distribuicaoPedidosService.distribuicao(metrica, restauranteId, inicio, fim));
+        return ResponseEntity.ok(ApiResponse.success(relatorio));
+    }
+
     @GetMapping("/pedidos-por-periodo")
     @Operation(summary = "Pedidos por período", description = "Retorna relatório de pedidos em um período específico")
     @ApiResponses({
@@ -89,32 +206,118 @@ public class RelatorioController {
     public ResponseEntity<ApiResponse<Map<String, Object>>> pedidosPorPeriodo(
             @Parameter(description = "Data inicial (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam String dataInicio,
             @Parameter(description = "Data final (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam String dataFim,
-            @Parameter(description = "Status do pedido") @RequestParam(required = false) String status) {
+            @Parameter(description = "Status do pedido") @RequestParam(required = false) String status,
+            @Parameter(description = "Consistência estrita: ignora resultados calculados antes do último pedido gravado") @RequestParam(defaultValue = "false") boolean consistente) {
         
         LocalDateTime inicio = LocalDateTime.parse(dataInicio);
         LocalDateTime fim = LocalDateTime.parse(dataFim);
-        
-        var pedidos = pedidoRepository.findByDataPedidoBetween(inicio, fim);
-        
-        if (status != null) {
-            pedidos = pedidos.stream()
-                    .filter(p -> p.getStatus().equals(status))
-                    .toList();
-        }
-        
-        long totalPedidos = pedidos.size();
-        double valorTotal = pedidos.stream()
-                .mapToDouble(p -> p.getValorTotal() != null ? p.getValorTotal().doubleValue() : 0.0)
-                .sum();
-        
+
+        ResumoPedidos resumo = relatorioCacheService.obter("pedidos-por-periodo",
+                inicio + "|" + fim + "|" + status, consistente,
+                () -> pedidoRepository.resumirPorPeriodo(inicio, fim, status));
+
+        long totalPedidos = resumo.getTotalPedidos();
+        BigDecimal valorTotal = resumo.getValorTotal();
+        BigDecimal ticketMedio = totalPedidos > 0
+                ? valorTotal.divide(BigDecimal.valueOf(totalPedidos), 2, RoundingMode.HALF_EVEN)
+                : BigDecimal.ZERO;
+
         Map<String, Object> relatorio = Map.of(
             "periodo", Map.of("inicio", dataInicio, "fim", dataFim),
             "totalPedidos", totalPedidos,
             "valorTotal", valorTotal,
-            "ticketMedio", totalPedidos > 0 ? valorTotal / totalPedidos : 0.0
+            "ticketMedio", ticketMedio
         );
-        
+
         return ResponseEntity.ok(ApiResponse.success(relatorio));
     }
-}
 
+    @GetMapping("/consulta")
+    @Operation(summary = "Consulta analítica", description = "Filtra e agrupa pedidos por restaurante, status, dia, hora do dia e faixa de valor sobre a cópia colunar em memória, sem consultar o banco. Requer delivery.analitico.habilitado=true")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Consulta executada"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Parâmetros inválidos ou módulo analítico desabilitado")
+    })
+    public ResponseEntity<ApiResponse<ConsultaAnaliticaDTO>> consulta(
+            @Parameter(description = "ID do restaurante") @RequestParam(required = false) Long restauranteId,
+            @Parameter(description = "Status do pedido") @RequestParam(required = false) StatusPedido status,
+            @Parameter(description = "Data inicial (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String dataInicio,
+            @Parameter(description = "Data final (formato: yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String dataFim,
+            @Parameter(description = "Valor mínimo do pedido") @RequestParam(required = false) BigDecimal valorMinimo,
+            @Parameter(description = "Valor máximo do pedido") @RequestParam(required = false) BigDecimal valorMaximo,
+            @Parameter(description = "Dimensões de agrupamento") @RequestParam(required = false) Set<DimensaoAnalitica> agruparPor,
+            @Parameter(description = "Limites das faixas de valor (FAIXA_VALOR)") @RequestParam(defaultValue = "25,50,100") List<BigDecimal> faixasValor,
+            @Parameter(description = "Máximo de grupos retornados") @RequestParam(defaultValue = "1000") int limite) {
+        if (analiticoPedidosService == null) {
+            throw new BusinessException("Módulo analítico desabilitado (delivery.analitico.habilitado=false)");
+        }
+        if (limite < 1) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
+        if (faixasValor.size() > AnaliticoPedidosService.MAX_LIMITES_FAIXA) {
+            throw new IllegalArgumentException("Máximo de " + AnaliticoPedidosService.MAX_LIMITES_FAIXA
+                    + " limites de faixa de valor");
+        }
+
+        AnaliticoPedidosService.Filtro filtro = new AnaliticoPedidosService.Filtro(
+                restauranteId,
+                status,
+                dataInicio != null ? LocalDateTime.parse(dataInicio) : null,
+                dataFim != null ? LocalDateTime.parse(dataFim) : null,
+                valorMinimo,
+                valorMaximo);
+        ConsultaAnaliticaDTO resultado = analiticoPedidosService.consultar(filtro,
+                agruparPor != null ? agruparPor : Set.of(), faixasValor, limite);
+        return ResponseEntity.ok(ApiResponse.success(resultado));
+    }
+
+    @GetMapping("/cache/metricas")
+    @Operation(summary = "Métricas do cache de relatórios", description = "Acertos, acertos stale, faltas e tempo de cálculo por relatório")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Métricas retornadas com sucesso")
+    })
+    public ResponseEntity<ApiResponse<List<MetricasCacheRelatorioDTO>>> metricasCache() {
+        return ResponseEntity.ok(ApiResponse.success(relatorioCacheService.metricas()));
+    }
+
+    @PostMapping("/jobs")
+    @Operation(summary = "Submeter relatório em segundo plano", description = "Enfileira um relatório de período longo; acompanhe em GET /jobs/{id} e baixe o arquivo em GET /jobs/{id}/resultado")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Relatório enfileirado"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Definição inválida"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Fila de relatórios cheia")
+    })
+    public ResponseEntity<ApiResponse<RelatorioJobDTO>> submeterJob(@Valid @RequestBody RelatorioJobRequestDTO dto) {
+        RelatorioJobDTO job = relatorioJobService.submeter(dto);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header("Location", "/api/relatorios/jobs/" + job.getId())
+                .body(ApiResponse.success(job, "Relatório enfileirado"));
+    }
+
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "Situação do relatório", description = "Retorna a situação e o progresso de um relatório em segundo plano")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Situação retornada"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Relatório não encontrado ou expirado")
+    })
+    public ResponseEntity<ApiResponse<RelatorioJobDTO>> buscarJob(
+            @Parameter(description = "ID do job") @PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.success(relatorioJobService.buscar(id)));
+    }
+
+    @GetMapping("/jobs/{id}/resultado")
+    @Operation(summary = "Baixar relatório", description = "Envia o arquivo gerado pelo relatório concluído")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Arquivo do relatório"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Relatório não encontrado ou expirado"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Relatório ainda não concluído ou com falha")
+    })
+    public ResponseEntity<Resource> resultadoJob(
+            @Parameter(description = "ID do job") @PathVariable String id) {
+        RelatorioJobService.Arquivo arquivo = relatorioJobService.resultado(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(arquivo.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo.nome() + "\"")
+                .body(new FileSystemResource(arquivo.caminho()));
+    }
+}
@@ -1,13 +1,23 @@
 package com.delivery_api.Projeto.Delivery.API.controller;
 
+import com.delivery_api.Projeto.Delivery.API.dto.request.FaixaTaxaEntregaDTO;
 import com.delivery_api.Projeto.Delivery.API.dto.request.RestauranteRequestDTO;
 import com.delivery_api.Projeto.Delivery.API.dto.response.ApiResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.response.MetricasCacheRestauranteDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.PageCursor;
 import com.delivery_api.Projeto.Delivery.API.dto.response.PagedResponse;
+import com.delivery_api.Projeto.Delivery.API.dto.response.RestauranteProximoDTO;
 import com.delivery_api.Projeto.Delivery.API.dto.response.RestauranteResponseDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.TaxaEntregaDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.FaixaTaxaEntrega;
 import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.exceptions.BusinessException;
 import com.delivery_api.Projeto.Delivery.API.exceptions.EntityNotFoundException;
 import com.delivery_api.Projeto.Delivery.API.projection.RelatorioVendas;
+import com.delivery_api.Projeto.Delivery.API.service.RestauranteCacheService;
+import com.delivery_api.Projeto.Delivery.API.service.RestauranteGeoService;
 import com.delivery_api.Projeto.Delivery.API.service.RestauranteService;
+import com.delivery_api.Projeto.Delivery.API.service.TaxaEntregaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -24,9 +34,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -38,6 +51,15 @@ public class RestauranteController {
     @Autowired
     private RestauranteService restauranteService;
 
+    @Autowired
+    private RestauranteCacheService restauranteCacheService;
+
+    @Autowired
+    private RestauranteGeoService restauranteGeoService;
+
+    @Autowired
+    private TaxaEntregaService taxaEntregaService;
+
     @PostMapping
     @Operation(summary = "Cadastrar restaurante", description = "Cria um novo restaurante no sistema")
     @ApiResponses({
@@ -54,6 +76,8 @@ public class RestauranteController {
         restaurante.setTelefone(dto.getTelefone());
         restaurante.setTaxaEntrega(dto.getTaxaEntrega());
         restaurante.setAvaliacao(dto.getAvaliacao());
+        restaurante.setLatitude(dto.getLatitude());
+        restaurante.setLongitude(dto.getLongitude());
         
         Restaurante restauranteSalvo = restauranteService.cadastrar(restaurante);
         RestauranteResponseDTO response = toResponseDTO(restauranteSalvo);
@@ -64,36 +88,77 @@ public class RestauranteController {
     }
 
     @GetMapping
-    @Operation(summary = "Listar restaurantes", description = "Lista restaurantes com filtros opcionais e paginação")
+    @Operation(summary = "Listar restaurantes", description = "Lista restaurantes com filtros combinados (categoria, ativo, taxa máxima, avaliação mínima), paginados no banco e ordenados por nome")
     @ApiResponses({
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista de restaurantes retornada com sucesso")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista de restaurantes retornada com sucesso"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Parâmetros de paginação inválidos")
     })
     public ResponseEntity<PagedResponse<RestauranteResponseDTO>> listar(
             @Parameter(description = "Categoria do restaurante") @RequestParam(required = false) String categoria,
-            @Parameter(description = "Filtrar apenas ativos") @RequestParam(required = false) Boolean ativo,
+            @Parameter(description = "Filtrar por status (padrão: apenas ativos)") @RequestParam(defaultValue = "true") Boolean ativo,
+            @Parameter(description = "Taxa de entrega máxima") @RequestParam(required = false) BigDecimal taxaMaxima,
+            @Parameter(description = "Avaliação mínima") @RequestParam(required = false) BigDecimal avaliacaoMinima,
             @Parameter(description = "Número da página (0-indexed)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int size) {
-        
-        List<RestauranteResponseDTO> restaurantes;
-        
-        if (categoria != null) {
-            restaurantes = restauranteService.buscarPorCategoria(categoria);
-        } else if (ativo != null && ativo) {
-            restaurantes = restauranteService.listarAtivos();
-        } else {
-            restaurantes = restauranteService.listarAtivos();
+        if (page < 0) {
+            throw new IllegalArgumentException("Número da página não pode ser negativo");
         }
-        
-        // Aplicar paginação manual
-        int start = page * size;
-        int end = Math.min(start + size, restaurantes.size());
-        List<RestauranteResponseDTO> pagedContent = restaurantes.subList(start, end);
-        
-        PagedResponse<RestauranteResponseDTO> response = PagedResponse.of(
-            pagedContent, page, size, restaurantes.size(), "/api/restaurantes"
-        );
-        
-        return ResponseEntity.ok(response);
+        size = PagedResponse.limitarTamanho(size);
+        // O OFFSET vai para o banco como int
+        if ((long) page * size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Página além do limite de paginação por número; use o cursor");
+        }
+
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Direction.ASC, "nome").and(Sort.by(Sort.Direction.ASC, "id")));
+        Page<RestauranteResponseDTO> restaurantes = restauranteService.listar(categoria, ativo, taxaMaxima,
+                avaliacaoMinima, pageable);
+
+        String baseUrl = UriComponentsBuilder.fromPath("/api/restaurantes")
+                .queryParamIfPresent("categoria", Optional.ofNullable(categoria))
+                .queryParam("ativo", ativo)
+                .queryParamIfPresent("taxaMaxima", Optional.ofNullable(taxaMaxima))
+                .queryParamIfPresent("avaliacaoMinima", Optional.ofNullable(avaliacaoMinima))
+                .toUriString();
+
+        return ResponseEntity.ok(PagedResponse.of(restaurantes.getContent(), page, size,
+                restaurantes.getTotalElements(), baseUrl));
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Listar restaurantes por cursor", description = "Lista restaurantes ativos ordenados por nome usando paginação por cursor (keyset)")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista de restaurantes retornada com sucesso"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<PagedResponse<RestauranteResponseDTO>> listarPorCursor(
+            @Parameter(description = "Categoria do restaurante") @RequestParam(required = false) String categoria,
+            @Parameter(description = "Cursor da próxima página (vazio para a primeira)") @RequestParam String cursor,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Incluir contagem total (executa COUNT)") @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        size = PagedResponse.limitarTamanho(size);
+
+        // Busca um item a mais para saber se existe próxima página
+        List<Restaurante> restaurantes = restauranteService.listarAtivosPorCursor(categoria, PageCursor.decode(cursor), size + 1);
+
+        String next = null;
+        if (restaurantes.size() > size) {
+            restaurantes = restaurantes.subList(0, size);
+            Restaurante ultimo = restaurantes.get(size - 1);
+            next = PageCursor.encode(ultimo.getNome(), ultimo.getId());
+        }
+
+        List<RestauranteResponseDTO> content = restaurantes.stream()
+                .map(this::toResponseDTO)
+                .collect(Collectors.toList());
+
+        Long total = incluirTotal ? restauranteService.contarAtivos(categoria) : null;
+
+        String baseUrl = UriComponentsBuilder.fromPath("/api/restaurantes")
+                .queryParamIfPresent("categoria", Optional.ofNullable(categoria))
+                .toUriString();
+
+        return ResponseEntity.ok(PagedResponse.ofCursor(content, size, next, total, baseUrl));
     }
 
     @GetMapping("/{id}")
@@ -105,13 +170,7 @@ public class RestauranteController {
     public ResponseEntity<ApiResponse<RestauranteResponseDTO>> buscarPorId(
             @Parameter(description = "ID do restaurante") @PathVariable Long id) {
         return restauranteService.findById(id)
-                .map(dto -> {
-                    RestauranteResponseDTO response = new RestauranteResponseDTO(
-                        dto.getId(), dto.getNome(), dto.getCategoria(), dto.getEndereco(),
-                        dto.getTelefone(), dto.getTaxaEntrega(), dto.getAvaliacao(), dto.getAtivo()
-                    );
-                    return ResponseEntity.ok(ApiResponse.success(response));
-                })
+                .map(dto -> ResponseEntity.ok(ApiResponse.success(toResponseDTO(dto))))
                 .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado: " + id));
     }
 
@@ -131,6 +190,8 @@ public class RestauranteController {
         restaurante.setEndereco(dto.getEndereco());
         restaurante.setTelefone(dto.getTelefone());
         restaurante.setTaxaEntrega(dto.getTaxaEntrega());
+        restaurante.setLatitude(dto.getLatitude());
+        restaurante.setLongitude(dto.getLongitude());
         
         Restaurante atualizado = restauranteService.atualizar(id, restaurante);
         RestauranteResponseDTO response = toResponseDTO(atualizado);
@@ -163,41 +224,86 @@ public class RestauranteController {
     })
     public ResponseEntity<ApiResponse<List<RestauranteResponseDTO>>> buscarPorCategoria(
             @Parameter(description = "Categoria do restaurante") @PathVariable String categoria) {
-        List<RestauranteResponseDTO> restaurantes = restauranteService.buscarPorCategoria(categoria);
+        List<RestauranteResponseDTO> restaurantes = restauranteService.buscarPorCategoria(categoria).stream()
+                .map(this::toResponseDTO)
+                .toList();
         return ResponseEntity.ok(ApiResponse.success(restaurantes));
     }
 
     @GetMapping("/{id}/taxa-entrega/{cep}")
-    @Operation(summary = "Calcular taxa de entrega", description = "Calcula a taxa de entrega para um CEP específico")
+    @Operation(summary = "Calcular taxa de entrega", description = "Calcula a taxa de entrega pela distância entre o restaurante e o setor do CEP: taxa base + acréscimo da faixa de distância. É a taxa cobrada em pedidos criados com o mesmo cepEntrega")
     @ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Taxa calculada"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Restaurante não encontrado")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "CEP inválido ou fora da área de entrega"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Restaurante ou CEP não encontrado")
     })
     public ResponseEntity<ApiResponse<BigDecimal>> calcularTaxaEntrega(
             @Parameter(description = "ID do restaurante") @PathVariable Long id,
             @Parameter(description = "CEP para cálculo") @PathVariable String cep) {
-        return restauranteService.buscarPorId(id)
-                .map(restaurante -> {
-                    // Lógica simplificada - pode ser expandida com cálculo real por CEP
-                    BigDecimal taxa = restaurante.getTaxaEntrega() != null ? restaurante.getTaxaEntrega() : BigDecimal.ZERO;
-                    return ResponseEntity.ok(ApiResponse.success(taxa, "Taxa de entrega calculada"));
-                })
-                .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado: " + id));
+        TaxaEntregaDTO taxa = taxaEntregaService.calcular(id, cep);
+        if (!taxa.getDisponivel()) {
+            throw new BusinessException(taxa.getMotivo());
+        }
+        return ResponseEntity.ok(ApiResponse.success(taxa.getTaxa(), "Taxa de entrega calculada"));
+    }
+
+    @GetMapping("/taxa-entrega/{cep}")
+    @Operation(summary = "Calcular taxas de entrega em lote", description = "Calcula a taxa de entrega de vários restaurantes para o mesmo CEP, na ordem pedida; restaurantes sem entrega vêm com disponivel=false e o motivo")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Taxas calculadas"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "CEP inválido ou lote vazio/grande demais"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "CEP não encontrado")
+    })
+    public ResponseEntity<ApiResponse<List<TaxaEntregaDTO>>> calcularTaxasEntrega(
+            @Parameter(description = "CEP para cálculo") @PathVariable String cep,
+            @Parameter(description = "IDs dos restaurantes (ex.: 1,2,3)") @RequestParam List<Long> restauranteIds) {
+        return ResponseEntity.ok(ApiResponse.success(taxaEntregaService.calcularLote(cep, restauranteIds)));
+    }
+
+    @PutMapping("/{id}/taxa-entrega/faixas")
+    @Operation(summary = "Definir faixas de taxa de entrega", description = "Substitui as faixas de distância próprias do restaurante; lista vazia volta às faixas padrão")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Faixas atualizadas"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Faixas inválidas ou restaurante não encontrado")
+    })
+    public ResponseEntity<ApiResponse<List<FaixaTaxaEntregaDTO>>> atualizarFaixasTaxaEntrega(
+            @Parameter(description = "ID do restaurante") @PathVariable Long id,
+            @RequestBody List<@Valid FaixaTaxaEntregaDTO> faixas) {
+        List<FaixaTaxaEntrega> salvas = restauranteService.atualizarFaixasTaxaEntrega(id, faixas.stream()
+                .map(dto -> new FaixaTaxaEntrega(null, id, dto.getAteKm(), dto.getAcrescimo()))
+                .toList());
+        List<FaixaTaxaEntregaDTO> response = salvas.stream()
+                .map(faixa -> new FaixaTaxaEntregaDTO(faixa.getAteKm(), faixa.getAcrescimo()))
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success(response, "Faixas de taxa de entrega atualizadas"));
     }
 
     @GetMapping("/proximos/{cep}")
-    @Operation(summary = "Buscar restaurantes próximos", description = "Retorna restaurantes próximos a um CEP específico")
+    @Operation(summary = "Buscar restaurantes próximos", description = "Retorna os restaurantes ativos mais próximos de um CEP, ordenados pela distância. Com limite, devolve os k mais próximos dentro do raio; sem limite, todos dentro do raio")
     @ApiResponses({
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista de restaurantes próximos")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista de restaurantes próximos"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "CEP, limite ou raio inválidos"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "CEP fora da base de referência")
     })
-    public ResponseEntity<ApiResponse<List<RestauranteResponseDTO>>> buscarProximos(
-            @Parameter(description = "CEP para busca") @PathVariable String cep) {
-        // Lógica simplificada - retorna todos os ativos
-        // Em produção, implementar cálculo de distância por CEP
-        List<RestauranteResponseDTO> restaurantes = restauranteService.listarAtivos();
+    public ResponseEntity<ApiResponse<List<RestauranteProximoDTO>>> buscarProximos(
+            @Parameter(description = "CEP para busca") @PathVariable String cep,
+            @Parameter(description = "Quantidade máxima de restaurantes (k mais próximos)") @RequestParam(required = false) Integer limite,
+            @Parameter(description = "Raio em km (padrão: raio máximo configurado)") @RequestParam(required = false) Double raioKm) {
+        List<RestauranteProximoDTO> restaurantes = restauranteGeoService.buscarProximos(cep, limite, raioKm);
         return ResponseEntity.ok(ApiResponse.success(restaurantes));
     }
 
+    @GetMapping("/cache/metricas")
+    @Operation(summary = "Métricas do cache de restaurantes", description = "Acertos, faltas, taxa de acerto, remoções LRU e invalidações dos caches por id, de listas e de taxas de entrega")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Métricas retornadas")
+    })
+    public ResponseEntity<ApiResponse<List<MetricasCacheRestauranteDTO>>> metricasCache() {
+        List<MetricasCacheRestauranteDTO> metricas = new ArrayList<>(restauranteCacheService.metricas());
+        metricas.add(taxaEntregaService.metricas());
+        return ResponseEntity.ok(ApiResponse.success(metricas));
+    }
+
     @GetMapping("/relatorio-vendas")
     @Operation(summary = "Relatório de vendas por restaurante", description = "Retorna relatório de vendas agrupado por restaurante")
     @ApiResponses({
@@ -217,7 +323,24 @@ public class RestauranteController {
             restaurante.getTelefone(),
             restaurante.getTaxaEntrega(),
             restaurante.getAvaliacao(),
-            restaurante.getAtivo()
+            restaurante.getAtivo(),
+            restaurante.getLatitude(),
+            restaurante.getLongitude()
+        );
+    }
+
+    private RestauranteResponseDTO toResponseDTO(RestauranteRequestDTO dto) {
+        return new RestauranteResponseDTO(
+            dto.getId(),
+            dto.getNome(),
+            dto.getCategoria(),
+            dto.getEndereco(),
+            dto.getTelefone(),
+            dto.getTaxaEntrega(),
+            dto.getAvaliacao(),
+            dto.getAtivo(),
+            dto.getLatitude(),
+            dto.getLongitude()
         );
     }
 }
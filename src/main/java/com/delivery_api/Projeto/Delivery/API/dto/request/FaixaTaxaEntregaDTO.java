@@ -0,0 +1,33 @@
+package com.delivery_api.Projeto.Delivery.API.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Faixa de distância da taxa de entrega de um restaurante")
+public class FaixaTaxaEntregaDTO {
+    // ate_km é DECIMAL(5,2)
+    @Schema(description = "Distância máxima da faixa em km", example = "3.00", required = true)
+    @NotNull(message = "A distância da faixa é obrigatória")
+    @DecimalMin(value = "0.00", inclusive = false, message = "Distância da faixa deve ser maior que zero")
+    @DecimalMax(value = "999.99", message = "Distância da faixa deve ser no máximo 999.99 km")
+    @Digits(integer = 3, fraction = 2, message = "Distância da faixa deve ter até 3 dígitos inteiros e 2 decimais")
+    private BigDecimal ateKm;
+
+    // acrescimo é DECIMAL(10,2)
+    @Schema(description = "Valor somado à taxa base do restaurante nesta faixa", example = "1.50", required = true)
+    @NotNull(message = "O acréscimo da faixa é obrigatório")
+    @DecimalMin(value = "0.00", message = "Acréscimo da faixa não pode ser negativo")
+    @Digits(integer = 8, fraction = 2, message = "Acréscimo da faixa deve ter até 8 dígitos inteiros e 2 decimais")
+    private BigDecimal acrescimo;
+}
@@ -0,0 +1,24 @@
+package com.delivery_api.Projeto.Delivery.API.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Item de um pedido")
+public class ItemPedidoRequestDTO {
+
+    @Schema(description = "ID do produto", example = "1", required = true)
+    @NotNull(message = "O produto é obrigatório")
+    private Long produtoId;
+
+    @Schema(description = "Quantidade", example = "2", required = true)
+    @NotNull(message = "A quantidade é obrigatória")
+    @Positive(message = "A quantidade deve ser maior que zero")
+    private Integer quantidade;
+}
@@ -1,25 +1,40 @@
 package com.delivery_api.Projeto.Delivery.API.dto.request;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class PedidoRequestDTO {
+
+    /** Regras que só valem ao gravar o pedido (o cálculo de total não exige número) */
+    public interface Gravacao {
+    }
+
     private Long id;
+    @NotBlank(message = "O número do pedido é obrigatório", groups = Gravacao.class)
+    @Size(max = 20, message = "O número do pedido deve ter no máximo 20 caracteres")
     private String numeroPedido;
     private LocalDateTime dataPedido;
     private String status;
     private BigDecimal valorTotal;
+    @Size(max = 200, message = "As observações devem ter no máximo 200 caracteres")
     private String observacoes;
     private Long clienteId;
     private Long restauranteId;
-    private String itens; // JSON ou string representando os itens do pedido
+    // CEP de entrega: com ele a taxa cobrada é a cotada por distância; sem ele, a taxa base do restaurante
+    private String cepEntrega;
+    @Valid
+    private List<ItemPedidoRequestDTO> itens;
 
 }
 
@@ -0,0 +1,45 @@
+package com.delivery_api.Projeto.Delivery.API.dto.request;
+
+import com.delivery_api.Projeto.Delivery.API.enums.FormatoExportacao;
+import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.enums.TipoRelatorioJob;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Definição de um relatório executado em segundo plano")
+public class RelatorioJobRequestDTO {
+
+    @Schema(description = "Tipo do relatório", example = "EXPORTACAO_PEDIDOS", required = true)
+    @NotNull(message = "O tipo do relatório é obrigatório")
+    private TipoRelatorioJob tipo;
+
+    @Schema(description = "Data inicial", example = "2024-01-01T00:00:00")
+    private LocalDateTime dataInicio;
+
+    @Schema(description = "Data final", example = "2024-12-31T23:59:59")
+    private LocalDateTime dataFim;
+
+    @Schema(description = "ID do restaurante (PRODUTOS_MAIS_VENDIDOS)", example = "1")
+    private Long restauranteId;
+
+    @Schema(description = "Status do pedido (PEDIDOS_POR_PERIODO)", example = "ENTREGUE")
+    private StatusPedido status;
+
+    @Schema(description = "Máximo de produtos (PRODUTOS_MAIS_VENDIDOS)", example = "100")
+    @Positive(message = "O limite deve ser maior que zero")
+    @Max(value = 1000, message = "O limite deve ser no máximo 1000")
+    private Integer limite;
+
+    @Schema(description = "Formato do arquivo (EXPORTACAO_PEDIDOS); os demais tipos geram JSON", example = "CSV")
+    private FormatoExportacao formato;
+}
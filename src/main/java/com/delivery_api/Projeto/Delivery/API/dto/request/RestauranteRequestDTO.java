@@ -18,5 +18,7 @@ public class RestauranteRequestDTO {
     private BigDecimal taxaEntrega;
     private BigDecimal avaliacao;
     private Boolean ativo;
+    private Double latitude;
+    private Double longitude;
 }
 
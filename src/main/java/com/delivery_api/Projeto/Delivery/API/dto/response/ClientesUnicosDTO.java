@@ -0,0 +1,29 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estimativa de clientes únicos de um restaurante em um período")
+public class ClientesUnicosDTO {
+    @Schema(description = "ID do restaurante", example = "1")
+    private Long restauranteId;
+
+    @Schema(description = "Primeiro dia do grupo", example = "2024-03-04")
+    private LocalDate inicio;
+
+    @Schema(description = "Último dia do grupo", example = "2024-03-10")
+    private LocalDate fim;
+
+    @Schema(description = "Clientes únicos estimados", example = "1250")
+    private Long clientesUnicos;
+
+    @Schema(description = "Erro padrão relativo da estimativa (cerca de 95% das estimativas ficam dentro de 2x esse valor)", example = "0.01625")
+    private Double erroPadrao;
+}
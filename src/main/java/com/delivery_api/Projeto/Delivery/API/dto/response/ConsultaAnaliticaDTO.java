@@ -0,0 +1,23 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de uma consulta analítica sobre a cópia colunar dos pedidos")
+public class ConsultaAnaliticaDTO {
+    @Schema(description = "Grupos ordenados pela quantidade de pedidos")
+    private List<LinhaAnaliticaDTO> linhas;
+
+    @Schema(description = "Pedidos varridos na consulta", example = "250000")
+    private long pedidosVarridos;
+
+    @Schema(description = "Tempo de execução em milissegundos", example = "4")
+    private long tempoMs;
+}
@@ -0,0 +1,52 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import com.delivery_api.Projeto.Delivery.API.enums.MetricaDistribuicao;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Percentis de uma métrica de pedidos em um período")
+public class DistribuicaoDTO {
+    @Schema(description = "ID do restaurante (nulo = todos)", example = "1")
+    private Long restauranteId;
+
+    @Schema(description = "Métrica", example = "VALOR_PEDIDO")
+    private MetricaDistribuicao metrica;
+
+    @Schema(description = "Unidade dos valores", example = "R$")
+    private String unidade;
+
+    @Schema(description = "Data inicial", example = "2024-01-01")
+    private LocalDate inicio;
+
+    @Schema(description = "Data final", example = "2024-01-31")
+    private LocalDate fim;
+
+    @Schema(description = "Quantidade de amostras", example = "15230")
+    private Long amostras;
+
+    @Schema(description = "Mediana", example = "42.90")
+    private BigDecimal p50;
+
+    @Schema(description = "Percentil 90", example = "96.50")
+    private BigDecimal p90;
+
+    @Schema(description = "Percentil 99", example = "210.00")
+    private BigDecimal p99;
+
+    @Schema(description = "Menor valor", example = "9.90")
+    private BigDecimal minimo;
+
+    @Schema(description = "Maior valor", example = "780.40")
+    private BigDecimal maximo;
+
+    @Schema(description = "Erro relativo máximo dos percentis", example = "0.01")
+    private Double precisaoRelativa;
+}
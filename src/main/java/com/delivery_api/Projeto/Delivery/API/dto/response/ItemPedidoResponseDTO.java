@@ -0,0 +1,26 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO de resposta para item de Pedido")
+public class ItemPedidoResponseDTO {
+    @Schema(description = "ID do produto", example = "1")
+    private Long produtoId;
+
+    @Schema(description = "Quantidade", example = "2")
+    private Integer quantidade;
+
+    @Schema(description = "Preço unitário no momento do pedido", example = "35.90")
+    private BigDecimal precoUnitario;
+
+    @Schema(description = "Subtotal do item", example = "71.80")
+    private BigDecimal subtotal;
+}
@@ -0,0 +1,41 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Grupo de uma consulta analítica; só as dimensões agrupadas vêm preenchidas")
+public class LinhaAnaliticaDTO {
+    @Schema(description = "ID do restaurante", example = "1")
+    private Long restauranteId;
+
+    @Schema(description = "Status do pedido", example = "ENTREGUE")
+    private String status;
+
+    @Schema(description = "Dia do pedido", example = "2025-01-15")
+    private LocalDate dia;
+
+    @Schema(description = "Hora do dia (0-23)", example = "19")
+    private Integer horaDoDia;
+
+    @Schema(description = "Faixa de valor do pedido", example = "50.00-100.00")
+    private String faixaValor;
+
+    @Schema(description = "Quantidade de pedidos", example = "42")
+    private long pedidos;
+
+    @Schema(description = "Soma dos valores", example = "2310.50")
+    private BigDecimal valorTotal;
+
+    @Schema(description = "Valor médio por pedido", example = "55.01")
+    private BigDecimal ticketMedio;
+}
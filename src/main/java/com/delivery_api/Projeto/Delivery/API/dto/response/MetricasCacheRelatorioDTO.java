@@ -0,0 +1,36 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Métricas do cache de um relatório")
+public class MetricasCacheRelatorioDTO {
+    @Schema(description = "Relatório", example = "vendas-por-restaurante")
+    private String relatorio;
+
+    @Schema(description = "TTL das entradas em milissegundos", example = "30000")
+    private Long ttlMs;
+
+    @Schema(description = "Leituras servidas dentro do TTL", example = "1200")
+    private Long acertos;
+
+    @Schema(description = "Leituras servidas após o TTL enquanto o relatório era recalculado", example = "40")
+    private Long acertosStale;
+
+    @Schema(description = "Leituras que precisaram aguardar o cálculo", example = "15")
+    private Long faltas;
+
+    @Schema(description = "Cálculos executados (inclusive em segundo plano)", example = "55")
+    private Long calculos;
+
+    @Schema(description = "Tempo médio de cálculo em milissegundos", example = "120")
+    private Long tempoMedioCalculoMs;
+
+    @Schema(description = "Maior tempo de cálculo em milissegundos", example = "480")
+    private Long maiorTempoCalculoMs;
+}
@@ -0,0 +1,46 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import com.delivery_api.Projeto.Delivery.API.cache.CacheLru;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Métricas de um cache de restaurantes")
+public class MetricasCacheRestauranteDTO {
+    @Schema(description = "Cache: por-id, listas (ativos e por categoria) ou taxas-entrega", example = "por-id")
+    private String cache;
+
+    @Schema(description = "Entradas guardadas", example = "120")
+    private Integer tamanho;
+
+    @Schema(description = "Limite de entradas antes da remoção LRU", example = "10000")
+    private Integer capacidade;
+
+    @Schema(description = "Leituras servidas do cache", example = "9800")
+    private Long acertos;
+
+    @Schema(description = "Leituras que consultaram o banco", example = "200")
+    private Long faltas;
+
+    @Schema(description = "Taxa de acerto (acertos / leituras)", example = "0.98")
+    private Double taxaAcerto;
+
+    @Schema(description = "Entradas removidas por falta de espaço", example = "0")
+    private Long remocoes;
+
+    @Schema(description = "Invalidações por alteração de restaurante", example = "3")
+    private Long invalidacoes;
+
+    public static MetricasCacheRestauranteDTO de(String nome, CacheLru<?, ?> cache) {
+        long acertos = cache.getAcertos();
+        long faltas = cache.getFaltas();
+        long leituras = acertos + faltas;
+        return new MetricasCacheRestauranteDTO(nome, cache.getTamanho(), cache.getCapacidade(),
+                acertos, faltas, leituras > 0 ? (double) acertos / leituras : 0.0,
+                cache.getRemocoes(), cache.getInvalidacoes());
+    }
+}
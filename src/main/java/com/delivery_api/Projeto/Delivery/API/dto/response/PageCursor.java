@@ -0,0 +1,49 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Cursor opaco da paginação keyset: guarda a chave de ordenação e o id do
+ * último item retornado, codificados em Base64 URL-safe. Chave nula (p.ex. pedido
+ * antigo sem data) é codificada só com o id.
+ */
+public record PageCursor(String chave, Long id) {
+
+    public static String encode(String chave, Long id) {
+        String raw = chave != null ? id + ":" + chave : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica o token recebido. Token nulo ou vazio significa primeira página.
+     */
+    public static PageCursor decode(String token) {
+        return decode(token, Function.identity());
+    }
+
+    /**
+     * Decodifica o token e valida a chave com o conversor do tipo de ordenação
+     * (p.ex. LocalDateTime::parse): chave adulterada é cursor inválido, não erro interno.
+     */
+    public static PageCursor decode(String token, Function<String, ?> conversorChave) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = raw.indexOf(':');
+            if (separador < 0) {
+                return new PageCursor(null, Long.valueOf(raw));
+            }
+            Long id = Long.valueOf(raw.substring(0, separador));
+            String chave = raw.substring(separador + 1);
+            conversorChave.apply(chave);
+            return new PageCursor(chave, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + token);
+        }
+    }
+}
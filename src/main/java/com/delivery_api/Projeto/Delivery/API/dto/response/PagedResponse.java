@@ -12,9 +12,14 @@ import java.util.List;
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse<T> {
+
+    /** Maior tamanho de página atendido; pedidos acima disso são reduzidos a ele */
+    public static final int TAMANHO_MAXIMO = 100;
+
     private List<T> content;
     private PageInfo page;
     private Links links;
+    private CursorInfo cursor;
 
     @Data
     @NoArgsConstructor
@@ -39,8 +44,30 @@ public class PagedResponse<T> {
         private String previous;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class CursorInfo {
+        private int size;
+        private String next;
+        private boolean hasNext;
+        private Long totalElements;
+    }
+
+    /**
+     * Validar o tamanho de página pedido e limitá-lo a TAMANHO_MAXIMO
+     */
+    public static int limitarTamanho(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+        return Math.min(size, TAMANHO_MAXIMO);
+    }
+
     public static <T> PagedResponse<T> of(List<T> content, int page, int size, long totalElements, String baseUrl) {
         int totalPages = (int) Math.ceil((double) totalElements / size);
+        String separador = baseUrl.contains("?") ? "&" : "?";
         
         PageInfo pageInfo = new PageInfo();
         pageInfo.setNumber(page);
@@ -51,16 +78,35 @@ public class PagedResponse<T> {
         pageInfo.setLast(page >= totalPages - 1);
 
         Links links = new Links();
-        links.setFirst(baseUrl + "?page=0&size=" + size);
-        links.setLast(baseUrl + "?page=" + (totalPages - 1) + "&size=" + size);
+        links.setFirst(baseUrl + separador + "page=0&size=" + size);
+        links.setLast(baseUrl + separador + "page=" + Math.max(totalPages - 1, 0) + "&size=" + size);
         if (page < totalPages - 1) {
-            links.setNext(baseUrl + "?page=" + (page + 1) + "&size=" + size);
+            links.setNext(baseUrl + separador + "page=" + (page + 1) + "&size=" + size);
         }
         if (page > 0) {
-            links.setPrevious(baseUrl + "?page=" + (page - 1) + "&size=" + size);
+            links.setPrevious(baseUrl + separador + "page=" + (page - 1) + "&size=" + size);
+        }
+
+        return new PagedResponse<>(content, pageInfo, links, null);
+    }
+
+    /**
+     * Página no modo cursor (keyset). {@code totalElements} só é informado quando
+     * o chamador pediu a contagem; caso contrário fica nulo e não é serializado.
+     */
+    public static <T> PagedResponse<T> ofCursor(List<T> content, int size, String nextCursor,
+                                                Long totalElements, String baseUrl) {
+        String separador = baseUrl.contains("?") ? "&" : "?";
+
+        CursorInfo cursorInfo = new CursorInfo(size, nextCursor, nextCursor != null, totalElements);
+
+        Links links = new Links();
+        links.setFirst(baseUrl + separador + "cursor=&size=" + size);
+        if (nextCursor != null) {
+            links.setNext(baseUrl + separador + "cursor=" + nextCursor + "&size=" + size);
         }
 
-        return new PagedResponse<>(content, pageInfo, links);
+        return new PagedResponse<>(content, null, links, cursorInfo);
     }
 }
 
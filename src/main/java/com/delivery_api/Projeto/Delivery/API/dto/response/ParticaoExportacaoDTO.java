@@ -0,0 +1,30 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Partição diária de uma exportação colunar")
+public class ParticaoExportacaoDTO {
+    @Schema(description = "Tabela exportada", example = "pedidos")
+    private String tabela;
+
+    @Schema(description = "Dia da partição", example = "2024-03-10")
+    private LocalDate dia;
+
+    @Schema(description = "Tamanho do arquivo em bytes", example = "1048576")
+    private Long tamanhoBytes;
+
+    @Schema(description = "Momento em que a partição foi gerada")
+    private LocalDateTime geradoEm;
+
+    @Schema(description = "Caminho para download", example = "/api/exportacoes/colunar/pedidos/2024-03-10")
+    private String url;
+}
@@ -0,0 +1,39 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Evento de pedido enviado via Server-Sent Events")
+public class PedidoEventoDTO {
+    @Schema(description = "Tipo do evento", example = "status-alterado")
+    private String tipo;
+
+    @Schema(description = "ID do pedido", example = "1")
+    private Long pedidoId;
+
+    @Schema(description = "ID do restaurante", example = "1")
+    private Long restauranteId;
+
+    @Schema(description = "Status atual do pedido", example = "PREPARANDO")
+    private String status;
+
+    @Schema(description = "Valor total do pedido", example = "54.80")
+    private BigDecimal valorTotal;
+
+    @Schema(description = "Data do pedido")
+    private LocalDateTime dataPedido;
+
+    @Schema(description = "Momento do evento")
+    private LocalDateTime timestamp;
+
+    @Schema(description = "Versão do pedido: evento com versão menor que a de um já recebido está desatualizado", example = "2")
+    private Long versao;
+}
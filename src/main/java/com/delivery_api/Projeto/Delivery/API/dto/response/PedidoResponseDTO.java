@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -38,5 +39,5 @@ public class PedidoResponseDTO {
     private Long restauranteId;
 
     @Schema(description = "Itens do pedido")
-    private String itens;
+    private List<ItemPedidoResponseDTO> itens;
 }
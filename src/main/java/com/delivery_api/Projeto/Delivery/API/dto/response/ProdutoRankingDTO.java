@@ -0,0 +1,29 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Posição de um produto no ranking de mais vendidos")
+public class ProdutoRankingDTO {
+    @Schema(description = "ID do produto", example = "1")
+    private Long produtoId;
+
+    @Schema(description = "Nome do produto", example = "Pizza Margherita")
+    private String produto;
+
+    @Schema(description = "ID do restaurante", example = "1")
+    private Long restauranteId;
+
+    @Schema(description = "Quantidade vendida", example = "150")
+    private Long quantidade;
+
+    @Schema(description = "Total vendido", example = "5385.00")
+    private BigDecimal totalVendas;
+}
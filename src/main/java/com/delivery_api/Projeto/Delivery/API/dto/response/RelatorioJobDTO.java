@@ -0,0 +1,46 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import com.delivery_api.Projeto.Delivery.API.enums.SituacaoJob;
+import com.delivery_api.Projeto.Delivery.API.enums.TipoRelatorioJob;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Situação de um relatório executado em segundo plano")
+public class RelatorioJobDTO {
+    @Schema(description = "ID do job", example = "3f0c2a4e-8d7b-4a51-9a8e-1d2b3c4d5e6f")
+    private String id;
+
+    @Schema(description = "Tipo do relatório", example = "EXPORTACAO_PEDIDOS")
+    private TipoRelatorioJob tipo;
+
+    @Schema(description = "Situação", example = "EXECUTANDO")
+    private SituacaoJob situacao;
+
+    @Schema(description = "Linhas já escritas no arquivo", example = "150000")
+    private Long linhasProcessadas;
+
+    @Schema(description = "Total de linhas previsto, quando conhecido", example = "480000")
+    private Long linhasTotal;
+
+    @Schema(description = "Tamanho do arquivo gerado em bytes", example = "52428800")
+    private Long tamanhoBytes;
+
+    @Schema(description = "Mensagem de erro, se o job falhou")
+    private String erro;
+
+    @Schema(description = "Data de criação do job")
+    private LocalDateTime criadoEm;
+
+    @Schema(description = "Início da execução")
+    private LocalDateTime iniciadoEm;
+
+    @Schema(description = "Fim da execução")
+    private LocalDateTime concluidoEm;
+}
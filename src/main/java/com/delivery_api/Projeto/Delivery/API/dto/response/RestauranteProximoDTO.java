@@ -0,0 +1,35 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Restaurante próximo a um CEP, com a distância em linha reta")
+public class RestauranteProximoDTO {
+    @Schema(description = "ID do restaurante", example = "1")
+    private Long id;
+
+    @Schema(description = "Nome do restaurante", example = "Pizzaria Bella")
+    private String nome;
+
+    @Schema(description = "Categoria do restaurante", example = "Italiana")
+    private String categoria;
+
+    @Schema(description = "Endereço do restaurante", example = "Av. Paulista, 1000")
+    private String endereco;
+
+    @Schema(description = "Taxa de entrega", example = "5.00")
+    private BigDecimal taxaEntrega;
+
+    @Schema(description = "Avaliação do restaurante", example = "4.5")
+    private BigDecimal avaliacao;
+
+    @Schema(description = "Distância em km até o CEP", example = "0.48")
+    private BigDecimal distanciaKm;
+}
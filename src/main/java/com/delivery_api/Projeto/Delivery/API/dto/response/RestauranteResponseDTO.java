@@ -35,4 +35,10 @@ public class RestauranteResponseDTO {
 
     @Schema(description = "Status ativo/inativo", example = "true")
     private Boolean ativo;
+
+    @Schema(description = "Latitude", example = "-23.5646")
+    private Double latitude;
+
+    @Schema(description = "Longitude", example = "-46.6527")
+    private Double longitude;
 }
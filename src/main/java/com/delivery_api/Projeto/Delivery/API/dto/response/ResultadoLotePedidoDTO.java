@@ -0,0 +1,42 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Resultado de um pedido enviado em lote")
+public class ResultadoLotePedidoDTO {
+    @Schema(description = "Posição do pedido no lote (0-indexed)", example = "0")
+    private int indice;
+
+    @Schema(description = "Indica se o pedido foi gravado", example = "true")
+    private boolean sucesso;
+
+    @Schema(description = "ID do pedido criado", example = "42")
+    private Long pedidoId;
+
+    @Schema(description = "Número do pedido", example = "PED1234567890")
+    private String numeroPedido;
+
+    @Schema(description = "Valor total calculado", example = "54.80")
+    private BigDecimal valorTotal;
+
+    @Schema(description = "Motivo da rejeição", example = "Cliente não encontrado: 99")
+    private String erro;
+
+    public static ResultadoLotePedidoDTO sucesso(int indice, Long pedidoId, String numeroPedido, BigDecimal valorTotal) {
+        return new ResultadoLotePedidoDTO(indice, true, pedidoId, numeroPedido, valorTotal, null);
+    }
+
+    public static ResultadoLotePedidoDTO falha(int indice, String numeroPedido, String erro) {
+        return new ResultadoLotePedidoDTO(indice, false, null, numeroPedido, null, erro);
+    }
+}
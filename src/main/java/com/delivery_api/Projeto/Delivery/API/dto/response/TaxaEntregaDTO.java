@@ -0,0 +1,32 @@
+package com.delivery_api.Projeto.Delivery.API.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Taxa de entrega de um restaurante para um CEP")
+public class TaxaEntregaDTO {
+    @Schema(description = "ID do restaurante", example = "1")
+    private Long restauranteId;
+
+    @Schema(description = "CEP de entrega", example = "01310100")
+    private String cep;
+
+    @Schema(description = "Distância em km entre o restaurante e o setor do CEP (nula sem coordenadas)", example = "0.48")
+    private BigDecimal distanciaKm;
+
+    @Schema(description = "Taxa de entrega (nula quando não há entrega)", example = "5.00")
+    private BigDecimal taxa;
+
+    @Schema(description = "Indica se o restaurante entrega no CEP", example = "true")
+    private Boolean disponivel;
+
+    @Schema(description = "Motivo quando não há entrega", example = "Fora da área de entrega do restaurante")
+    private String motivo;
+}
@@ -0,0 +1,40 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resposta gravada para um Idempotency-Key. Enquanto a requisição original está em
+ * andamento, statusHttp e corpo ficam nulos.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotencia_chaves")
+public class ChaveIdempotencia {
+
+    @Id
+    private String chave;
+
+    private String hashRequisicao;
+
+    private Integer statusHttp;
+
+    private String contentType;
+
+    @Lob
+    private String corpo;
+
+    private LocalDateTime criadoEm;
+
+    private LocalDateTime expiraEm;
+
+    public boolean isConcluida() {
+        return statusHttp != null;
+    }
+}
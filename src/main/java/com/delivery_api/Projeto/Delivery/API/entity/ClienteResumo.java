@@ -0,0 +1,32 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resumo de compras por cliente, mantido na mesma transação que grava ou cancela o pedido.
+// Pedidos cancelados não entram nos totais.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "cliente_resumo", indexes = {
+        @Index(name = "idx_cliente_resumo_pedidos", columnList = "total_pedidos, cliente_id"),
+        @Index(name = "idx_cliente_resumo_valor", columnList = "valor_total, cliente_id")
+})
+public class ClienteResumo {
+
+    @Id
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
+    private Long totalPedidos;
+
+    private BigDecimal valorTotal;
+
+    private LocalDateTime ultimoPedido;
+}
@@ -0,0 +1,30 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Sketch HyperLogLog comprimido dos clientes que pediram no restaurante no dia.
+// Sketches de dias diferentes são unidos para contar clientes únicos em qualquer período.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(ClientesUnicosDiaId.class)
+@Table(name = "clientes_unicos_dia")
+public class ClientesUnicosDia {
+
+    @Id
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Id
+    private LocalDate dia;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] sketch;
+}
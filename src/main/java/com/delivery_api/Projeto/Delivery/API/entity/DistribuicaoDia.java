@@ -0,0 +1,33 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Sketch de quantis comprimido de uma métrica do restaurante no dia (valor do pedido no dia
+// do pedido, tempo de entrega no dia da entrega). Dias diferentes são somados na consulta.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(DistribuicaoDiaId.class)
+@Table(name = "distribuicao_dia")
+public class DistribuicaoDia {
+
+    @Id
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Id
+    private LocalDate dia;
+
+    @Id
+    private String metrica;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] sketch;
+}
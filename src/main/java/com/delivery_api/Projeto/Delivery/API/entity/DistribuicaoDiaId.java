@@ -0,0 +1,20 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistribuicaoDiaId implements Serializable {
+
+    private Long restauranteId;
+
+    private LocalDate dia;
+
+    private String metrica;
+}
@@ -0,0 +1,32 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Faixa de distância própria de um restaurante: até ateKm, a taxa é a taxa base + acréscimo.
+// Um restaurante com faixas próprias não usa as faixas padrão (delivery.taxa-entrega.faixas).
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "taxa_entrega_faixas", indexes = {
+        @Index(name = "idx_taxa_entrega_faixas_restaurante", columnList = "restaurante_id, ate_km")
+})
+public class FaixaTaxaEntrega {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Column(name = "ate_km")
+    private BigDecimal ateKm;
+
+    private BigDecimal acrescimo;
+}
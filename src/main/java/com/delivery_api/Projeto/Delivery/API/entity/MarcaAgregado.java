@@ -0,0 +1,22 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Até onde um agregado mantido em memória já foi gravado: pedidos com id até pedidoId
+// estão refletidos no agregado e não precisam ser reprocessados na subida.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "marcas_agregado")
+public class MarcaAgregado {
+
+    @Id
+    private String agregado;
+
+    @Column(name = "pedido_id", nullable = false)
+    private Long pedidoId;
+}
@@ -2,17 +2,28 @@ package com.delivery_api.Projeto.Delivery.API.entity;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "pedidos")
+@Table(name = "pedidos", indexes = {
+        @Index(name = "idx_pedidos_restaurante_data", columnList = "restaurante_id, data_pedido"),
+        @Index(name = "idx_pedidos_data_status", columnList = "data_pedido, status, valor_total"),
+        @Index(name = "idx_pedidos_status_data", columnList = "status, data_pedido"),
+        @Index(name = "idx_pedidos_cliente_data", columnList = "cliente_id, data_pedido"),
+        @Index(name = "idx_pedidos_restaurante_status_data", columnList = "restaurante_id, status, data_pedido")
+})
 public class Pedido {
 
     @Id
@@ -27,6 +38,13 @@ public class Pedido {
 
     private String status;
 
+    // Preenchido pelo UPDATE de transição: o status de onde o pedido veio
+    @Column(name = "status_anterior", insertable = false, updatable = false)
+    private String statusAnterior;
+
+    @Version
+    private Long versao;
+
     @Column(name = "valor_total")
     private BigDecimal valorTotal;
 
@@ -35,11 +53,18 @@ public class Pedido {
     @Column(name = "cliente_id")
     private Long clienteId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "restaurante_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Restaurante restaurante;
 
-    private String itens;
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("linha")
+    @BatchSize(size = 50)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<PedidoItem> itens = new ArrayList<>();
 
 }
 
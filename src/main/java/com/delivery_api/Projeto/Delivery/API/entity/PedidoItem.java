@@ -0,0 +1,43 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// Chave composta (pedido_id, linha) atribuída pela aplicação: sem IDENTITY,
+// o Hibernate consegue agrupar os INSERTs dos itens em lotes JDBC.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(PedidoItemId.class)
+@Table(name = "pedido_itens")
+public class PedidoItem {
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Pedido pedido;
+
+    @Id
+    private Integer linha;
+
+    @Column(name = "produto_id")
+    private Long produtoId;
+
+    private Integer quantidade;
+
+    @Column(name = "preco_unitario")
+    private BigDecimal precoUnitario;
+
+    public BigDecimal getSubtotal() {
+        return precoUnitario.multiply(BigDecimal.valueOf(quantidade));
+    }
+}
@@ -0,0 +1,17 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoItemId implements Serializable {
+
+    private Long pedido;
+
+    private Integer linha;
+}
@@ -12,7 +12,11 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "produtos")
+@Table(name = "produtos", indexes = {
+        @Index(name = "idx_produtos_restaurante", columnList = "restaurante_id"),
+        @Index(name = "idx_produtos_categoria", columnList = "categoria"),
+        @Index(name = "idx_produtos_preco", columnList = "preco")
+})
 public class Produto {
 
     @Id
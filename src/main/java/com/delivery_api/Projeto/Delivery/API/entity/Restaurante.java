@@ -12,7 +12,12 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "restaurantes")
+@Table(name = "restaurantes", indexes = {
+        @Index(name = "idx_restaurantes_ativo_nome", columnList = "ativo, nome"),
+        @Index(name = "idx_restaurantes_categoria_ativo_nome", columnList = "categoria, ativo, nome"),
+        @Index(name = "uk_restaurantes_nome", columnList = "nome", unique = true),
+        @Index(name = "idx_restaurantes_taxa_entrega", columnList = "taxa_entrega")
+})
 public class Restaurante {
 
     @Id
@@ -34,6 +39,11 @@ public class Restaurante {
 
     private Boolean ativo;
 
+    // Coordenadas (graus decimais) usadas pela busca por proximidade; opcionais
+    private Double latitude;
+
+    private Double longitude;
+
     public void inativar() {
         this.ativo = false;
     }
@@ -0,0 +1,34 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Agregado por (restaurante, hora, status), mantido na mesma transação que grava
+// ou altera o pedido. Relatórios somam baldes de hora em vez de varrer pedidos.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(VendaHoraId.class)
+@Table(name = "vendas_hora")
+public class VendaHora {
+
+    @Id
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Id
+    private LocalDateTime hora;
+
+    @Id
+    private String status;
+
+    private Long quantidadePedidos;
+
+    private BigDecimal valorTotal;
+}
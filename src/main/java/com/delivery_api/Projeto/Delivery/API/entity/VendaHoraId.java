@@ -0,0 +1,20 @@
+package com.delivery_api.Projeto.Delivery.API.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendaHoraId implements Serializable {
+
+    private Long restauranteId;
+
+    private LocalDateTime hora;
+
+    private String status;
+}
@@ -0,0 +1,24 @@
+package com.delivery_api.Projeto.Delivery.API.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum AgrupamentoPeriodo {
+    DIA,
+    SEMANA,
+    MES,
+    PERIODO;
+
+    /**
+     * Primeiro dia do grupo que contém o dia informado (semanas começam na segunda-feira)
+     */
+    public LocalDate inicio(LocalDate dia, LocalDate inicioPeriodo) {
+        return switch (this) {
+            case DIA -> dia;
+            case SEMANA -> dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> dia.withDayOfMonth(1);
+            case PERIODO -> inicioPeriodo;
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.delivery_api.Projeto.Delivery.API.enums;
+
+// Dimensões de agrupamento da consulta analítica (/api/relatorios/consulta)
+public enum DimensaoAnalitica {
+    RESTAURANTE,
+    STATUS,
+    DIA,
+    HORA_DO_DIA,
+    FAIXA_VALOR
+}
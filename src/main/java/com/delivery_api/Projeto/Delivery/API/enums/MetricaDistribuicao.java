@@ -0,0 +1,17 @@
+package com.delivery_api.Projeto.Delivery.API.enums;
+
+public enum MetricaDistribuicao {
+    VALOR_PEDIDO("R$"),
+    // Do pedido (PENDENTE) até a mudança para ENTREGUE
+    TEMPO_ENTREGA("minutos");
+
+    private final String unidade;
+
+    MetricaDistribuicao(String unidade) {
+        this.unidade = unidade;
+    }
+
+    public String getUnidade() {
+        return unidade;
+    }
+}
@@ -0,0 +1,8 @@
+package com.delivery_api.Projeto.Delivery.API.enums;
+
+public enum SituacaoJob {
+    AGUARDANDO,
+    EXECUTANDO,
+    CONCLUIDO,
+    FALHOU
+}
@@ -1,5 +1,11 @@
 package com.delivery_api.Projeto.Delivery.API.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum StatusPedido {
     PENDENTE("Pendente"),
     CONFIRMADO("Confirmado"),
@@ -8,6 +14,26 @@ public enum StatusPedido {
     ENTREGUE("Entregue"),
     CANCELADO("Cancelado");
 
+    // Máquina de estados: status de origem -> destinos permitidos
+    private static final Map<StatusPedido, Set<StatusPedido>> TRANSICOES = new EnumMap<>(StatusPedido.class);
+
+    // Índice inverso: status de destino -> origens permitidas (usado no UPDATE condicional)
+    private static final Map<StatusPedido, Set<StatusPedido>> ORIGENS = new EnumMap<>(StatusPedido.class);
+
+    static {
+        TRANSICOES.put(PENDENTE, EnumSet.of(CONFIRMADO, CANCELADO));
+        TRANSICOES.put(CONFIRMADO, EnumSet.of(PREPARANDO, CANCELADO));
+        TRANSICOES.put(PREPARANDO, EnumSet.of(SAIU_PARA_ENTREGA, CANCELADO));
+        TRANSICOES.put(SAIU_PARA_ENTREGA, EnumSet.of(ENTREGUE));
+        TRANSICOES.put(ENTREGUE, EnumSet.noneOf(StatusPedido.class));
+        TRANSICOES.put(CANCELADO, EnumSet.noneOf(StatusPedido.class));
+
+        for (StatusPedido destino : values()) {
+            ORIGENS.put(destino, EnumSet.noneOf(StatusPedido.class));
+        }
+        TRANSICOES.forEach((origem, destinos) -> destinos.forEach(destino -> ORIGENS.get(destino).add(origem)));
+    }
+
     private final String descricao;
 
     StatusPedido(String descricao) {
@@ -17,5 +43,16 @@ public enum StatusPedido {
     public String getDescricao() {
         return descricao;
     }
-}
 
+    public boolean podeTransicionarPara(StatusPedido destino) {
+        return TRANSICOES.get(this).contains(destino);
+    }
+
+    public Set<StatusPedido> getProximos() {
+        return Collections.unmodifiableSet(TRANSICOES.get(this));
+    }
+
+    public static Set<StatusPedido> origensPermitidas(StatusPedido destino) {
+        return Collections.unmodifiableSet(ORIGENS.get(destino));
+    }
+}
@@ -0,0 +1,26 @@
+package com.delivery_api.Projeto.Delivery.API.enums;
+
+public enum TabelaExportacao {
+    PEDIDOS("pedidos"),
+    VENDAS_HORA("vendas_hora");
+
+    // Nome do diretório das partições e do caminho na API
+    private final String nome;
+
+    TabelaExportacao(String nome) {
+        this.nome = nome;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public static TabelaExportacao porNome(String nome) {
+        for (TabelaExportacao tabela : values()) {
+            if (tabela.nome.equals(nome)) {
+                return tabela;
+            }
+        }
+        throw new IllegalArgumentException("Tabela de exportação inválida: " + nome);
+    }
+}
@@ -0,0 +1,19 @@
+package com.delivery_api.Projeto.Delivery.API.enums;
+
+public enum TipoRelatorioJob {
+    EXPORTACAO_PEDIDOS("exportacao-pedidos"),
+    VENDAS_POR_RESTAURANTE("vendas-por-restaurante"),
+    PEDIDOS_POR_PERIODO("pedidos-por-periodo"),
+    PRODUTOS_MAIS_VENDIDOS("produtos-mais-vendidos");
+
+    // Nome usado nas propriedades (delivery.relatorios.jobs.limite.{chave})
+    private final String chave;
+
+    TipoRelatorioJob(String chave) {
+        this.chave = chave;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+}
@@ -0,0 +1,9 @@
+package com.delivery_api.Projeto.Delivery.API.event;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+
+/**
+ * Publicado por PedidoService dentro da transação que gravou o pedido.
+ */
+public record PedidoCriadoEvent(Pedido pedido) {
+}
@@ -0,0 +1,11 @@
+package com.delivery_api.Projeto.Delivery.API.event;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+
+/**
+ * Publicado por PedidoService dentro da transação que alterou o status.
+ * O pedido já reflete o novo status.
+ */
+public record StatusPedidoAlteradoEvent(Pedido pedido, StatusPedido statusAnterior, StatusPedido novoStatus) {
+}
@@ -0,0 +1,11 @@
+package com.delivery_api.Projeto.Delivery.API.exceptions;
+
+public class ConflitoStatusException extends RuntimeException {
+    public ConflitoStatusException(String message) {
+        super(message);
+    }
+
+    public ConflitoStatusException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,12 +1,18 @@
 package com.delivery_api.Projeto.Delivery.API.exceptions;
 
 import com.delivery_api.Projeto.Delivery.API.dto.response.ErrorResponse;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -35,6 +41,73 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(ConflitoStatusException.class)
+    public ResponseEntity<ErrorResponse> handleConflitoStatus(ConflitoStatusException ex) {
+        ErrorResponse error = ErrorResponse.of(
+            "STATUS_CONFLICT",
+            "Transição de status não permitida",
+            ex.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    // Relatório em segundo plano ainda na fila, executando ou com falha
+    @ExceptionHandler(ResultadoIndisponivelException.class)
+    public ResponseEntity<ErrorResponse> handleResultadoIndisponivel(ResultadoIndisponivelException ex) {
+        ErrorResponse error = ErrorResponse.of(
+            "RESULT_NOT_READY",
+            "Resultado ainda não disponível",
+            ex.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(ObjectOptimisticLockingFailureException ex) {
+        ErrorResponse error = ErrorResponse.of(
+            "CONCURRENT_MODIFICATION",
+            "Registro alterado por outra requisição",
+            "Recarregue o registro e tente novamente"
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    // Restrição do banco violada, p.ex. índice único de e-mail/nome em cadastros concorrentes
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrity(DataIntegrityViolationException ex) {
+        ErrorResponse error = ErrorResponse.of(
+            "DATA_CONFLICT",
+            "Registro conflita com dados existentes",
+            "Verifique se o registro já existe ou se há registros vinculados"
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(SobrecargaException.class)
+    public ResponseEntity<ErrorResponse> handleSobrecarga(SobrecargaException ex) {
+        ErrorResponse error = ErrorResponse.of(
+            "TOO_MANY_REQUESTS",
+            "Serviço temporariamente sobrecarregado",
+            ex.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    // Pool de conexões esgotado (connection-timeout do Hikari)
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleSemConexao(CannotCreateTransactionException ex) {
+        ErrorResponse error = ErrorResponse.of(
+            "SERVICE_UNAVAILABLE",
+            "Banco de dados temporariamente indisponível",
+            "Nenhuma conexão disponível no momento"
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex) {
         ErrorResponse error = ErrorResponse.of(
@@ -65,6 +138,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    // Validação de parâmetros e de elementos de listas (ex.: List<@Valid Dto> no corpo)
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleMethodValidationException(
+            HandlerMethodValidationException ex) {
+
+        ErrorResponse errorResponse = ErrorResponse.of(
+            "VALIDATION_ERROR",
+            "Dados inválidos",
+            ex.getAllErrors().stream().map(MessageSourceResolvable::getDefaultMessage).toList().toString()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         ErrorResponse error = ErrorResponse.of(
@@ -0,0 +1,7 @@
+package com.delivery_api.Projeto.Delivery.API.exceptions;
+
+public class ResultadoIndisponivelException extends RuntimeException {
+    public ResultadoIndisponivelException(String message) {
+        super(message);
+    }
+}
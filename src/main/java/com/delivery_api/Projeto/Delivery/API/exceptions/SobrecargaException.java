@@ -0,0 +1,11 @@
+package com.delivery_api.Projeto.Delivery.API.exceptions;
+
+public class SobrecargaException extends RuntimeException {
+    public SobrecargaException(String message) {
+        super(message);
+    }
+
+    public SobrecargaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,32 @@
+package com.delivery_api.Projeto.Delivery.API.geo;
+
+/**
+ * Ponto geográfico em graus decimais (WGS84)
+ */
+public record Coordenada(double latitude, double longitude) {
+
+    public static final double RAIO_TERRA_KM = 6371.0088;
+    // Comprimento de 1 grau de latitude (e de longitude no equador)
+    public static final double KM_POR_GRAU = Math.PI * RAIO_TERRA_KM / 180;
+
+    public Coordenada {
+        if (latitude < -90 || latitude > 90 || Double.isNaN(latitude)) {
+            throw new IllegalArgumentException("Latitude fora do intervalo [-90, 90]: " + latitude);
+        }
+        if (longitude < -180 || longitude > 180 || Double.isNaN(longitude)) {
+            throw new IllegalArgumentException("Longitude fora do intervalo [-180, 180]: " + longitude);
+        }
+    }
+
+    /**
+     * Distância em km pela fórmula de haversine
+     */
+    public double distanciaKm(Coordenada outra) {
+        double dLat = Math.toRadians(outra.latitude - latitude);
+        double dLon = Math.toRadians(outra.longitude - longitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(outra.latitude))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
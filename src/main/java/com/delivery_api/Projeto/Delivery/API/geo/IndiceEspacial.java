@@ -0,0 +1,178 @@
+package com.delivery_api.Projeto.Delivery.API.geo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice espacial em grade regular de células de N graus (como um geohash de precisão
+ * fixa). Uma consulta visita só as células em anéis ao redor da origem, do centro para
+ * fora, e para assim que nenhuma célula ainda não visitada pode conter algo mais próximo.
+ *
+ * Leituras não usam lock: cada célula é uma lista imutável trocada por inteiro a cada
+ * escrita, e as escritas (raras) são serializadas. Não trata a virada da longitude 180°.
+ */
+public class IndiceEspacial<T> {
+
+    private record Item<T>(long id, Coordenada coordenada, T valor) {
+    }
+
+    public record Resultado<T>(T valor, Coordenada coordenada, double distanciaKm) {
+    }
+
+    private final double celulaGraus;
+    private final long colunas;
+    private final Map<Long, List<Item<T>>> celulas = new ConcurrentHashMap<>();
+    private final Map<Long, Item<T>> porId = new ConcurrentHashMap<>();
+
+    public IndiceEspacial(double celulaGraus) {
+        if (celulaGraus <= 0 || celulaGraus > 10) {
+            throw new IllegalArgumentException("Tamanho de célula inválido: " + celulaGraus);
+        }
+        this.celulaGraus = celulaGraus;
+        this.colunas = (long) Math.ceil(360 / celulaGraus) + 1;
+    }
+
+    /**
+     * Incluir ou mover o item
+     */
+    public synchronized void colocar(long id, Coordenada coordenada, T valor) {
+        remover(id);
+        Item<T> item = new Item<>(id, coordenada, valor);
+        porId.put(id, item);
+        celulas.merge(chave(linha(coordenada.latitude()), coluna(coordenada.longitude())), List.of(item),
+                (atual, novo) -> {
+                    List<Item<T>> lista = new ArrayList<>(atual.size() + 1);
+                    lista.addAll(atual);
+                    lista.addAll(novo);
+                    return List.copyOf(lista);
+                });
+    }
+
+    public synchronized void remover(long id) {
+        Item<T> item = porId.remove(id);
+        if (item == null) {
+            return;
+        }
+        celulas.computeIfPresent(chave(linha(item.coordenada().latitude()), coluna(item.coordenada().longitude())),
+                (chave, atual) -> {
+                    List<Item<T>> restantes = atual.stream().filter(i -> i.id() != id).toList();
+                    return restantes.isEmpty() ? null : restantes;
+                });
+    }
+
+    public synchronized void limpar() {
+        celulas.clear();
+        porId.clear();
+    }
+
+    public int getTamanho() {
+        return porId.size();
+    }
+
+    /**
+     * Os k itens mais próximos da origem a até raioKm, do mais próximo para o mais distante
+     */
+    public List<Resultado<T>> maisProximos(Coordenada origem, int k, double raioKm) {
+        if (k < 1) {
+            return List.of();
+        }
+        // Max-heap: o topo é o pior dos k melhores até agora
+        PriorityQueue<Resultado<T>> melhores = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble((Resultado<T> r) -> r.distanciaKm()).reversed());
+        double larguraKm = larguraMinimaCelulaKm(origem, raioKm);
+        int aneis = aneis(raioKm, larguraKm);
+
+        for (int anel = 0; anel <= aneis; anel++) {
+            visitarAnel(origem, anel, item -> {
+                double distancia = origem.distanciaKm(item.coordenada());
+                if (distancia <= raioKm) {
+                    melhores.offer(new Resultado<>(item.valor(), item.coordenada(), distancia));
+                    if (melhores.size() > k) {
+                        melhores.poll();
+                    }
+                }
+            });
+            // Tudo o que falta visitar está a pelo menos anel células de distância
+            if (melhores.size() == k && melhores.peek().distanciaKm() <= anel * larguraKm) {
+                break;
+            }
+        }
+
+        List<Resultado<T>> resultado = new ArrayList<>(melhores);
+        resultado.sort(Comparator.comparingDouble(Resultado::distanciaKm));
+        return resultado;
+    }
+
+    /**
+     * Todos os itens a até raioKm da origem, do mais próximo para o mais distante
+     */
+    public List<Resultado<T>> dentroDoRaio(Coordenada origem, double raioKm) {
+        List<Resultado<T>> resultado = new ArrayList<>();
+        int aneis = aneis(raioKm, larguraMinimaCelulaKm(origem, raioKm));
+        for (int anel = 0; anel <= aneis; anel++) {
+            visitarAnel(origem, anel, item -> {
+                double distancia = origem.distanciaKm(item.coordenada());
+                if (distancia <= raioKm) {
+                    resultado.add(new Resultado<>(item.valor(), item.coordenada(), distancia));
+                }
+            });
+        }
+        resultado.sort(Comparator.comparingDouble(Resultado::distanciaKm));
+        return resultado;
+    }
+
+    // Células a exatamente "anel" células (distância de Chebyshev) da célula da origem
+    private void visitarAnel(Coordenada origem, int anel, Consumer<Item<T>> visitante) {
+        long linha0 = linha(origem.latitude());
+        long coluna0 = coluna(origem.longitude());
+        if (anel == 0) {
+            visitarCelula(linha0, coluna0, visitante);
+            return;
+        }
+        for (long d = -anel; d <= anel; d++) {
+            visitarCelula(linha0 + d, coluna0 - anel, visitante);
+            visitarCelula(linha0 + d, coluna0 + anel, visitante);
+        }
+        for (long d = -anel + 1; d <= anel - 1; d++) {
+            visitarCelula(linha0 - anel, coluna0 + d, visitante);
+            visitarCelula(linha0 + anel, coluna0 + d, visitante);
+        }
+    }
+
+    private void visitarCelula(long linha, long coluna, Consumer<Item<T>> visitante) {
+        if (coluna < 0 || coluna >= colunas || linha < 0) {
+            return;
+        }
+        List<Item<T>> itens = celulas.get(chave(linha, coluna));
+        if (itens != null) {
+            itens.forEach(visitante);
+        }
+    }
+
+    // Lado mais estreito de uma célula dentro do raio (a longitude encolhe com o cosseno da latitude)
+    private double larguraMinimaCelulaKm(Coordenada origem, double raioKm) {
+        double latitudeExtrema = Math.min(89, Math.abs(origem.latitude()) + raioKm / Coordenada.KM_POR_GRAU);
+        return celulaGraus * Coordenada.KM_POR_GRAU * Math.cos(Math.toRadians(latitudeExtrema));
+    }
+
+    private static int aneis(double raioKm, double larguraKm) {
+        return (int) Math.ceil(raioKm / larguraKm) + 1;
+    }
+
+    private long linha(double latitude) {
+        return (long) Math.floor((latitude + 90) / celulaGraus);
+    }
+
+    private long coluna(double longitude) {
+        return (long) Math.floor((longitude + 180) / celulaGraus);
+    }
+
+    private long chave(long linha, long coluna) {
+        return linha * colunas + coluna;
+    }
+}
@@ -0,0 +1,13 @@
+package com.delivery_api.Projeto.Delivery.API.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Projeção do ranking de clientes
+public interface ClienteAtivo {
+    Long getClienteId();
+    String getCliente();
+    Long getTotalPedidos();
+    BigDecimal getValorTotal();
+    LocalDateTime getUltimoPedido();
+}
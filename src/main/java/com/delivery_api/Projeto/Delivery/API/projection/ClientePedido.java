@@ -0,0 +1,11 @@
+package com.delivery_api.Projeto.Delivery.API.projection;
+
+import java.time.LocalDateTime;
+
+// Interface de Projeção
+public interface ClientePedido {
+    Long getId();
+    Long getRestauranteId();
+    LocalDateTime getDataPedido();
+    Long getClienteId();
+}
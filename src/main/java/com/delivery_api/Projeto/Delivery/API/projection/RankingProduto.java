@@ -0,0 +1,12 @@
+package com.delivery_api.Projeto.Delivery.API.projection;
+
+import java.math.BigDecimal;
+
+// Projeção do ranking de produtos calculado no banco
+public interface RankingProduto {
+    Long getProdutoId();
+    String getProduto();
+    Long getRestauranteId();
+    Long getQuantidade();
+    BigDecimal getTotalVendas();
+}
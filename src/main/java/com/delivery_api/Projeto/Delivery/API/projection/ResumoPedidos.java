@@ -0,0 +1,9 @@
+package com.delivery_api.Projeto.Delivery.API.projection;
+
+import java.math.BigDecimal;
+
+// Projeção do agregado de pedidos de um período
+public interface ResumoPedidos {
+    Long getTotalPedidos();
+    BigDecimal getValorTotal();
+}
@@ -0,0 +1,12 @@
+package com.delivery_api.Projeto.Delivery.API.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Interface de Projeção
+public interface ValorPedido {
+    Long getId();
+    Long getRestauranteId();
+    LocalDateTime getDataPedido();
+    BigDecimal getValorTotal();
+}
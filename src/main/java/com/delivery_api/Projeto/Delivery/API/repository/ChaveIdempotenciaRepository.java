@@ -0,0 +1,32 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.delivery_api.Projeto.Delivery.API.entity.ChaveIdempotencia;
+
+@Repository
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    // Remoção em massa, sem carregar as entidades
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.expiraEm < :agora")
+    int removerExpiradas(@Param("agora") LocalDateTime agora);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.chave = :chave AND c.expiraEm < :agora")
+    int removerSeExpirada(@Param("chave") String chave, @Param("agora") LocalDateTime agora);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ChaveIdempotencia c SET c.expiraEm = :expiraEm WHERE c.chave = :chave AND c.statusHttp IS NULL")
+    int prorrogar(@Param("chave") String chave, @Param("expiraEm") LocalDateTime expiraEm);
+}
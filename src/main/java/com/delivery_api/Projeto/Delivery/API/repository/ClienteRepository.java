@@ -6,7 +6,10 @@ import com.delivery_api.Projeto.Delivery.API.entity.Cliente;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 @Repository
 public interface ClienteRepository extends JpaRepository <Cliente, Long> {
@@ -22,6 +25,18 @@ public interface ClienteRepository extends JpaRepository <Cliente, Long> {
 
     // Buscar clientes por nome (contendo)
     List<Cliente> findByNomeContainingIgnoreCase(String nome);
-    
+
+    // Paginação keyset de clientes ativos por (nome, id); cursor nulo = primeira página
+    @Query("SELECT c FROM Cliente c " +
+            "WHERE c.ativo = true " +
+            "AND (:cursorNome IS NULL OR c.nome > :cursorNome " +
+            "     OR (c.nome = :cursorNome AND c.id > :cursorId)) " +
+            "ORDER BY c.nome ASC, c.id ASC")
+    List<Cliente> buscarAtivosPorCursor(@Param("cursorNome") String cursorNome,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
+    long countByAtivoTrue();
+
 }
 
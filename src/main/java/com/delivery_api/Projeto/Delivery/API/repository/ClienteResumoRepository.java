@@ -0,0 +1,48 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.delivery_api.Projeto.Delivery.API.entity.ClienteResumo;
+import com.delivery_api.Projeto.Delivery.API.projection.ClienteAtivo;
+
+@Repository
+public interface ClienteResumoRepository extends JpaRepository<ClienteResumo, Long> {
+
+    // Upsert atômico: soma os deltas ao resumo do cliente (cria na primeira compra)
+    @Modifying
+    @Query(value = "INSERT INTO cliente_resumo (cliente_id, total_pedidos, valor_total, ultimo_pedido) " +
+            "VALUES (:clienteId, :quantidade, :valor, :dataPedido) " +
+            "ON DUPLICATE KEY UPDATE total_pedidos = total_pedidos + VALUES(total_pedidos), " +
+            "valor_total = valor_total + VALUES(valor_total), " +
+            "ultimo_pedido = COALESCE(GREATEST(ultimo_pedido, VALUES(ultimo_pedido)), ultimo_pedido, VALUES(ultimo_pedido))",
+            nativeQuery = true)
+    int acumular(@Param("clienteId") Long clienteId,
+                 @Param("quantidade") long quantidade,
+                 @Param("valor") BigDecimal valor,
+                 @Param("dataPedido") LocalDateTime dataPedido);
+
+    // Leitura do índice (total_pedidos, cliente_id) em ordem decrescente, limitada pelo Pageable
+    @Query("SELECT r.clienteId as clienteId, c.nome as cliente, r.totalPedidos as totalPedidos, " +
+            "r.valorTotal as valorTotal, r.ultimoPedido as ultimoPedido " +
+            "FROM ClienteResumo r JOIN Cliente c ON c.id = r.clienteId " +
+            "WHERE r.totalPedidos > 0 " +
+            "ORDER BY r.totalPedidos DESC, r.clienteId DESC")
+    List<ClienteAtivo> rankingPorPedidos(Pageable pageable);
+
+    // Leitura do índice (valor_total, cliente_id) em ordem decrescente, limitada pelo Pageable
+    @Query("SELECT r.clienteId as clienteId, c.nome as cliente, r.totalPedidos as totalPedidos, " +
+            "r.valorTotal as valorTotal, r.ultimoPedido as ultimoPedido " +
+            "FROM ClienteResumo r JOIN Cliente c ON c.id = r.clienteId " +
+            "WHERE r.totalPedidos > 0 " +
+            "ORDER BY r.valorTotal DESC, r.clienteId DESC")
+    List<ClienteAtivo> rankingPorValor(Pageable pageable);
+}
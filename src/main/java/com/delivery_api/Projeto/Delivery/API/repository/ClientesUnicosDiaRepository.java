@@ -0,0 +1,32 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.delivery_api.Projeto.Delivery.API.entity.ClientesUnicosDia;
+import com.delivery_api.Projeto.Delivery.API.entity.ClientesUnicosDiaId;
+
+@Repository
+public interface ClientesUnicosDiaRepository extends JpaRepository<ClientesUnicosDia, ClientesUnicosDiaId> {
+
+    // Bloqueia a linha para que duas instâncias não sobrescrevam a união uma da outra
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ClientesUnicosDia c WHERE c.restauranteId = :restauranteId AND c.dia = :dia")
+    Optional<ClientesUnicosDia> buscarParaAtualizar(@Param("restauranteId") Long restauranteId,
+                                                    @Param("dia") LocalDate dia);
+
+    @Query("SELECT c FROM ClientesUnicosDia c " +
+            "WHERE c.dia BETWEEN :inicio AND :fim " +
+            "AND (:restauranteId IS NULL OR c.restauranteId = :restauranteId)")
+    List<ClientesUnicosDia> buscarPorPeriodo(@Param("restauranteId") Long restauranteId,
+                                             @Param("inicio") LocalDate inicio,
+                                             @Param("fim") LocalDate fim);
+}
@@ -0,0 +1,35 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.delivery_api.Projeto.Delivery.API.entity.DistribuicaoDia;
+import com.delivery_api.Projeto.Delivery.API.entity.DistribuicaoDiaId;
+
+@Repository
+public interface DistribuicaoDiaRepository extends JpaRepository<DistribuicaoDia, DistribuicaoDiaId> {
+
+    // Bloqueia a linha: a gravação soma contadores, então duas instâncias não podem ler o mesmo estado
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM DistribuicaoDia d " +
+            "WHERE d.restauranteId = :restauranteId AND d.dia = :dia AND d.metrica = :metrica")
+    Optional<DistribuicaoDia> buscarParaAtualizar(@Param("restauranteId") Long restauranteId,
+                                                  @Param("dia") LocalDate dia,
+                                                  @Param("metrica") String metrica);
+
+    @Query("SELECT d FROM DistribuicaoDia d " +
+            "WHERE d.metrica = :metrica AND d.dia BETWEEN :inicio AND :fim " +
+            "AND (:restauranteId IS NULL OR d.restauranteId = :restauranteId)")
+    List<DistribuicaoDia> buscarPorPeriodo(@Param("metrica") String metrica,
+                                           @Param("restauranteId") Long restauranteId,
+                                           @Param("inicio") LocalDate inicio,
+                                           @Param("fim") LocalDate fim);
+}
@@ -0,0 +1,21 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.delivery_api.Projeto.Delivery.API.entity.FaixaTaxaEntrega;
+
+@Repository
+public interface FaixaTaxaEntregaRepository extends JpaRepository<FaixaTaxaEntrega, Long> {
+
+    List<FaixaTaxaEntrega> findByRestauranteIdOrderByAteKmAsc(Long restauranteId);
+
+    @Modifying
+    @Query("DELETE FROM FaixaTaxaEntrega f WHERE f.restauranteId = :restauranteId")
+    void removerPorRestaurante(@Param("restauranteId") Long restauranteId);
+}
@@ -0,0 +1,20 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.delivery_api.Projeto.Delivery.API.entity.MarcaAgregado;
+
+@Repository
+public interface MarcaAgregadoRepository extends JpaRepository<MarcaAgregado, String> {
+
+    // Upsert que só avança: uma gravação atrasada nunca faz a marca voltar
+    @Modifying
+    @Query(value = "INSERT INTO marcas_agregado (agregado, pedido_id) VALUES (:agregado, :pedidoId) " +
+            "ON DUPLICATE KEY UPDATE pedido_id = GREATEST(pedido_id, VALUES(pedido_id))",
+            nativeQuery = true)
+    int avancar(@Param("agregado") String agregado, @Param("pedidoId") long pedidoId);
+}
@@ -0,0 +1,83 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.entity.PedidoItem;
+
+/**
+ * Inserção de pedidos em lote via JDBC.
+ * O id de pedidos é IDENTITY, o que impede o Hibernate de agrupar os INSERTs; aqui
+ * pedidos e itens saem em dois lotes (um INSERT multi-linha cada com
+ * rewriteBatchedStatements) e os ids gerados são devolvidos nos próprios objetos.
+ */
+@Repository
+public class PedidoLoteRepository {
+
+    private static final String INSERT_PEDIDO =
+            "INSERT INTO pedidos (numero_pedido, data_pedido, status, valor_total, observacoes, cliente_id, restaurante_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM =
+            "INSERT INTO pedido_itens (pedido_id, linha, produto_id, quantidade, preco_unitario) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insere os pedidos e seus itens. Deve ser chamado dentro de uma transação.
+     */
+    public void inserir(List<Pedido> pedidos) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_PEDIDO, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Pedido pedido = pedidos.get(i);
+                        ps.setString(1, pedido.getNumeroPedido());
+                        ps.setTimestamp(2, Timestamp.valueOf(pedido.getDataPedido()));
+                        ps.setString(3, pedido.getStatus());
+                        ps.setBigDecimal(4, pedido.getValorTotal());
+                        ps.setString(5, pedido.getObservacoes());
+                        ps.setLong(6, pedido.getClienteId());
+                        ps.setLong(7, pedido.getRestaurante().getId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return pedidos.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> chaves = keyHolder.getKeyList();
+        List<PedidoItem> itens = new ArrayList<>();
+        for (int i = 0; i < pedidos.size(); i++) {
+            Pedido pedido = pedidos.get(i);
+            pedido.setId(((Number) chaves.get(i).values().iterator().next()).longValue());
+            itens.addAll(pedido.getItens());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ITEM, itens, itens.size(), (ps, item) -> {
+            ps.setLong(1, item.getPedido().getId());
+            ps.setInt(2, item.getLinha());
+            ps.setLong(3, item.getProdutoId());
+            ps.setInt(4, item.getQuantidade());
+            ps.setBigDecimal(5, item.getPrecoUnitario());
+        });
+    }
+}
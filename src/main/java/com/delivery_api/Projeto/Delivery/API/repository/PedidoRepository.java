@@ -1,24 +1,42 @@
 package com.delivery_api.Projeto.Delivery.API.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.projection.ClientePedido;
+import com.delivery_api.Projeto.Delivery.API.projection.ResumoPedidos;
+import com.delivery_api.Projeto.Delivery.API.projection.ValorPedido;
 
 @Repository
 public interface PedidoRepository extends JpaRepository <Pedido, Long> {
 
+    // Pedido com itens em uma única consulta (join)
+    @EntityGraph(attributePaths = "itens")
+    Optional<Pedido> findComItensById(Long id);
+
     List<Pedido> findByClienteIdOrderByDataPedidoDesc(Long clienteId);
 
     // Pedidos por cliente
     List<Pedido> findByClienteId(Long clienteId);
 
     // Pedidos por status
-    List<Pedido> findByStatus(StatusPedido status);
+    List<Pedido> findByStatus(String status);
 
     // 10 pedidos mais recentes
     List<Pedido> findTop10ByOrderByDataPedidoDesc();
@@ -26,5 +44,98 @@ public interface PedidoRepository extends JpaRepository <Pedido, Long> {
     // Pedidos por período
     List<Pedido> findByDataPedidoBetween(LocalDateTime inicio, LocalDateTime fim);
 
-}
+    // Pedidos por restaurante (paginado, usa idx_pedidos_restaurante_data)
+    Page<Pedido> findByRestauranteId(Long restauranteId, Pageable pageable);
+
+    // Pedidos por restaurante e status (paginado)
+    Page<Pedido> findByRestauranteIdAndStatus(Long restauranteId, String status, Pageable pageable);
+
+    // Paginação keyset por (dataPedido, id), do mais recente para o mais antigo.
+    // Sem cursor (id nulo) retorna a primeira página; o Pageable só limita as linhas.
+    // Pedidos antigos sem data vêm por último (no MySQL NULL fica no fim em DESC); cursor
+    // com data nula continua dentro desse trecho, só por id.
+    @Query("SELECT p FROM Pedido p " +
+            "WHERE (:status IS NULL OR p.status = :status) " +
+            "AND (:inicio IS NULL OR p.dataPedido >= :inicio) " +
+            "AND (:fim IS NULL OR p.dataPedido <= :fim) " +
+            "AND (:cursorId IS NULL " +
+            "     OR (:cursorData IS NOT NULL AND (p.dataPedido < :cursorData " +
+            "         OR (p.dataPedido = :cursorData AND p.id < :cursorId) OR p.dataPedido IS NULL)) " +
+            "     OR (:cursorData IS NULL AND p.dataPedido IS NULL AND p.id < :cursorId)) " +
+            "ORDER BY p.dataPedido DESC, p.id DESC")
+    List<Pedido> buscarPorCursor(@Param("status") String status,
+                                 @Param("inicio") LocalDateTime inicio,
+                                 @Param("fim") LocalDateTime fim,
+                                 @Param("cursorData") LocalDateTime cursorData,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
+
+    // Transição de status atômica: só altera se o status atual for uma das origens permitidas.
+    // Retorna 0 quando o pedido não existe ou está em um status que não permite a transição.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    // status_anterior é atribuído antes de status: vale tanto na avaliação da esquerda para
+    // a direita do MySQL quanto na do SQL padrão (todas as expressões leem a linha antiga).
+    @Query("UPDATE Pedido p SET p.statusAnterior = p.status, p.status = :novoStatus, p.versao = p.versao + 1 " +
+            "WHERE p.id = :id AND p.status IN :origens")
+    int transicionarStatus(@Param("id") Long id,
+                           @Param("novoStatus") String novoStatus,
+                           @Param("origens") Collection<String> origens);
+
+    @Query("SELECT p.status FROM Pedido p WHERE p.id = :id")
+    Optional<String> buscarStatus(@Param("id") Long id);
+
+    // Exportação: lê o período em streaming (cursor JDBC), sem materializar a lista.
+    // Deve ser consumido dentro de uma transação e fechado ao final.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Pedido p WHERE p.dataPedido BETWEEN :inicio AND :fim ORDER BY p.dataPedido, p.id")
+    Stream<Pedido> streamPorPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
 
+    // Reconstrução dos sketches de clientes únicos a partir da marca gravada: só as colunas
+    // usadas, em streaming e em ordem de id (a marca avança junto com a leitura)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id as id, p.restaurante.id as restauranteId, p.dataPedido as dataPedido, " +
+            "p.clienteId as clienteId FROM Pedido p " +
+            "WHERE p.id > :aposId AND p.clienteId IS NOT NULL AND p.dataPedido IS NOT NULL ORDER BY p.id")
+    Stream<ClientePedido> streamClientesApos(@Param("aposId") Long aposId);
+
+    @Query("SELECT MAX(p.id) FROM Pedido p")
+    Optional<Long> maiorId();
+
+    // Carga inicial das distribuições de valor: em ordem de id, para gravar o progresso em partes.
+    // Pedidos cancelados não entram na distribuição.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id as id, p.restaurante.id as restauranteId, p.dataPedido as dataPedido, " +
+            "p.valorTotal as valorTotal FROM Pedido p " +
+            "WHERE p.id > :aposId AND p.id <= :ateId AND p.valorTotal IS NOT NULL AND p.dataPedido IS NOT NULL " +
+            "AND (p.status IS NULL OR p.status <> 'CANCELADO') ORDER BY p.id")
+    Stream<ValorPedido> streamValoresEntre(@Param("aposId") Long aposId, @Param("ateId") Long ateId);
+
+    @Query("SELECT COUNT(p) FROM Pedido p " +
+            "WHERE (:status IS NULL OR p.status = :status) " +
+            "AND (:inicio IS NULL OR p.dataPedido >= :inicio) " +
+            "AND (:fim IS NULL OR p.dataPedido <= :fim)")
+    long contarComFiltros(@Param("status") String status,
+                          @Param("inicio") LocalDateTime inicio,
+                          @Param("fim") LocalDateTime fim);
+
+    // Agregado calculado no banco: o índice (data_pedido, status, valor_total) cobre a consulta,
+    // então nenhuma linha de pedido é lida nem carregada como entidade
+    @Query("SELECT COUNT(p) as totalPedidos, COALESCE(SUM(p.valorTotal), 0) as valorTotal " +
+            "FROM Pedido p " +
+            "WHERE p.dataPedido BETWEEN :inicio AND :fim " +
+            "AND (:status IS NULL OR p.status = :status)")
+    ResumoPedidos resumirPorPeriodo(@Param("inicio") LocalDateTime inicio,
+                                    @Param("fim") LocalDateTime fim,
+                                    @Param("status") String status);
+
+}
@@ -1,11 +1,16 @@
 package com.delivery_api.Projeto.Delivery.API.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+import com.delivery_api.Projeto.Delivery.API.projection.RankingProduto;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -21,6 +26,20 @@ public interface ProdutoRepository extends JpaRepository <Produto, Long> {
 
     // Por faixa de preço (menor ou igual)
     List<Produto> findByPrecoLessThanEqual(BigDecimal preco);
-    
+
+    // Ranking de vendas (pedidos cancelados não contam). O Pageable limita o resultado no banco.
+    @Query("SELECT pr.id as produtoId, pr.nome as produto, pr.restauranteId as restauranteId, " +
+            "SUM(i.quantidade) as quantidade, SUM(i.precoUnitario * i.quantidade) as totalVendas " +
+            "FROM PedidoItem i JOIN i.pedido p JOIN Produto pr ON pr.id = i.produtoId " +
+            "WHERE p.status <> 'CANCELADO' " +
+            "AND (:restauranteId IS NULL OR p.restaurante.id = :restauranteId) " +
+            "AND (:inicio IS NULL OR p.dataPedido >= :inicio) " +
+            "AND (:fim IS NULL OR p.dataPedido <= :fim) " +
+            "GROUP BY pr.id, pr.nome, pr.restauranteId " +
+            "ORDER BY SUM(i.quantidade) DESC, pr.id")
+    List<RankingProduto> rankingVendas(@Param("restauranteId") Long restauranteId,
+                                       @Param("inicio") LocalDateTime inicio,
+                                       @Param("fim") LocalDateTime fim,
+                                       Pageable pageable);
 }
 
@@ -0,0 +1,54 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+
+/**
+ * Filtros combináveis da listagem de restaurantes. Filtro nulo não restringe.
+ * As igualdades (ativo, categoria) são cobertas pelos índices idx_restaurantes_ativo_nome
+ * e idx_restaurantes_categoria_ativo_nome, que também servem a ordenação por nome.
+ */
+public final class RestauranteFiltros {
+
+    private RestauranteFiltros() {
+    }
+
+    public static Specification<Restaurante> de(String categoria, Boolean ativo,
+                                                BigDecimal taxaMaxima, BigDecimal avaliacaoMinima) {
+        List<Specification<Restaurante>> filtros = new ArrayList<>();
+        if (categoria != null) {
+            filtros.add(categoria(categoria));
+        }
+        if (ativo != null) {
+            filtros.add(ativo(ativo));
+        }
+        if (taxaMaxima != null) {
+            filtros.add(taxaEntregaAte(taxaMaxima));
+        }
+        if (avaliacaoMinima != null) {
+            filtros.add(avaliacaoMinima(avaliacaoMinima));
+        }
+        return Specification.allOf(filtros);
+    }
+
+    public static Specification<Restaurante> categoria(String categoria) {
+        return (root, query, cb) -> cb.equal(root.get("categoria"), categoria);
+    }
+
+    public static Specification<Restaurante> ativo(boolean ativo) {
+        return (root, query, cb) -> cb.equal(root.get("ativo"), ativo);
+    }
+
+    public static Specification<Restaurante> taxaEntregaAte(BigDecimal taxa) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("taxaEntrega"), taxa);
+    }
+
+    public static Specification<Restaurante> avaliacaoMinima(BigDecimal avaliacao) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("avaliacao"), avaliacao);
+    }
+}
@@ -4,16 +4,19 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
-import com.delivery_api.Projeto.Delivery.API.projection.RelatorioVendas;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
 import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
 
 @Repository
-public interface RestauranteRepository extends JpaRepository <Restaurante, Long>{
+public interface RestauranteRepository extends JpaRepository <Restaurante, Long>,
+        JpaSpecificationExecutor<Restaurante>, RestauranteRepositoryCustom {
     // Buscar por nome
     Optional<Restaurante> findByNome(String nome);
 
@@ -23,20 +26,30 @@ public interface RestauranteRepository extends JpaRepository <Restaurante, Long>
     // Buscar por categoria
     List<Restaurante> findByCategoria(String categoria);
 
+    // Restaurantes ativos com coordenadas (carga do índice de proximidade)
+    List<Restaurante> findByAtivoTrueAndLatitudeIsNotNullAndLongitudeIsNotNull();
+
     // Por taxa de entrega menor ou igual
     List<Restaurante> findByTaxaEntregaLessThanEqual(BigDecimal taxa);
 
     // Top 5 restaurantes por nome (ordem alfabética)
     List<Restaurante> findTop5ByOrderByNomeAsc();
 
-    // No RestauranteRepository:
-    @Query("SELECT r.nome as nomeRestaurante, " +
-            "SUM(p.valorTotal) as totalVendas, " +
-            "COUNT(p.id) as quantidePedidos " +
-            "FROM Restaurante r " +
-            "LEFT JOIN Pedido p ON r.id = p.restaurante.id " +
-            "GROUP BY r.id, r.nome")
-    List<RelatorioVendas> relatorioVendasPorRestaurante();
+    // Paginação keyset de restaurantes ativos por (nome, id); cursor nulo = primeira página
+    @Query("SELECT r FROM Restaurante r " +
+            "WHERE r.ativo = true " +
+            "AND (:categoria IS NULL OR r.categoria = :categoria) " +
+            "AND (:cursorNome IS NULL OR r.nome > :cursorNome " +
+            "     OR (r.nome = :cursorNome AND r.id > :cursorId)) " +
+            "ORDER BY r.nome ASC, r.id ASC")
+    List<Restaurante> buscarAtivosPorCursor(@Param("categoria") String categoria,
+                                            @Param("cursorNome") String cursorNome,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
+
+    @Query("SELECT COUNT(r) FROM Restaurante r " +
+            "WHERE r.ativo = true AND (:categoria IS NULL OR r.categoria = :categoria)")
+    long contarAtivos(@Param("categoria") String categoria);
 
 }
 
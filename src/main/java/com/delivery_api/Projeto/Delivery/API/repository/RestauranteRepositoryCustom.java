@@ -0,0 +1,15 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.RestauranteResponseDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+
+public interface RestauranteRepositoryCustom {
+
+    // Uma página de restaurantes projetada direto no DTO de resposta (sem carregar entidades)
+    List<RestauranteResponseDTO> buscarResumos(Specification<Restaurante> filtro, Pageable pageable);
+}
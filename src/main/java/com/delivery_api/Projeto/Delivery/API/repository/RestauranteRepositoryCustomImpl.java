@@ -0,0 +1,64 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.RestauranteResponseDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+
+/**
+ * Listagem de restaurantes com Criteria: SELECT das colunas da resposta com LIMIT/OFFSET
+ * no banco, de modo que o custo acompanha o tamanho da página e não o da tabela.
+ */
+class RestauranteRepositoryCustomImpl implements RestauranteRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<RestauranteResponseDTO> buscarResumos(Specification<Restaurante> filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<RestauranteResponseDTO> query = cb.createQuery(RestauranteResponseDTO.class);
+        Root<Restaurante> root = query.from(Restaurante.class);
+
+        query.select(cb.construct(RestauranteResponseDTO.class,
+                root.get("id"),
+                root.get("nome"),
+                root.get("categoria"),
+                root.get("endereco"),
+                root.get("telefone"),
+                root.get("taxaEntrega"),
+                root.get("avaliacao"),
+                root.get("ativo"),
+                root.get("latitude"),
+                root.get("longitude")));
+
+        Predicate predicado = filtro != null ? filtro.toPredicate(root, query, cb) : null;
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<RestauranteResponseDTO> consulta = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            if (pageable.getOffset() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Deslocamento de página acima do suportado: " + pageable.getOffset());
+            }
+            consulta.setFirstResult((int) pageable.getOffset());
+            consulta.setMaxResults(pageable.getPageSize());
+        }
+        return consulta.getResultList();
+    }
+}
@@ -0,0 +1,49 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.delivery_api.Projeto.Delivery.API.entity.VendaHora;
+import com.delivery_api.Projeto.Delivery.API.entity.VendaHoraId;
+import com.delivery_api.Projeto.Delivery.API.projection.RelatorioVendas;
+
+@Repository
+public interface VendaHoraRepository extends JpaRepository<VendaHora, VendaHoraId> {
+
+    // Upsert atômico: soma os deltas ao balde (cria o balde na primeira ocorrência)
+    @Modifying
+    @Query(value = "INSERT INTO vendas_hora (restaurante_id, hora, status, quantidade_pedidos, valor_total) " +
+            "VALUES (:restauranteId, :hora, :status, :quantidade, :valor) " +
+            "ON DUPLICATE KEY UPDATE quantidade_pedidos = quantidade_pedidos + VALUES(quantidade_pedidos), " +
+            "valor_total = valor_total + VALUES(valor_total)",
+            nativeQuery = true)
+    int acumular(@Param("restauranteId") Long restauranteId,
+                 @Param("hora") LocalDateTime hora,
+                 @Param("status") String status,
+                 @Param("quantidade") long quantidade,
+                 @Param("valor") BigDecimal valor);
+
+    // Custo proporcional ao número de baldes no intervalo, não ao número de pedidos
+    @Query("SELECT r.nome as nomeRestaurante, " +
+            "SUM(v.valorTotal) as totalVendas, " +
+            "COALESCE(SUM(v.quantidadePedidos), 0) as quantidePedidos " +
+            "FROM Restaurante r " +
+            "LEFT JOIN VendaHora v ON v.restauranteId = r.id " +
+            "AND (:inicio IS NULL OR v.hora >= :inicio) " +
+            "AND (:fim IS NULL OR v.hora <= :fim) " +
+            "GROUP BY r.id, r.nome")
+    List<RelatorioVendas> relatorioVendasPorRestaurante(@Param("inicio") LocalDateTime inicio,
+                                                        @Param("fim") LocalDateTime fim);
+
+    // Exportação diária: baldes de [inicio, fim)
+    @Query("SELECT v FROM VendaHora v WHERE v.hora >= :inicio AND v.hora < :fim " +
+            "ORDER BY v.hora, v.restauranteId, v.status")
+    List<VendaHora> buscarPorPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+}
@@ -0,0 +1,475 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.ConsultaAnaliticaDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.LinhaAnaliticaDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.enums.DimensaoAnalitica;
+import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.event.PedidoCriadoEvent;
+import com.delivery_api.Projeto.Delivery.API.event.StatusPedidoAlteradoEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cópia colunar dos pedidos em memória para relatórios ad-hoc. Cada coluna é um array
+ * primitivo (centavos, restaurante, status, minuto desde a época) em blocos de tamanho
+ * fixo que só crescem; as consultas varrem os blocos em paralelo no ForkJoinPool e não
+ * tocam o banco. Carregada na subida e atualizada após o commit de cada pedido.
+ *
+ * Os eventos de commit chegam em qualquer ordem (e a carga pode cruzar com eles): cada
+ * linha guarda a versão do pedido e só aceita status de versão maior. Status de um pedido
+ * que ainda não tem linha fica pendente até a linha ser criada.
+ */
+@Service
+@ConditionalOnProperty(name = "delivery.analitico.habilitado", havingValue = "true")
+public class AnaliticoPedidosService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnaliticoPedidosService.class);
+
+    private static final int BITS_BLOCO = 14;
+    private static final int TAMANHO_BLOCO = 1 << BITS_BLOCO;
+    private static final int MASCARA_BLOCO = TAMANHO_BLOCO - 1;
+
+    private static final StatusPedido[] STATUS = StatusPedido.values();
+
+    // O índice da faixa ocupa 8 bits da chave do grupo; n limites geram n + 1 faixas
+    public static final int MAX_LIMITES_FAIXA = 255;
+
+    // Minuto gravado para pedidos sem data_pedido; fora de qualquer período e em grupo próprio
+    private static final int SEM_DATA = Integer.MIN_VALUE;
+    private static final long BIT_SEM_DATA = 1L << 13;
+
+    /**
+     * Filtros da consulta; campos nulos não filtram
+     */
+    public record Filtro(Long restauranteId, StatusPedido status, LocalDateTime inicio, LocalDateTime fim,
+                         BigDecimal valorMinimo, BigDecimal valorMaximo) {
+    }
+
+    private static final class Bloco {
+        final long[] centavos = new long[TAMANHO_BLOCO];
+        final int[] restaurante = new int[TAMANHO_BLOCO];
+        final byte[] status = new byte[TAMANHO_BLOCO];
+        final int[] minuto = new int[TAMANHO_BLOCO];
+        // Versão do pedido (coluna versao) que gravou o status; não entra nas consultas
+        final int[] versao = new int[TAMANHO_BLOCO];
+    }
+
+    private record StatusPendente(long versao, StatusPedido status) {
+    }
+
+    // Publicação: a linha é escrita antes de "linhas" ser incrementado (volatile),
+    // então quem lê "linhas" primeiro enxerga blocos e valores completos
+    private volatile Bloco[] blocos = new Bloco[0];
+    private volatile int linhas;
+    private final ReentrantLock escrita = new ReentrantLock();
+    // id do pedido -> linha; lido e escrito só com o lock de escrita
+    private final PosicoesPorPedido posicaoPorPedido = new PosicoesPorPedido();
+    // id do pedido -> status mais recente recebido antes da linha existir; só com o lock de escrita
+    private final Map<Long, StatusPendente> statusPendentes = new HashMap<>();
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${delivery.analitico.paralelismo:0}")
+    private int paralelismo;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void iniciar() {
+        pool = paralelismo > 0 ? new ForkJoinPool(paralelismo) : ForkJoinPool.commonPool();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        JdbcTemplate leitura = new JdbcTemplate(dataSource);
+        leitura.setFetchSize(5000);
+        leitura.query("SELECT id, restaurante_id, status, valor_total, data_pedido, versao FROM pedidos", rs -> {
+            Timestamp data = rs.getTimestamp("data_pedido");
+            adicionar(rs.getLong("id"), rs.getLong("restaurante_id"), rs.getString("status"),
+                    rs.getBigDecimal("valor_total"), data != null ? data.toLocalDateTime() : null,
+                    rs.getLong("versao"));
+        });
+        log.info("Cópia analítica carregada: {} pedidos em {} ms", linhas, System.currentTimeMillis() - inicio);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (pool != null && pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPedidoCriado(PedidoCriadoEvent event) {
+        Pedido pedido = event.pedido();
+        adicionar(pedido.getId(), pedido.getRestaurante().getId(), pedido.getStatus(),
+                pedido.getValorTotal(), pedido.getDataPedido(), versao(pedido));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusAlterado(StatusPedidoAlteradoEvent event) {
+        long id = event.pedido().getId();
+        long versao = versao(event.pedido());
+        escrita.lock();
+        try {
+            int linha = posicaoPorPedido.get(id);
+            if (linha >= 0) {
+                aplicarStatus(linha, codigoStatus(event.novoStatus().name()), versao);
+            } else {
+                statusPendentes.merge(id, new StatusPendente(versao, event.novoStatus()),
+                        (atual, novo) -> novo.versao() > atual.versao() ? novo : atual);
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    public int getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * Filtrar e agrupar os pedidos pelas dimensões pedidas. faixasValor são os limites
+     * (em reais) das faixas usadas na dimensão FAIXA_VALOR, no máximo MAX_LIMITES_FAIXA.
+     * Pedidos sem data ficam fora de filtros por período e, agrupados por dia ou hora,
+     * formam um grupo com dia e hora nulos (como o GROUP BY do banco).
+     */
+    public ConsultaAnaliticaDTO consultar(Filtro filtro, Set<DimensaoAnalitica> dimensoes,
+                                          List<BigDecimal> faixasValor, int limite) {
+        long inicio = System.nanoTime();
+
+        int total = linhas;
+        Bloco[] snapshot = blocos;
+        long[] faixas = faixasValor.stream().mapToLong(AnaliticoPedidosService::centavos).sorted().toArray();
+        Criterio criterio = new Criterio(filtro, dimensoes, faixas);
+        int totalBlocos = (total + TAMANHO_BLOCO - 1) >>> BITS_BLOCO;
+        Map<Long, long[]> grupos = pool.invoke(new Varredura(snapshot, total, 0, totalBlocos, criterio));
+
+        List<LinhaAnaliticaDTO> resultado = new ArrayList<>(grupos.size());
+        grupos.forEach((chave, acumulado) -> resultado.add(linha(chave, acumulado, dimensoes, faixas)));
+        resultado.sort(Comparator.comparingLong(LinhaAnaliticaDTO::getPedidos).reversed());
+
+        return new ConsultaAnaliticaDTO(
+                resultado.subList(0, Math.min(limite, resultado.size())),
+                total,
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private void adicionar(long id, long restauranteId, String status, BigDecimal valor, LocalDateTime data,
+                           long versao) {
+        escrita.lock();
+        try {
+            int existente = posicaoPorPedido.get(id);
+            if (existente >= 0) {
+                // Carga e evento de criação do mesmo pedido: fica o status mais novo
+                aplicarStatus(existente, codigoStatus(status), versao);
+                return;
+            }
+            int linha = linhas;
+            int indiceBloco = linha >>> BITS_BLOCO;
+            if (indiceBloco == blocos.length) {
+                Bloco[] novos = Arrays.copyOf(blocos, indiceBloco + 1);
+                novos[indiceBloco] = new Bloco();
+                blocos = novos;
+            }
+            Bloco bloco = blocos[indiceBloco];
+            int posicao = linha & MASCARA_BLOCO;
+            bloco.centavos[posicao] = centavos(valor);
+            bloco.restaurante[posicao] = (int) restauranteId;
+            bloco.status[posicao] = codigoStatus(status);
+            bloco.minuto[posicao] = data != null ? minuto(data) : SEM_DATA;
+            bloco.versao[posicao] = (int) versao;
+
+            StatusPendente pendente = statusPendentes.remove(id);
+            if (pendente != null && pendente.versao() > versao) {
+                bloco.status[posicao] = codigoStatus(pendente.status().name());
+                bloco.versao[posicao] = (int) pendente.versao();
+            }
+
+            posicaoPorPedido.put(id, linha);
+            linhas = linha + 1;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    // Chamador segura o lock de escrita
+    private void aplicarStatus(int linha, byte status, long versao) {
+        Bloco bloco = blocos[linha >>> BITS_BLOCO];
+        int posicao = linha & MASCARA_BLOCO;
+        if (versao > bloco.versao[posicao]) {
+            bloco.status[posicao] = status;
+            bloco.versao[posicao] = (int) versao;
+        }
+    }
+
+    private static long versao(Pedido pedido) {
+        return pedido.getVersao() != null ? pedido.getVersao() : 0;
+    }
+
+    /**
+     * Filtro e agrupamento pré-calculados em primitivos para o laço da varredura.
+     */
+    private static final class Criterio {
+        final int restaurante;
+        final int status;
+        final int minutoInicio;
+        final int minutoFim;
+        final boolean filtraPeriodo;
+        final long centavosMinimo;
+        final long centavosMaximo;
+        final boolean porRestaurante;
+        final boolean porStatus;
+        final boolean porDia;
+        final boolean porHora;
+        final boolean porFaixa;
+        final long[] faixas;
+
+        Criterio(Filtro filtro, Set<DimensaoAnalitica> dimensoes, long[] faixas) {
+            this.restaurante = filtro.restauranteId() != null ? filtro.restauranteId().intValue() : -1;
+            this.status = filtro.status() != null ? filtro.status().ordinal() : -1;
+            this.minutoInicio = filtro.inicio() != null ? minuto(filtro.inicio()) : Integer.MIN_VALUE;
+            this.minutoFim = filtro.fim() != null ? minuto(filtro.fim()) : Integer.MAX_VALUE;
+            this.filtraPeriodo = filtro.inicio() != null || filtro.fim() != null;
+            this.centavosMinimo = filtro.valorMinimo() != null ? centavos(filtro.valorMinimo()) : Long.MIN_VALUE;
+            this.centavosMaximo = filtro.valorMaximo() != null ? centavos(filtro.valorMaximo()) : Long.MAX_VALUE;
+            this.porRestaurante = dimensoes.contains(DimensaoAnalitica.RESTAURANTE);
+            this.porStatus = dimensoes.contains(DimensaoAnalitica.STATUS);
+            this.porDia = dimensoes.contains(DimensaoAnalitica.DIA);
+            this.porHora = dimensoes.contains(DimensaoAnalitica.HORA_DO_DIA);
+            this.porFaixa = dimensoes.contains(DimensaoAnalitica.FAIXA_VALOR);
+            this.faixas = faixas;
+        }
+    }
+
+    /**
+     * Varre um intervalo de blocos; divide ao meio até restar um bloco por tarefa.
+     * Cada tarefa agrega num mapa próprio (chave do grupo -> [pedidos, centavos]).
+     */
+    private static final class Varredura extends RecursiveTask<Map<Long, long[]>> {
+        private final Bloco[] blocos;
+        private final int totalLinhas;
+        private final int de;
+        private final int ate;
+        private final Criterio criterio;
+
+        Varredura(Bloco[] blocos, int totalLinhas, int de, int ate, Criterio criterio) {
+            this.blocos = blocos;
+            this.totalLinhas = totalLinhas;
+            this.de = de;
+            this.ate = ate;
+            this.criterio = criterio;
+        }
+
+        @Override
+        protected Map<Long, long[]> compute() {
+            if (ate - de <= 1) {
+                return de < ate ? varrer(de) : new HashMap<>();
+            }
+            int meio = (de + ate) >>> 1;
+            Varredura esquerda = new Varredura(blocos, totalLinhas, de, meio, criterio);
+            esquerda.fork();
+            Map<Long, long[]> direita = new Varredura(blocos, totalLinhas, meio, ate, criterio).compute();
+            Map<Long, long[]> resultado = esquerda.join();
+            direita.forEach((chave, valor) -> resultado.merge(chave, valor, (a, b) -> {
+                a[0] += b[0];
+                a[1] += b[1];
+                return a;
+            }));
+            return resultado;
+        }
+
+        private Map<Long, long[]> varrer(int indiceBloco) {
+            Bloco bloco = blocos[indiceBloco];
+            int limite = Math.min(TAMANHO_BLOCO, totalLinhas - (indiceBloco << BITS_BLOCO));
+            Criterio c = criterio;
+            Map<Long, long[]> grupos = new HashMap<>();
+
+            for (int i = 0; i < limite; i++) {
+                int minuto = bloco.minuto[i];
+                long centavos = bloco.centavos[i];
+                if ((c.restaurante >= 0 && bloco.restaurante[i] != c.restaurante)
+                        || (c.status >= 0 && bloco.status[i] != c.status)
+                        || (minuto == SEM_DATA && c.filtraPeriodo)
+                        || (minuto != SEM_DATA && (minuto < c.minutoInicio || minuto > c.minutoFim))
+                        || centavos < c.centavosMinimo || centavos > c.centavosMaximo) {
+                    continue;
+                }
+
+                // Chave composta em bits: restaurante(24) status(4) dia(20) semData(1) hora(5) faixa(8)
+                long chave = 0;
+                boolean porData = c.porDia || c.porHora;
+                if (c.porRestaurante) {
+                    chave |= ((long) bloco.restaurante[i] & 0xFFFFFF) << 40;
+                }
+                if (c.porStatus) {
+                    chave |= ((long) bloco.status[i] & 0xF) << 36;
+                }
+                if (porData && minuto == SEM_DATA) {
+                    chave |= BIT_SEM_DATA;
+                } else {
+                    if (c.porDia) {
+                        chave |= ((long) Math.floorDiv(minuto, 1440) & 0xFFFFF) << 16;
+                    }
+                    if (c.porHora) {
+                        chave |= (long) Math.floorMod(Math.floorDiv(minuto, 60), 24) << 8;
+                    }
+                }
+                if (c.porFaixa) {
+                    chave |= faixa(c.faixas, centavos);
+                }
+
+                long[] acumulado = grupos.computeIfAbsent(chave, k -> new long[2]);
+                acumulado[0]++;
+                acumulado[1] += centavos;
+            }
+            return grupos;
+        }
+    }
+
+    private static LinhaAnaliticaDTO linha(long chave, long[] acumulado, Set<DimensaoAnalitica> dimensoes,
+                                           long[] faixas) {
+        LinhaAnaliticaDTO linha = new LinhaAnaliticaDTO();
+        if (dimensoes.contains(DimensaoAnalitica.RESTAURANTE)) {
+            linha.setRestauranteId((chave >>> 40) & 0xFFFFFF);
+        }
+        if (dimensoes.contains(DimensaoAnalitica.STATUS)) {
+            int codigo = (int) ((chave >>> 36) & 0xF);
+            linha.setStatus(codigo < STATUS.length ? STATUS[codigo].name() : null);
+        }
+        boolean semData = (chave & BIT_SEM_DATA) != 0;
+        if (dimensoes.contains(DimensaoAnalitica.DIA) && !semData) {
+            linha.setDia(LocalDate.ofEpochDay((chave >>> 16) & 0xFFFFF));
+        }
+        if (dimensoes.contains(DimensaoAnalitica.HORA_DO_DIA) && !semData) {
+            linha.setHoraDoDia((int) ((chave >>> 8) & 0x1F));
+        }
+        if (dimensoes.contains(DimensaoAnalitica.FAIXA_VALOR)) {
+            linha.setFaixaValor(rotuloFaixa(faixas, (int) (chave & 0xFF)));
+        }
+
+        BigDecimal valorTotal = BigDecimal.valueOf(acumulado[1], 2);
+        linha.setPedidos(acumulado[0]);
+        linha.setValorTotal(valorTotal);
+        linha.setTicketMedio(valorTotal.divide(BigDecimal.valueOf(acumulado[0]), 2, RoundingMode.HALF_EVEN));
+        return linha;
+    }
+
+    // Índice da faixa: quantidade de limites menores ou iguais ao valor
+    private static int faixa(long[] faixas, long centavos) {
+        int posicao = Arrays.binarySearch(faixas, centavos);
+        return posicao >= 0 ? posicao + 1 : -posicao - 1;
+    }
+
+    private static String rotuloFaixa(long[] faixas, int indice) {
+        String de = indice == 0 ? "0.00" : BigDecimal.valueOf(faixas[indice - 1], 2).toPlainString();
+        return indice < faixas.length
+                ? de + "-" + BigDecimal.valueOf(faixas[indice], 2).toPlainString()
+                : de + "+";
+    }
+
+    private static byte codigoStatus(String status) {
+        try {
+            return (byte) StatusPedido.valueOf(status).ordinal();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return (byte) 0xF;
+        }
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor != null ? valor.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValue() : 0;
+    }
+
+    /**
+     * Mapa id -> linha com endereçamento aberto em arrays primitivos: sem boxing de
+     * Long/Integer nem um nó por pedido. Não é thread-safe; o chamador segura o lock.
+     */
+    private static final class PosicoesPorPedido {
+        // 0 marca posição vazia (ids começam em 1)
+        private long[] ids = new long[1 << 10];
+        private int[] posicoes = new int[1 << 10];
+        private int tamanho;
+
+        int get(long id) {
+            int mascara = ids.length - 1;
+            for (int i = indice(id, mascara); ids[i] != 0; i = (i + 1) & mascara) {
+                if (ids[i] == id) {
+                    return posicoes[i];
+                }
+            }
+            return -1;
+        }
+
+        void put(long id, int posicao) {
+            if ((tamanho + 1) * 2 > ids.length) {
+                crescer();
+            }
+            int mascara = ids.length - 1;
+            int i = indice(id, mascara);
+            while (ids[i] != 0 && ids[i] != id) {
+                i = (i + 1) & mascara;
+            }
+            if (ids[i] == 0) {
+                tamanho++;
+            }
+            ids[i] = id;
+            posicoes[i] = posicao;
+        }
+
+        private void crescer() {
+            long[] idsAntigos = ids;
+            int[] posicoesAntigas = posicoes;
+            ids = new long[idsAntigos.length * 2];
+            posicoes = new int[idsAntigos.length * 2];
+            tamanho = 0;
+            for (int i = 0; i < idsAntigos.length; i++) {
+                if (idsAntigos[i] != 0) {
+                    put(idsAntigos[i], posicoesAntigas[i]);
+                }
+            }
+        }
+
+        private static int indice(long id, int mascara) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mascara;
+        }
+    }
+
+    // Minutos desde a época tratando a data como UTC (o mesmo relógio gravado em data_pedido)
+    private static int minuto(LocalDateTime data) {
+        return (int) Math.floorDiv(data.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+}
@@ -0,0 +1,93 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.delivery_api.Projeto.Delivery.API.geo.Coordenada;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+/**
+ * Base local de CEP para coordenadas, carregada na inicialização a partir de um CSV
+ * (cep;latitude;longitude). O CEP pode ter 8 dígitos ou 5 (setor); a busca tenta o CEP
+ * completo e depois o setor, sem chamadas externas.
+ */
+@Service
+public class CepService {
+
+    private static final Logger log = LoggerFactory.getLogger(CepService.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${delivery.geo.ceps:classpath:geo/ceps.csv}")
+    private String arquivo;
+
+    private Map<String, Coordenada> coordenadas = Map.of();
+
+    @PostConstruct
+    void carregar() {
+        Resource recurso = resourceLoader.getResource(arquivo);
+        Map<String, Coordenada> lidas = new HashMap<>();
+        try (BufferedReader leitor = new BufferedReader(
+                new InputStreamReader(recurso.getInputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            int numero = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+                String[] campos = linha.split(";");
+                if (campos.length != 3 || (campos[0].length() != 8 && campos[0].length() != 5)) {
+                    throw new IllegalStateException("Linha " + numero + " inválida em " + arquivo + ": " + linha);
+                }
+                lidas.put(campos[0], new Coordenada(Double.parseDouble(campos[1]), Double.parseDouble(campos[2])));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler a base de CEP " + arquivo, e);
+        }
+        coordenadas = Map.copyOf(lidas);
+        log.info("Base de CEP carregada: {} entradas", coordenadas.size());
+    }
+
+    /**
+     * Coordenadas do CEP (com ou sem hífen), ou vazio se nem o setor estiver na base
+     */
+    public Optional<Coordenada> localizar(String cep) {
+        String digitos = normalizar(cep);
+        Coordenada exata = coordenadas.get(digitos);
+        return exata != null ? Optional.of(exata) : Optional.ofNullable(coordenadas.get(digitos.substring(0, 5)));
+    }
+
+    /**
+     * Coordenadas do setor do CEP (5 primeiros dígitos), se o setor estiver na base
+     */
+    public Optional<Coordenada> localizarSetor(String cep) {
+        return Optional.ofNullable(coordenadas.get(normalizar(cep).substring(0, 5)));
+    }
+
+    /**
+     * CEP só com os 8 dígitos
+     */
+    public static String normalizar(String cep) {
+        String digitos = cep != null ? cep.replaceAll("[\\s.-]", "") : "";
+        if (!digitos.matches("\\d{8}")) {
+            throw new IllegalArgumentException("CEP inválido: " + cep);
+        }
+        return digitos;
+    }
+}
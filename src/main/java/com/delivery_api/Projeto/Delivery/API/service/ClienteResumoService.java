@@ -0,0 +1,57 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.event.PedidoCriadoEvent;
+import com.delivery_api.Projeto.Delivery.API.event.StatusPedidoAlteradoEvent;
+import com.delivery_api.Projeto.Delivery.API.projection.ClienteAtivo;
+import com.delivery_api.Projeto.Delivery.API.repository.ClienteResumoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Mantém o resumo de compras por cliente (cliente_resumo) dentro da transação do pedido
+ * e serve o ranking de clientes a partir dos índices do resumo.
+ */
+@Service
+public class ClienteResumoService {
+
+    @Autowired
+    private ClienteResumoRepository clienteResumoRepository;
+
+    @EventListener
+    public void onPedidoCriado(PedidoCriadoEvent event) {
+        Pedido pedido = event.pedido();
+        clienteResumoRepository.acumular(pedido.getClienteId(), 1, valor(pedido), pedido.getDataPedido());
+    }
+
+    // Cancelamento retira o pedido dos totais; a data do último pedido é mantida
+    @EventListener
+    public void onStatusAlterado(StatusPedidoAlteradoEvent event) {
+        if (event.novoStatus() == StatusPedido.CANCELADO) {
+            Pedido pedido = event.pedido();
+            clienteResumoRepository.acumular(pedido.getClienteId(), -1, valor(pedido).negate(), null);
+        }
+    }
+
+    /**
+     * Clientes com mais pedidos ou, com porValor, com maior valor gasto
+     */
+    @Transactional(readOnly = true)
+    public List<ClienteAtivo> ranking(boolean porValor, int limite) {
+        PageRequest pagina = PageRequest.of(0, limite);
+        return porValor
+                ? clienteResumoRepository.rankingPorValor(pagina)
+                : clienteResumoRepository.rankingPorPedidos(pagina);
+    }
+
+    private static BigDecimal valor(Pedido pedido) {
+        return pedido.getValorTotal() != null ? pedido.getValorTotal() : BigDecimal.ZERO;
+    }
+}
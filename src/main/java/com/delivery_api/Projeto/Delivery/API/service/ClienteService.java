@@ -3,6 +3,7 @@ package com.delivery_api.Projeto.Delivery.API.service;
 
 import com.delivery_api.Projeto.Delivery.API.dto.request.ClienteRequestDTO;
 import com.delivery_api.Projeto.Delivery.API.dto.response.ClienteResponseDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.PageCursor;
 
 import java.util.List;
 
@@ -20,6 +21,10 @@ public interface ClienteService {
 
     List<ClienteResponseDTO> buscarPorNome(String nome);
 
+    List<ClienteResponseDTO> listarAtivosPorCursor(PageCursor cursor, int limite);
+
+    long contarAtivos();
+
 
 }
 
@@ -0,0 +1,277 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.ClientesUnicosDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.ClientesUnicosDia;
+import com.delivery_api.Projeto.Delivery.API.entity.MarcaAgregado;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.enums.AgrupamentoPeriodo;
+import com.delivery_api.Projeto.Delivery.API.event.PedidoCriadoEvent;
+import com.delivery_api.Projeto.Delivery.API.projection.ClientePedido;
+import com.delivery_api.Projeto.Delivery.API.repository.ClientesUnicosDiaRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.MarcaAgregadoRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+import com.delivery_api.Projeto.Delivery.API.sketch.HyperLogLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Clientes únicos por restaurante com sketches HyperLogLog diários (clientes_unicos_dia).
+ *
+ * Pedidos novos atualizam sketches em memória, gravados periodicamente com união ao sketch
+ * já persistido. Como a união é idempotente, regravar o mesmo cliente não altera a contagem:
+ * a gravação pode ser repetida e várias instâncias podem gravar o mesmo dia.
+ *
+ * A marca gravada em marcas_agregado diz até qual id de pedido tudo já foi gravado. Ao subir,
+ * os pedidos com id acima da marca são reprocessados, de qualquer dia e restaurante, inclusive
+ * pedidos com data retroativa; na primeira execução, todos, gravando em partes. A marca usa o
+ * maior id visto na gravação completa anterior, então um pedido com id menor que confirmou
+ * até um intervalo de gravação depois ainda é reprocessado. Com várias instâncias a marca é
+ * a da que mais avançou: o pendente de outra instância que parou sem encerrar pode se perder.
+ *
+ * Uma consulta custa O(dias x restaurantes x 4 KB), independente do número de pedidos.
+ */
+@Service
+public class ClientesUnicosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientesUnicosService.class);
+
+    private static final String MARCA = "clientes-unicos";
+
+    private record Chave(Long restauranteId, LocalDate dia) {
+    }
+
+    // Sketches alterados desde a última gravação
+    private final Map<Chave, HyperLogLog> pendentes = new ConcurrentHashMap<>();
+
+    // Maior id de pedido já somado aos sketches em memória
+    private final AtomicLong ultimoPedido = new AtomicLong();
+
+    // Uma gravação por vez (agendada, carga inicial e encerramento): a marca só avança
+    // depois de gravado tudo o que ela cobre
+    private final ReentrantLock gravacao = new ReentrantLock();
+    private long marcaCandidata;
+    private long marcaGravada;
+
+    // Propagação própria: a carga inicial grava de dentro da sua transação somente leitura
+    private TransactionTemplate escrita;
+
+    @Autowired
+    private ClientesUnicosDiaRepository clientesUnicosDiaRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private MarcaAgregadoRepository marcaAgregadoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${delivery.clientes-unicos.max-dias:731}")
+    private int maxDias;
+
+    @Value("${delivery.clientes-unicos.max-pendentes:1000}")
+    private int maxPendentes;
+
+    @PostConstruct
+    public void iniciar() {
+        escrita = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        escrita.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reprocessar os pedidos com id acima da marca gravada (todos, na primeira execução)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        long marca = marcaAgregadoRepository.findById(MARCA).map(MarcaAgregado::getPedidoId).orElse(0L);
+        try (Stream<ClientePedido> pedidos = pedidoRepository.streamClientesApos(marca)) {
+            pedidos.forEach(p -> {
+                adicionar(p.getId(), p.getRestauranteId(), p.getDataPedido().toLocalDate(), p.getClienteId());
+                // Cada sketch tem ~4 KB: numa carga grande, grava em partes em vez de acumular tudo
+                if (pendentes.size() >= maxPendentes) {
+                    gravarPendentes();
+                }
+            });
+        }
+        gravarPendentes();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPedidoCriado(PedidoCriadoEvent event) {
+        Pedido pedido = event.pedido();
+        if (pedido.getClienteId() != null && pedido.getDataPedido() != null) {
+            adicionar(pedido.getId(), pedido.getRestaurante().getId(), pedido.getDataPedido().toLocalDate(),
+                    pedido.getClienteId());
+        }
+    }
+
+    /**
+     * Clientes únicos por restaurante no período, agrupados por dia, semana, mês ou período inteiro
+     */
+    public List<ClientesUnicosDTO> contar(Long restauranteId, LocalDate inicio, LocalDate fim,
+                                          AgrupamentoPeriodo agrupamento) {
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("dataFim deve ser posterior a dataInicio");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) >= maxDias) {
+            throw new IllegalArgumentException("Período máximo de " + maxDias + " dias");
+        }
+
+        // (restaurante, início do grupo) -> união dos sketches diários
+        Map<Chave, HyperLogLog> grupos = new TreeMap<>(Comparator.comparing(Chave::restauranteId)
+                .thenComparing(Chave::dia));
+        for (ClientesUnicosDia dia : clientesUnicosDiaRepository.buscarPorPeriodo(restauranteId, inicio, fim)) {
+            unir(grupos, new Chave(dia.getRestauranteId(), agrupamento.inicio(dia.getDia(), inicio)),
+                    HyperLogLog.descomprimir(dia.getSketch()));
+        }
+        // Inclui o que ainda não foi gravado; unir de novo o que já está no banco não muda o resultado
+        pendentes.forEach((chave, sketch) -> {
+            if ((restauranteId == null || restauranteId.equals(chave.restauranteId()))
+                    && !chave.dia().isBefore(inicio) && !chave.dia().isAfter(fim)) {
+                HyperLogLog copia;
+                synchronized (sketch) {
+                    copia = sketch.copiar();
+                }
+                unir(grupos, new Chave(chave.restauranteId(), agrupamento.inicio(chave.dia(), inicio)), copia);
+            }
+        });
+
+        List<ClientesUnicosDTO> resultado = new ArrayList<>(grupos.size());
+        grupos.forEach((grupo, sketch) -> resultado.add(new ClientesUnicosDTO(grupo.restauranteId(),
+                max(grupo.dia(), inicio), min(fimDoGrupo(grupo.dia(), agrupamento, fim), fim),
+                sketch.estimar(), HyperLogLog.ERRO_PADRAO)));
+        return resultado;
+    }
+
+    /**
+     * Une os sketches pendentes aos gravados, um dia por transação. Em caso de falha o
+     * sketch volta para os pendentes e é tentado de novo na próxima execução, e a marca
+     * não avança.
+     */
+    @Scheduled(fixedRateString = "${delivery.clientes-unicos.gravacao-ms:10000}")
+    public void gravarPendentes() {
+        gravacao.lock();
+        try {
+            long capturado = ultimoPedido.get();
+            boolean completa = true;
+            for (Chave chave : List.copyOf(pendentes.keySet())) {
+                HyperLogLog sketch = pendentes.remove(chave);
+                if (sketch == null) {
+                    continue;
+                }
+                try {
+                    escrita.executeWithoutResult(status -> gravar(chave, sketch));
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao gravar clientes únicos de {} em {}", chave.restauranteId(), chave.dia(), e);
+                    completa = false;
+                    pendentes.merge(chave, sketch, (atual, antigo) -> {
+                        synchronized (atual) {
+                            atual.unir(antigo);
+                        }
+                        return atual;
+                    });
+                }
+            }
+            if (completa) {
+                avancarMarca(marcaCandidata);
+                marcaCandidata = capturado;
+            }
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        gravarPendentes();
+    }
+
+    private void adicionar(Long pedidoId, Long restauranteId, LocalDate dia, Long clienteId) {
+        pendentes.compute(new Chave(restauranteId, dia), (chave, sketch) -> {
+            HyperLogLog atual = sketch != null ? sketch : new HyperLogLog();
+            synchronized (atual) {
+                atual.adicionar(clienteId);
+            }
+            return atual;
+        });
+        // Depois do sketch: quem lê ultimoPedido encontra o pedido nos pendentes
+        ultimoPedido.accumulateAndGet(pedidoId, Math::max);
+    }
+
+    private void avancarMarca(long pedidoId) {
+        if (pedidoId <= marcaGravada) {
+            return;
+        }
+        try {
+            escrita.executeWithoutResult(status -> marcaAgregadoRepository.avancar(MARCA, pedidoId));
+            marcaGravada = pedidoId;
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar a marca de clientes únicos ({})", pedidoId, e);
+        }
+    }
+
+    private void gravar(Chave chave, HyperLogLog sketch) {
+        ClientesUnicosDia dia = clientesUnicosDiaRepository.buscarParaAtualizar(chave.restauranteId(), chave.dia())
+                .orElseGet(() -> new ClientesUnicosDia(chave.restauranteId(), chave.dia(), null));
+        HyperLogLog uniao;
+        synchronized (sketch) {
+            uniao = sketch.copiar();
+        }
+        if (dia.getSketch() != null) {
+            uniao.unir(HyperLogLog.descomprimir(dia.getSketch()));
+        }
+        dia.setSketch(uniao.comprimir());
+        clientesUnicosDiaRepository.save(dia);
+    }
+
+    private static void unir(Map<Chave, HyperLogLog> grupos, Chave grupo, HyperLogLog sketch) {
+        grupos.merge(grupo, sketch, (atual, novo) -> {
+            atual.unir(novo);
+            return atual;
+        });
+    }
+
+    private static LocalDate fimDoGrupo(LocalDate inicioGrupo, AgrupamentoPeriodo agrupamento, LocalDate fim) {
+        return switch (agrupamento) {
+            case DIA -> inicioGrupo;
+            case SEMANA -> inicioGrupo.plusDays(6);
+            case MES -> inicioGrupo.plusMonths(1).minusDays(1);
+            case PERIODO -> fim;
+        };
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,282 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.DistribuicaoDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.DistribuicaoDia;
+import com.delivery_api.Projeto.Delivery.API.entity.MarcaAgregado;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.enums.MetricaDistribuicao;
+import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.event.PedidoCriadoEvent;
+import com.delivery_api.Projeto.Delivery.API.event.StatusPedidoAlteradoEvent;
+import com.delivery_api.Projeto.Delivery.API.projection.ValorPedido;
+import com.delivery_api.Projeto.Delivery.API.repository.DistribuicaoDiaRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.MarcaAgregadoRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+import com.delivery_api.Projeto.Delivery.API.sketch.QuantilSketch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Distribuição do valor dos pedidos e do tempo de entrega por restaurante, em sketches de
+ * quantis diários (distribuicao_dia). Cada pedido custa O(1) em memória; periodicamente os
+ * incrementos acumulados são somados ao sketch gravado. Percentis de qualquer período somam
+ * os sketches diários, sem ler pedidos.
+ *
+ * Diferente dos clientes únicos, a soma não é idempotente: incrementos ainda não gravados
+ * se perdem se a aplicação parar sem encerrar (no máximo gravacao-ms de pedidos). Pedidos
+ * cancelados saem da distribuição de valor por um incremento negativo.
+ *
+ * A carga inicial é controlada por marcas em marcas_agregado (limite e progresso, em id de
+ * pedido), não pela existência de linhas em distribuicao_dia.
+ */
+@Service
+public class DistribuicaoPedidosService {
+
+    private static final Logger log = LoggerFactory.getLogger(DistribuicaoPedidosService.class);
+
+    // Maior id de pedido existente quando a carga inicial começou, e até onde ela já foi gravada
+    private static final String MARCA_LIMITE_CARGA = "distribuicao-carga-limite";
+    private static final String MARCA_CARGA = "distribuicao-carga";
+
+    private record Chave(Long restauranteId, LocalDate dia, MetricaDistribuicao metrica) {
+    }
+
+    // Incrementos desde a última gravação
+    private final Map<Chave, QuantilSketch> pendentes = new ConcurrentHashMap<>();
+
+    @Autowired
+    private DistribuicaoDiaRepository distribuicaoDiaRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private MarcaAgregadoRepository marcaAgregadoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${delivery.distribuicao.max-dias:731}")
+    private int maxDias;
+
+    @Value("${delivery.distribuicao.max-pendentes:1000}")
+    private int maxPendentes;
+
+    /**
+     * Carga inicial do valor dos pedidos existentes, uma única vez. Roda na criação do bean,
+     * antes de o servidor aceitar requisições e de as gravações agendadas começarem, então
+     * nenhum pedido desta instância é criado ou cancelado no meio dela. Os pedidos até o limite
+     * são lidos em ordem de id e gravados em partes; cada parte grava os sketches e o progresso
+     * na mesma transação, então uma carga interrompida continua de onde parou sem somar duas
+     * vezes. O tempo de entrega não pode ser reconstruído (a data da entrega não é gravada) e
+     * começa vazio.
+     */
+    @PostConstruct
+    public void carregar() {
+        long limite = marca(MARCA_LIMITE_CARGA).orElseGet(() -> {
+            // Pedidos acima deste id chegam pelos eventos
+            long maiorId = pedidoRepository.maiorId().orElse(0L);
+            transactionTemplate.executeWithoutResult(status ->
+                    marcaAgregadoRepository.avancar(MARCA_LIMITE_CARGA, maiorId));
+            return maiorId;
+        });
+        long progresso = marca(MARCA_CARGA).orElse(0L);
+        if (progresso >= limite) {
+            return;
+        }
+
+        long inicio = System.currentTimeMillis();
+        TransactionTemplate leitura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        leitura.setReadOnly(true);
+        TransactionTemplate escrita = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        escrita.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        leitura.executeWithoutResult(status -> {
+            Map<Chave, QuantilSketch> parte = new HashMap<>();
+            long[] ultimoId = {progresso};
+            try (Stream<ValorPedido> pedidos = pedidoRepository.streamValoresEntre(progresso, limite)) {
+                pedidos.forEach(p -> {
+                    parte.computeIfAbsent(new Chave(p.getRestauranteId(), p.getDataPedido().toLocalDate(),
+                            MetricaDistribuicao.VALOR_PEDIDO), chave -> new QuantilSketch())
+                            .adicionar(p.getValorTotal().doubleValue());
+                    ultimoId[0] = p.getId();
+                    if (parte.size() >= maxPendentes) {
+                        gravarCarga(escrita, parte, ultimoId[0]);
+                    }
+                });
+            }
+            gravarCarga(escrita, parte, limite);
+        });
+        log.info("Carga inicial das distribuições até o pedido {} em {} ms", limite,
+                System.currentTimeMillis() - inicio);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPedidoCriado(PedidoCriadoEvent event) {
+        Pedido pedido = event.pedido();
+        if (pedido.getValorTotal() != null && pedido.getDataPedido() != null) {
+            adicionar(pedido.getRestaurante().getId(), pedido.getDataPedido().toLocalDate(),
+                    MetricaDistribuicao.VALOR_PEDIDO, pedido.getValorTotal().doubleValue());
+        }
+    }
+
+    // Tempo de entrega medido no commit da mudança para ENTREGUE, em segundos
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusAlterado(StatusPedidoAlteradoEvent event) {
+        Pedido pedido = event.pedido();
+        if (event.novoStatus() == StatusPedido.CANCELADO && pedido.getValorTotal() != null
+                && pedido.getDataPedido() != null) {
+            remover(pedido.getRestaurante().getId(), pedido.getDataPedido().toLocalDate(),
+                    MetricaDistribuicao.VALOR_PEDIDO, pedido.getValorTotal().doubleValue());
+        }
+        if (event.novoStatus() == StatusPedido.ENTREGUE && pedido.getDataPedido() != null) {
+            LocalDateTime agora = LocalDateTime.now();
+            adicionar(pedido.getRestaurante().getId(), agora.toLocalDate(), MetricaDistribuicao.TEMPO_ENTREGA,
+                    Duration.between(pedido.getDataPedido(), agora).getSeconds());
+        }
+    }
+
+    /**
+     * Percentis da métrica no período, de um restaurante ou de todos
+     */
+    public DistribuicaoDTO distribuicao(MetricaDistribuicao metrica, Long restauranteId, LocalDate inicio,
+                                        LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("dataFim deve ser posterior a dataInicio");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) >= maxDias) {
+            throw new IllegalArgumentException("Período máximo de " + maxDias + " dias");
+        }
+
+        QuantilSketch total = new QuantilSketch();
+        for (DistribuicaoDia dia : distribuicaoDiaRepository.buscarPorPeriodo(metrica.name(), restauranteId,
+                inicio, fim)) {
+            total.unir(QuantilSketch.descomprimir(dia.getSketch()));
+        }
+        // Incrementos ainda não gravados
+        pendentes.forEach((chave, sketch) -> {
+            if (chave.metrica() == metrica
+                    && (restauranteId == null || restauranteId.equals(chave.restauranteId()))
+                    && !chave.dia().isBefore(inicio) && !chave.dia().isAfter(fim)) {
+                synchronized (sketch) {
+                    total.unir(sketch);
+                }
+            }
+        });
+
+        return new DistribuicaoDTO(restauranteId, metrica, metrica.getUnidade(), inicio, fim, total.getTotal(),
+                converter(metrica, total.quantil(0.50)),
+                converter(metrica, total.quantil(0.90)),
+                converter(metrica, total.quantil(0.99)),
+                converter(metrica, total.getMinimo()),
+                converter(metrica, total.getMaximo()),
+                QuantilSketch.PRECISAO_RELATIVA);
+    }
+
+    /**
+     * Soma os incrementos pendentes aos sketches gravados, um dia por transação. Em caso
+     * de falha o incremento volta para os pendentes e é tentado de novo na próxima execução.
+     */
+    @Scheduled(fixedRateString = "${delivery.distribuicao.gravacao-ms:10000}")
+    public void gravarPendentes() {
+        for (Chave chave : List.copyOf(pendentes.keySet())) {
+            QuantilSketch incremento = pendentes.remove(chave);
+            if (incremento == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> gravar(chave, incremento));
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar distribuição {} de {} em {}", chave.metrica(), chave.restauranteId(),
+                        chave.dia(), e);
+                pendentes.merge(chave, incremento, (atual, antigo) -> {
+                    synchronized (atual) {
+                        atual.unir(antigo);
+                    }
+                    return atual;
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        gravarPendentes();
+    }
+
+    private void adicionar(Long restauranteId, LocalDate dia, MetricaDistribuicao metrica, double valor) {
+        alterar(new Chave(restauranteId, dia, metrica), sketch -> sketch.adicionar(valor));
+    }
+
+    private void remover(Long restauranteId, LocalDate dia, MetricaDistribuicao metrica, double valor) {
+        alterar(new Chave(restauranteId, dia, metrica), sketch -> sketch.remover(valor));
+    }
+
+    private void alterar(Chave chave, Consumer<QuantilSketch> alteracao) {
+        pendentes.compute(chave, (k, sketch) -> {
+            QuantilSketch atual = sketch != null ? sketch : new QuantilSketch();
+            synchronized (atual) {
+                alteracao.accept(atual);
+            }
+            return atual;
+        });
+    }
+
+    // Uma parte da carga inicial: sketches e progresso na mesma transação
+    private void gravarCarga(TransactionTemplate escrita, Map<Chave, QuantilSketch> parte, long ateId) {
+        escrita.executeWithoutResult(status -> {
+            parte.forEach(this::gravar);
+            marcaAgregadoRepository.avancar(MARCA_CARGA, ateId);
+        });
+        parte.clear();
+    }
+
+    private Optional<Long> marca(String agregado) {
+        return marcaAgregadoRepository.findById(agregado).map(MarcaAgregado::getPedidoId);
+    }
+
+    private void gravar(Chave chave, QuantilSketch incremento) {
+        DistribuicaoDia dia = distribuicaoDiaRepository
+                .buscarParaAtualizar(chave.restauranteId(), chave.dia(), chave.metrica().name())
+                .orElseGet(() -> new DistribuicaoDia(chave.restauranteId(), chave.dia(), chave.metrica().name(), null));
+        QuantilSketch soma = dia.getSketch() != null ? QuantilSketch.descomprimir(dia.getSketch()) : new QuantilSketch();
+        synchronized (incremento) {
+            soma.unir(incremento);
+        }
+        dia.setSketch(soma.comprimir());
+        distribuicaoDiaRepository.save(dia);
+    }
+
+    // Tempo de entrega é guardado em segundos e devolvido em minutos
+    private static BigDecimal converter(MetricaDistribuicao metrica, Double valor) {
+        if (valor == null) {
+            return null;
+        }
+        double convertido = metrica == MetricaDistribuicao.TEMPO_ENTREGA ? valor / 60 : valor;
+        return BigDecimal.valueOf(convertido).setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,380 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.delivery_api.Projeto.Delivery.API.colunar.EscritorColunar;
+import com.delivery_api.Projeto.Delivery.API.colunar.EscritorColunar.Coluna;
+import com.delivery_api.Projeto.Delivery.API.colunar.EscritorColunar.Tipo;
+import com.delivery_api.Projeto.Delivery.API.dto.response.ParticaoExportacaoDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.entity.VendaHora;
+import com.delivery_api.Projeto.Delivery.API.enums.TabelaExportacao;
+import com.delivery_api.Projeto.Delivery.API.exceptions.EntityNotFoundException;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.VendaHoraRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Exportação para o data warehouse em arquivos Arrow IPC comprimidos (ver EscritorColunar),
+ * uma partição por tabela e dia: {diretorio}/{tabela}/dia=AAAA-MM-DD/geracao-{millis}.arrow.
+ * A carga incremental só precisa baixar as partições novas ou regeradas (geradoEm).
+ *
+ * Cada exportação grava uma geração nova e nunca altera um arquivo existente, então o
+ * download pode entregar o arquivo por nome (sendfile) sem o risco de ele mudar no meio.
+ * A partição é a geração mais recente; as anteriores são apagadas depois de retencao-geracao-ms.
+ *
+ * Pedidos são lidos em streaming e gravados em grupos de linhas-por-grupo, então a memória
+ * não cresce com o dia. As exportações rodam numa única thread própria, fora das threads HTTP.
+ */
+@Service
+public class ExportacaoColunarService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacaoColunarService.class);
+
+    private static final String PREFIXO = "dia=";
+    private static final String PREFIXO_GERACAO = "geracao-";
+    private static final String EXTENSAO = ".arrow";
+
+    private static final List<Coluna> COLUNAS_PEDIDOS = List.of(
+            new Coluna("id", Tipo.INT64),
+            new Coluna("numero_pedido", Tipo.STRING),
+            new Coluna("data_pedido", Tipo.TIMESTAMP),
+            new Coluna("status", Tipo.STRING),
+            new Coluna("valor_total_centavos", Tipo.INT64),
+            new Coluna("cliente_id", Tipo.INT64),
+            new Coluna("restaurante_id", Tipo.INT64));
+
+    private static final List<Coluna> COLUNAS_VENDAS_HORA = List.of(
+            new Coluna("hora", Tipo.TIMESTAMP),
+            new Coluna("restaurante_id", Tipo.INT64),
+            new Coluna("status", Tipo.STRING),
+            new Coluna("quantidade_pedidos", Tipo.INT64),
+            new Coluna("valor_total_centavos", Tipo.INT64));
+
+    private final Set<LocalDate> emAndamento = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private VendaHoraRepository vendaHoraRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${delivery.exportacao-colunar.diretorio:${java.io.tmpdir}/delivery-warehouse}")
+    private Path diretorio;
+
+    @Value("${delivery.exportacao-colunar.linhas-por-grupo:65536}")
+    private int linhasPorGrupo;
+
+    @Value("${delivery.exportacao-colunar.dias-retroativos:7}")
+    private int diasRetroativos;
+
+    @Value("${delivery.exportacao-colunar.dias-regerados:2}")
+    private int diasRegerados;
+
+    @Value("${delivery.exportacao-colunar.max-dias:366}")
+    private int maxDias;
+
+    @Value("${delivery.exportacao-colunar.retencao-geracao-ms:600000}")
+    private long retencaoGeracaoMillis;
+
+    private TransactionTemplate leitura;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        for (TabelaExportacao tabela : TabelaExportacao.values()) {
+            Files.createDirectories(diretorio.resolve(tabela.getNome()));
+        }
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        executor = Executors.newSingleThreadExecutor(tarefa -> new Thread(tarefa, "exportacao-colunar"));
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Enfileirar a exportação dos dias do intervalo. Sem substituir, dias já exportados são
+     * mantidos. Retorna os dias enfileirados.
+     */
+    public List<LocalDate> agendar(LocalDate inicio, LocalDate fim, boolean substituir) {
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("dataFim deve ser posterior a dataInicio");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) >= maxDias) {
+            throw new IllegalArgumentException("Período máximo de " + maxDias + " dias");
+        }
+
+        List<LocalDate> agendados = new ArrayList<>();
+        for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            if ((substituir || !exportado(dia)) && emAndamento.add(dia)) {
+                LocalDate exportar = dia;
+                executor.execute(() -> {
+                    try {
+                        exportarDia(exportar);
+                    } finally {
+                        emAndamento.remove(exportar);
+                    }
+                });
+                agendados.add(dia);
+            }
+        }
+        return agendados;
+    }
+
+    /**
+     * Carga noturna: dias fechados ainda não exportados na janela de dias-retroativos, e os
+     * últimos dias-regerados sempre, pois pedidos recentes ainda mudam de status
+     */
+    @Scheduled(cron = "${delivery.exportacao-colunar.cron:0 30 2 * * *}")
+    public void exportarNoturno() {
+        LocalDate ontem = LocalDate.now().minusDays(1);
+        agendar(ontem.minusDays(diasRegerados - 1L), ontem, true);
+        agendar(ontem.minusDays(diasRetroativos - 1L), ontem, false);
+        executor.execute(this::limparGeracoes);
+    }
+
+    /**
+     * Partições da tabela, a partir de um dia (inclusive)
+     */
+    public List<ParticaoExportacaoDTO> listar(TabelaExportacao tabela, LocalDate desde) {
+        List<ParticaoExportacaoDTO> particoes = new ArrayList<>();
+        try (DirectoryStream<Path> dias = Files.newDirectoryStream(diretorio.resolve(tabela.getNome()), PREFIXO + "*")) {
+            for (Path particao : dias) {
+                LocalDate dia = dia(particao);
+                Path arquivo = dia != null && (desde == null || !dia.isBefore(desde)) ? geracaoAtual(particao) : null;
+                if (arquivo != null) {
+                    particoes.add(new ParticaoExportacaoDTO(tabela.getNome(), dia, Files.size(arquivo),
+                            LocalDateTime.ofInstant(Instant.ofEpochMilli(geracao(arquivo)), ZoneId.systemDefault()),
+                            "/api/exportacoes/colunar/" + tabela.getNome() + "/" + dia));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao listar partições", e);
+        }
+        particoes.sort(Comparator.comparing(ParticaoExportacaoDTO::getDia));
+        return particoes;
+    }
+
+    /**
+     * Arquivo da geração atual da partição, para download. Não muda depois de gravado.
+     */
+    public Path arquivo(TabelaExportacao tabela, LocalDate dia) {
+        Path arquivo;
+        try {
+            arquivo = geracaoAtual(particao(tabela, dia));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler partição", e);
+        }
+        if (arquivo == null) {
+            throw new EntityNotFoundException("Partição não encontrada: " + tabela.getNome() + " " + dia);
+        }
+        return arquivo;
+    }
+
+    private void exportarDia(LocalDate dia) {
+        try {
+            long pedidos = exportar(TabelaExportacao.PEDIDOS, dia, this::escreverPedidos);
+            long vendas = exportar(TabelaExportacao.VENDAS_HORA, dia, this::escreverVendasHora);
+            log.info("Exportação colunar de {}: {} pedidos, {} baldes de vendas", dia, pedidos, vendas);
+        } catch (RuntimeException e) {
+            log.warn("Falha na exportação colunar de {}", dia, e);
+        }
+    }
+
+    private interface Escrita {
+        long escrever(LocalDate dia, OutputStream out) throws IOException;
+    }
+
+    // Grava num arquivo temporário e renomeia para uma geração nova: quem baixa nunca vê uma
+    // partição pela metade, e um arquivo já listado ou em download nunca é sobrescrito
+    private long exportar(TabelaExportacao tabela, LocalDate dia, Escrita escrita) {
+        Path particao = particao(tabela, dia);
+        Path destino;
+        try {
+            Files.createDirectories(particao);
+            Path atual = geracaoAtual(particao);
+            long geracao = Math.max(System.currentTimeMillis(), atual != null ? geracao(atual) + 1 : 0);
+            destino = particao.resolve(PREFIXO_GERACAO + geracao + EXTENSAO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Path parcial = destino.resolveSibling(destino.getFileName() + ".parcial");
+        try {
+            Long linhas = leitura.execute(status -> {
+                try (OutputStream out = Files.newOutputStream(parcial)) {
+                    return escrita.escrever(dia, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            Files.move(parcial, destino, StandardCopyOption.ATOMIC_MOVE);
+            limparGeracoes(particao);
+            return linhas != null ? linhas : 0;
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(parcial);
+            } catch (IOException ignorada) {
+                e.addSuppressed(ignorada);
+            }
+            throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+        }
+    }
+
+    private long escreverPedidos(LocalDate dia, OutputStream out) throws IOException {
+        try (EscritorColunar escritor = new EscritorColunar(out, COLUNAS_PEDIDOS, linhasPorGrupo);
+             Stream<Pedido> pedidos = pedidoRepository.streamPorPeriodo(dia.atStartOfDay(), dia.atTime(LocalTime.MAX))) {
+            for (Pedido pedido : (Iterable<Pedido>) pedidos::iterator) {
+                escritor.escrever(
+                        pedido.getId(),
+                        pedido.getNumeroPedido(),
+                        pedido.getDataPedido(),
+                        pedido.getStatus(),
+                        pedido.getValorTotal() != null ? pedido.getValorTotal().movePointRight(2).longValue() : null,
+                        pedido.getClienteId(),
+                        pedido.getRestaurante() != null ? pedido.getRestaurante().getId() : null);
+                entityManager.detach(pedido);
+            }
+            return escritor.getLinhas();
+        }
+    }
+
+    private long escreverVendasHora(LocalDate dia, OutputStream out) throws IOException {
+        try (EscritorColunar escritor = new EscritorColunar(out, COLUNAS_VENDAS_HORA, linhasPorGrupo)) {
+            for (VendaHora venda : vendaHoraRepository.buscarPorPeriodo(dia.atStartOfDay(),
+                    dia.plusDays(1).atStartOfDay())) {
+                escritor.escrever(
+                        venda.getHora(),
+                        venda.getRestauranteId(),
+                        venda.getStatus(),
+                        venda.getQuantidadePedidos(),
+                        venda.getValorTotal().movePointRight(2).longValue());
+            }
+            return escritor.getLinhas();
+        }
+    }
+
+    private boolean exportado(LocalDate dia) {
+        try {
+            for (TabelaExportacao tabela : TabelaExportacao.values()) {
+                if (geracaoAtual(particao(tabela, dia)) == null) {
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler partição", e);
+        }
+        return true;
+    }
+
+    // Todas as partições: dias que não são regerados também acumulam gerações de exportações manuais
+    private void limparGeracoes() {
+        for (TabelaExportacao tabela : TabelaExportacao.values()) {
+            try (DirectoryStream<Path> dias = Files.newDirectoryStream(diretorio.resolve(tabela.getNome()), PREFIXO + "*")) {
+                dias.forEach(this::limparGeracoes);
+            } catch (IOException e) {
+                log.warn("Falha ao limpar gerações de {}", tabela.getNome(), e);
+            }
+        }
+    }
+
+    // A geração k deixou de ser a atual quando k+1 foi criada. Passada a retenção, nenhum
+    // download que a resolveu antes disso ainda está para abri-la.
+    private void limparGeracoes(Path particao) {
+        try {
+            List<Path> geracoes = geracoes(particao);
+            long agora = System.currentTimeMillis();
+            for (int i = 0; i < geracoes.size() - 1; i++) {
+                if (agora - geracao(geracoes.get(i + 1)) > retencaoGeracaoMillis) {
+                    Files.deleteIfExists(geracoes.get(i));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao limpar gerações de {}", particao, e);
+        }
+    }
+
+    private Path geracaoAtual(Path particao) throws IOException {
+        List<Path> geracoes = geracoes(particao);
+        return geracoes.isEmpty() ? null : geracoes.get(geracoes.size() - 1);
+    }
+
+    // Em ordem de criação; ignora arquivos .parcial de exportações em andamento
+    private static List<Path> geracoes(Path particao) throws IOException {
+        if (!Files.isDirectory(particao)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(particao)) {
+            return arquivos.filter(arquivo -> geracao(arquivo) >= 0)
+                    .sorted(Comparator.comparingLong(ExportacaoColunarService::geracao))
+                    .toList();
+        }
+    }
+
+    private Path particao(TabelaExportacao tabela, LocalDate dia) {
+        return diretorio.resolve(tabela.getNome()).resolve(PREFIXO + dia);
+    }
+
+    private static LocalDate dia(Path particao) {
+        try {
+            return LocalDate.parse(particao.getFileName().toString().substring(PREFIXO.length()));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Milissegundos de criação da geração, ou -1 se o arquivo não é uma geração
+    private static long geracao(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        if (!nome.startsWith(PREFIXO_GERACAO) || !nome.endsWith(EXTENSAO)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(nome.substring(PREFIXO_GERACAO.length(), nome.length() - EXTENSAO.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
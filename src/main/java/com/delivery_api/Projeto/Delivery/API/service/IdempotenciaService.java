@@ -0,0 +1,209 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.delivery_api.Projeto.Delivery.API.entity.ChaveIdempotencia;
+import com.delivery_api.Projeto.Delivery.API.repository.ChaveIdempotenciaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Registro de Idempotency-Keys. As respostas ficam num mapa em memória limitado por
+ * tamanho e TTL; a tabela idempotencia_chaves garante a deduplicação entre instâncias
+ * e após reinícios.
+ *
+ * Uma chave em andamento vale só por ttl-pendente: se a instância cair antes de concluir
+ * ou liberar, a chave volta a aceitar a requisição quando esse prazo vence, em vez de
+ * ficar bloqueada pelo TTL inteiro. Se o pedido foi processado mas a resposta não pôde ser
+ * gravada, o resultado é desconhecido: a chave fica em andamento pelo TTL inteiro, para que
+ * uma nova tentativa não crie o pedido de novo.
+ */
+@Service
+public class IdempotenciaService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    public enum Situacao {
+        /** Primeira vez que a chave é vista: a requisição deve ser processada */
+        NOVA,
+        /** Já existe resposta gravada: deve ser devolvida sem reprocessar */
+        REPETIDA,
+        /** A requisição original ainda está em andamento */
+        EM_ANDAMENTO,
+        /** Chave reutilizada com um corpo de requisição diferente */
+        CORPO_DIFERENTE
+    }
+
+    public record RespostaArmazenada(int status, String contentType, byte[] corpo) {
+    }
+
+    public record Reserva(Situacao situacao, RespostaArmazenada resposta) {
+        static Reserva de(Situacao situacao) {
+            return new Reserva(situacao, null);
+        }
+    }
+
+    private record Entrada(String hash, RespostaArmazenada resposta, LocalDateTime expiraEm) {
+        boolean expirada(LocalDateTime agora) {
+            return expiraEm.isBefore(agora);
+        }
+    }
+
+    // Ordem de acesso: ao passar do limite sai a chave usada há mais tempo. Chaves
+    // descartadas da memória continuam protegidas pela tabela. Acesso sempre sob o lock do mapa.
+    private final Map<String, Entrada> memoria = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+            return size() > maxEntradas;
+        }
+    };
+
+    @Autowired
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    @Value("${delivery.idempotencia.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${delivery.idempotencia.ttl-pendente:2m}")
+    private Duration ttlPendente;
+
+    @Value("${delivery.idempotencia.max-entradas:10000}")
+    private int maxEntradas;
+
+    /**
+     * Reservar a chave para processamento ou devolver a resposta já gravada
+     */
+    public Reserva reservar(String chave, String hashRequisicao) {
+        LocalDateTime agora = LocalDateTime.now();
+
+        Entrada pendente = new Entrada(hashRequisicao, null, agora.plus(ttlPendente));
+        synchronized (memoria) {
+            Entrada existente = memoria.get(chave);
+            if (existente != null && !existente.expirada(agora)) {
+                return avaliar(existente, hashRequisicao);
+            }
+            memoria.put(chave, pendente);
+        }
+
+        // Fallback no banco: outra instância (ou execução anterior) pode já ter visto a chave
+        Optional<ChaveIdempotencia> gravada = chaveIdempotenciaRepository.findById(chave);
+        if (gravada.isPresent() && gravada.get().getExpiraEm().isBefore(agora)) {
+            // Resposta vencida ou reserva abandonada: apagar para que o INSERT abaixo dispute
+            // a chave com as outras instâncias
+            chaveIdempotenciaRepository.removerSeExpirada(chave, agora);
+            gravada = Optional.empty();
+        }
+        if (gravada.isPresent()) {
+            ChaveIdempotencia registro = gravada.get();
+            if (registro.isConcluida()) {
+                Entrada concluida = new Entrada(registro.getHashRequisicao(), new RespostaArmazenada(
+                        registro.getStatusHttp(), registro.getContentType(),
+                        registro.getCorpo() != null ? registro.getCorpo().getBytes(StandardCharsets.UTF_8) : new byte[0]),
+                        registro.getExpiraEm());
+                guardar(chave, concluida);
+                return avaliar(concluida, hashRequisicao);
+            }
+            remover(chave, pendente);
+            return Reserva.de(registro.getHashRequisicao().equals(hashRequisicao)
+                    ? Situacao.EM_ANDAMENTO : Situacao.CORPO_DIFERENTE);
+        }
+
+        try {
+            chaveIdempotenciaRepository.saveAndFlush(
+                    new ChaveIdempotencia(chave, hashRequisicao, null, null, null, agora, pendente.expiraEm()));
+        } catch (DataIntegrityViolationException e) {
+            // Outra instância inseriu a mesma chave entre a consulta e o INSERT
+            remover(chave, pendente);
+            return Reserva.de(Situacao.EM_ANDAMENTO);
+        }
+        return Reserva.de(Situacao.NOVA);
+    }
+
+    /**
+     * Gravar a resposta da requisição original
+     */
+    public void concluir(String chave, String hashRequisicao, int status, String contentType, byte[] corpo) {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime expiraEm = agora.plus(ttl);
+        RespostaArmazenada resposta = new RespostaArmazenada(status, contentType, corpo);
+
+        guardar(chave, new Entrada(hashRequisicao, resposta, expiraEm));
+        chaveIdempotenciaRepository.save(new ChaveIdempotencia(chave, hashRequisicao, status, contentType,
+                new String(corpo, StandardCharsets.UTF_8), agora, expiraEm));
+    }
+
+    /**
+     * Manter a chave em andamento pelo TTL inteiro quando a requisição foi processada mas
+     * concluir falhou: o pedido pode existir, então a chave não pode ser liberada
+     */
+    public void manterPendente(String chave, String hashRequisicao) {
+        LocalDateTime expiraEm = LocalDateTime.now().plus(ttl);
+        synchronized (memoria) {
+            // concluir pode ter gravado a resposta na memória antes de falhar no banco
+            Entrada atual = memoria.get(chave);
+            if (atual == null || atual.resposta() == null) {
+                memoria.put(chave, new Entrada(hashRequisicao, null, expiraEm));
+            }
+        }
+        try {
+            chaveIdempotenciaRepository.prorrogar(chave, expiraEm);
+        } catch (RuntimeException e) {
+            // Sem banco, a proteção entre instâncias cai para ttl-pendente
+            log.warn("Falha ao prorrogar a Idempotency-Key {} com resultado desconhecido", chave, e);
+        }
+    }
+
+    /**
+     * Liberar a chave quando a requisição original falha, permitindo nova tentativa
+     */
+    public void liberar(String chave) {
+        synchronized (memoria) {
+            memoria.remove(chave);
+        }
+        chaveIdempotenciaRepository.deleteById(chave);
+    }
+
+    /**
+     * Remover chaves expiradas da memória e do banco
+     */
+    @Scheduled(fixedRateString = "${delivery.idempotencia.limpeza-ms:600000}")
+    public void removerExpiradas() {
+        LocalDateTime agora = LocalDateTime.now();
+        synchronized (memoria) {
+            memoria.values().removeIf(entrada -> entrada.expirada(agora));
+        }
+        chaveIdempotenciaRepository.removerExpiradas(agora);
+    }
+
+    private Reserva avaliar(Entrada entrada, String hashRequisicao) {
+        if (!entrada.hash().equals(hashRequisicao)) {
+            return Reserva.de(Situacao.CORPO_DIFERENTE);
+        }
+        if (entrada.resposta() == null) {
+            return Reserva.de(Situacao.EM_ANDAMENTO);
+        }
+        return new Reserva(Situacao.REPETIDA, entrada.resposta());
+    }
+
+    private void guardar(String chave, Entrada entrada) {
+        synchronized (memoria) {
+            memoria.put(chave, entrada);
+        }
+    }
+
+    private void remover(String chave, Entrada entrada) {
+        synchronized (memoria) {
+            memoria.remove(chave, entrada);
+        }
+    }
+}
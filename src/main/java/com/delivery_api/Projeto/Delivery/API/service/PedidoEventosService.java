@@ -0,0 +1,272 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.PedidoEventoDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.event.PedidoCriadoEvent;
+import com.delivery_api.Projeto.Delivery.API.event.StatusPedidoAlteradoEvent;
+import com.delivery_api.Projeto.Delivery.API.exceptions.SobrecargaException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Publicador em memória dos eventos de pedido para assinantes SSE.
+ * Cada assinante tem uma fila limitada e um thread virtual próprio que a drena: publicar
+ * só enfileira e nunca espera o socket. Quem não consome no ritmo dos eventos (fila cheia),
+ * não conclui um envio dentro do timeout de envio ou não responde ao heartbeat é desconectado.
+ */
+@Service
+public class PedidoEventosService {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoEventosService.class);
+
+    // Evento imutável, compartilhado entre assinantes. O SseEventBuilder é mutável e não
+    // é thread-safe, então cada assinante monta o seu no momento do envio.
+    private record Evento(String nome, String id, Object dados, String comentario, Long versao) {
+        SseEmitter.SseEventBuilder paraSse() {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (comentario != null) {
+                return builder.comment(comentario);
+            }
+            return builder.name(nome).id(id).data(dados);
+        }
+    }
+
+    private static final Evento HEARTBEAT = new Evento(null, null, null, "heartbeat", null);
+
+    private final Map<Long, Set<Assinante>> assinantesPorPedido = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Assinante>> assinantesPorRestaurante = new ConcurrentHashMap<>();
+    private final AtomicInteger totalAssinantes = new AtomicInteger();
+
+    private final int capacidadeFila;
+    private final int maxAssinantes;
+    private final long timeoutMillis;
+    private final long timeoutEnvioMillis;
+    // Um thread virtual por assinante, parado em take() enquanto não há evento: um cliente
+    // lento prende só o seu, e o heartbeat desconecta quem passa de timeout-envio-ms num envio
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PedidoEventosService(
+            @Value("${delivery.sse.capacidade-fila:32}") int capacidadeFila,
+            @Value("${delivery.sse.max-assinantes:10000}") int maxAssinantes,
+            @Value("${delivery.sse.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${delivery.sse.timeout-envio-ms:5000}") long timeoutEnvioMillis) {
+        this.capacidadeFila = capacidadeFila;
+        this.maxAssinantes = maxAssinantes;
+        this.timeoutMillis = timeoutMillis;
+        this.timeoutEnvioMillis = timeoutEnvioMillis;
+    }
+
+    /**
+     * Assinar os eventos de um pedido. O status atual é enviado logo na conexão.
+     *
+     * O assinante é registrado antes de buscar o pedido: uma mudança de status que commitar
+     * entre a leitura e o registro não se perde. Se o snapshot sair depois de um evento mais
+     * novo, ele é descartado pela versão.
+     */
+    public SseEmitter assinarPedido(Long pedidoId, Function<Long, Pedido> buscarPedido) {
+        Assinante assinante = registrar(assinantesPorPedido, pedidoId);
+        Pedido pedido;
+        try {
+            pedido = buscarPedido.apply(pedidoId);
+        } catch (RuntimeException e) {
+            assinante.remover();
+            throw e;
+        }
+        assinante.enviar(evento("snapshot", pedido));
+        return assinante.emitter;
+    }
+
+    /**
+     * Assinar o feed de pedidos de um restaurante (novos pedidos e mudanças de status).
+     */
+    public SseEmitter assinarRestaurante(Long restauranteId) {
+        return registrar(assinantesPorRestaurante, restauranteId).emitter;
+    }
+
+    public int getTotalAssinantes() {
+        return totalAssinantes.get();
+    }
+
+    // Após o commit: assinantes nunca recebem um pedido que sofreu rollback
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPedidoCriado(PedidoCriadoEvent event) {
+        Pedido pedido = event.pedido();
+        publicar(assinantesPorRestaurante, pedido.getRestaurante().getId(), evento("pedido-criado", pedido));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusAlterado(StatusPedidoAlteradoEvent event) {
+        Pedido pedido = event.pedido();
+        Evento evento = evento("status-alterado", pedido);
+        publicar(assinantesPorPedido, pedido.getId(), evento);
+        publicar(assinantesPorRestaurante, pedido.getRestaurante().getId(), evento);
+    }
+
+    /**
+     * Heartbeat periódico: mantém a conexão aberta em proxies e detecta clientes desconectados.
+     */
+    @Scheduled(fixedRateString = "${delivery.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        todosAssinantes().forEach(assinante -> {
+            if (assinante.envioAtrasado()) {
+                log.debug("Assinante SSE sem concluir envio em {} ms desconectado (chave {})",
+                        timeoutEnvioMillis, assinante.chave);
+                assinante.desconectar(new TimeoutException("Envio SSE parado há mais de " + timeoutEnvioMillis + " ms"));
+            } else {
+                assinante.enviar(HEARTBEAT);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        envios.shutdownNow();
+    }
+
+    private Assinante registrar(Map<Long, Set<Assinante>> indice, Long chave) {
+        if (totalAssinantes.incrementAndGet() > maxAssinantes) {
+            totalAssinantes.decrementAndGet();
+            throw new SobrecargaException("Limite de conexões de eventos atingido");
+        }
+
+        Assinante assinante = new Assinante(new SseEmitter(timeoutMillis), indice, chave);
+        indice.computeIfAbsent(chave, k -> ConcurrentHashMap.newKeySet()).add(assinante);
+
+        assinante.emitter.onCompletion(assinante::remover);
+        assinante.emitter.onTimeout(assinante::remover);
+        assinante.emitter.onError(erro -> assinante.remover());
+        envios.execute(assinante::drenar);
+        return assinante;
+    }
+
+    private Stream<Assinante> todosAssinantes() {
+        return Stream.concat(assinantesPorPedido.values().stream(), assinantesPorRestaurante.values().stream())
+                .flatMap(Set::stream);
+    }
+
+    private void publicar(Map<Long, Set<Assinante>> indice, Long chave, Evento evento) {
+        Set<Assinante> assinantes = indice.get(chave);
+        if (assinantes != null) {
+            assinantes.forEach(assinante -> assinante.enviar(evento));
+        }
+    }
+
+    private Evento evento(String tipo, Pedido pedido) {
+        PedidoEventoDTO dto = new PedidoEventoDTO(
+                tipo,
+                pedido.getId(),
+                pedido.getRestaurante() != null ? pedido.getRestaurante().getId() : null,
+                pedido.getStatus(),
+                pedido.getValorTotal(),
+                pedido.getDataPedido(),
+                LocalDateTime.now(),
+                pedido.getVersao());
+        return new Evento(tipo, String.valueOf(pedido.getId()), dto, null, pedido.getVersao());
+    }
+
+    private final class Assinante {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Evento> fila = new ArrayBlockingQueue<>(capacidadeFila);
+        private final AtomicBoolean ativo = new AtomicBoolean(true);
+        private final Map<Long, Set<Assinante>> indice;
+        private final Long chave;
+        // Início do envio em andamento (System.nanoTime), lido pelo heartbeat
+        private volatile boolean enviando;
+        private volatile long inicioEnvio;
+        private volatile Thread drenador;
+
+        private Assinante(SseEmitter emitter, Map<Long, Set<Assinante>> indice, Long chave) {
+            this.emitter = emitter;
+            this.indice = indice;
+            this.chave = chave;
+        }
+
+        void enviar(Evento evento) {
+            if (!ativo.get()) {
+                return;
+            }
+            if (!fila.offer(evento)) {
+                log.debug("Assinante SSE lento desconectado (chave {})", chave);
+                remover();
+                // complete() espera o lock do emitter, que um envio parado pode estar segurando
+                envios.execute(emitter::complete);
+            }
+        }
+
+        boolean envioAtrasado() {
+            return enviando && System.nanoTime() - inicioEnvio > TimeUnit.MILLISECONDS.toNanos(timeoutEnvioMillis);
+        }
+
+        // Roda no thread virtual do assinante até ele ser removido
+        void drenar() {
+            drenador = Thread.currentThread();
+            // Só assinantes de um pedido: no feed do restaurante, versões de pedidos diferentes não se comparam
+            boolean descartarAntigos = indice == assinantesPorPedido;
+            long ultimaVersao = Long.MIN_VALUE;
+            try {
+                while (ativo.get()) {
+                    Evento evento = fila.take();
+                    if (descartarAntigos && evento.versao() != null) {
+                        if (evento.versao() < ultimaVersao) {
+                            continue;
+                        }
+                        ultimaVersao = evento.versao();
+                    }
+                    inicioEnvio = System.nanoTime();
+                    enviando = true;
+                    try {
+                        emitter.send(evento.paraSse());
+                    } finally {
+                        enviando = false;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // remover() interrompe o drenador
+            } catch (Exception e) {
+                desconectar(e);
+            }
+        }
+
+        void desconectar(Throwable motivo) {
+            remover();
+            envios.execute(() -> emitter.completeWithError(motivo));
+        }
+
+        void remover() {
+            if (ativo.compareAndSet(true, false)) {
+                fila.clear();
+                totalAssinantes.decrementAndGet();
+                indice.computeIfPresent(chave, (k, assinantes) -> {
+                    assinantes.remove(this);
+                    return assinantes.isEmpty() ? null : assinantes;
+                });
+                Thread thread = drenador;
+                if (thread != null && thread != Thread.currentThread()) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.PedidoResponseDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.enums.FormatoExportacao;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class PedidoExportacaoService {
+
+    // Mesmo valor do fetch size da consulta: descarrega a saída a cada lote lido
+    private static final int LINHAS_POR_FLUSH = 500;
+
+    private static final String CABECALHO_CSV =
+            "id,numeroPedido,dataPedido,status,valorTotal,clienteId,restauranteId,observacoes\n";
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Exportar pedidos do período escrevendo linha a linha na saída (apenas o cabeçalho
+     * do pedido; os itens ficam fora para não gerar uma consulta por linha).
+     * Cada pedido é desanexado após ser escrito, então o heap não cresce com o período.
+     */
+    @Transactional(readOnly = true)
+    public long exportar(LocalDateTime inicio, LocalDateTime fim, FormatoExportacao formato, OutputStream destino) {
+        return exportar(inicio, fim, formato, destino, linhas -> { });
+    }
+
+    /**
+     * Exportar informando a quantidade de linhas já escritas a cada descarga da saída
+     */
+    @Transactional(readOnly = true)
+    public long exportar(LocalDateTime inicio, LocalDateTime fim, FormatoExportacao formato, OutputStream destino,
+                         LongConsumer progresso) {
+        OutputStream out = new BufferedOutputStream(destino, 64 * 1024);
+        long linhas = 0;
+
+        try (Stream<Pedido> pedidos = pedidoRepository.streamPorPeriodo(inicio, fim)) {
+            if (formato == FormatoExportacao.CSV) {
+                out.write(CABECALHO_CSV.getBytes(StandardCharsets.UTF_8));
+            }
+
+            Iterator<Pedido> iterator = pedidos.iterator();
+            while (iterator.hasNext()) {
+                Pedido pedido = iterator.next();
+                if (formato == FormatoExportacao.CSV) {
+                    out.write(toCsv(pedido).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(objectMapper.writeValueAsBytes(toResponseDTO(pedido)));
+                    out.write('\n');
+                }
+                entityManager.detach(pedido);
+
+                if (++linhas % LINHAS_POR_FLUSH == 0) {
+                    out.flush();
+                    progresso.accept(linhas);
+                }
+            }
+            out.flush();
+            progresso.accept(linhas);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao escrever exportação de pedidos", e);
+        }
+        return linhas;
+    }
+
+    private PedidoResponseDTO toResponseDTO(Pedido pedido) {
+        PedidoResponseDTO dto = new PedidoResponseDTO();
+        dto.setId(pedido.getId());
+        dto.setNumeroPedido(pedido.getNumeroPedido());
+        dto.setDataPedido(pedido.getDataPedido());
+        dto.setStatus(pedido.getStatus());
+        dto.setValorTotal(pedido.getValorTotal());
+        dto.setObservacoes(pedido.getObservacoes());
+        dto.setClienteId(pedido.getClienteId());
+        dto.setRestauranteId(pedido.getRestaurante() != null ? pedido.getRestaurante().getId() : null);
+        return dto;
+    }
+
+    private String toCsv(Pedido pedido) {
+        return pedido.getId() + ","
+                + csv(pedido.getNumeroPedido()) + ","
+                + (pedido.getDataPedido() != null ? pedido.getDataPedido() : "") + ","
+                + csv(pedido.getStatus()) + ","
+                + (pedido.getValorTotal() != null ? pedido.getValorTotal().toPlainString() : "") + ","
+                + (pedido.getClienteId() != null ? pedido.getClienteId() : "") + ","
+                + (pedido.getRestaurante() != null ? pedido.getRestaurante().getId() : "") + ","
+                + csv(pedido.getObservacoes()) + "\n";
+    }
+
+    private String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(",") || valor.contains("\"") || valor.contains("\n") || valor.contains("\r")) {
+            return "\"" + valor.replace("\"", "\"\"") + "\"";
+        }
+        return valor;
+    }
+}
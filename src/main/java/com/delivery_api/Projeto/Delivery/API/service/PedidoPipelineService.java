@@ -0,0 +1,191 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.delivery_api.Projeto.Delivery.API.dto.request.PedidoRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.exceptions.SobrecargaException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pipeline de gravação de pedidos (group commit). As requisições entram numa fila
+ * circular limitada e poucos escritores gravam vários pedidos por transação, então o
+ * número de conexões usadas deixa de crescer com o número de requisições simultâneas.
+ * Fila cheia gera 429 em vez de acumular requisições esperando conexão.
+ *
+ * Se a transação do lote falha no banco, o lote é regravado pedido a pedido, e só o
+ * pedido problemático recebe o erro. Quem aguarda espera no máximo timeout-ms.
+ */
+@Service
+@ConditionalOnProperty(name = "delivery.pedidos.pipeline.habilitado", havingValue = "true")
+public class PedidoPipelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoPipelineService.class);
+
+    private record Solicitacao(PedidoRequestDTO dto, CompletableFuture<Pedido> resultado) {
+    }
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Value("${delivery.pedidos.pipeline.capacidade-fila:10000}")
+    private int capacidadeFila;
+
+    @Value("${delivery.pedidos.pipeline.tamanho-lote:100}")
+    private int tamanhoLote;
+
+    @Value("${delivery.pedidos.pipeline.escritores:2}")
+    private int escritores;
+
+    @Value("${delivery.pedidos.pipeline.espera-lote-ms:5}")
+    private long esperaLoteMillis;
+
+    @Value("${delivery.pedidos.pipeline.timeout-ms:30000}")
+    private long timeoutMillis;
+
+    private BlockingQueue<Solicitacao> fila;
+    private ExecutorService executor;
+    private volatile boolean ativo = true;
+
+    @PostConstruct
+    public void iniciar() {
+        fila = new ArrayBlockingQueue<>(capacidadeFila);
+        AtomicInteger sequencia = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(escritores,
+                tarefa -> new Thread(tarefa, "pedido-escritor-" + sequencia.incrementAndGet()));
+        for (int i = 0; i < escritores; i++) {
+            executor.execute(this::escrever);
+        }
+    }
+
+    /**
+     * Enfileirar o pedido e aguardar o commit do lote em que ele foi gravado
+     */
+    public Pedido criarPedido(PedidoRequestDTO dto) {
+        Solicitacao solicitacao = new Solicitacao(dto, new CompletableFuture<>());
+        if (!ativo || !fila.offer(solicitacao)) {
+            throw new SobrecargaException("Fila de gravação de pedidos cheia");
+        }
+
+        try {
+            return solicitacao.resultado().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (fila.remove(solicitacao)) {
+                // Ainda não tinha sido coletado: com certeza não foi gravado
+                throw new SobrecargaException("Tempo esgotado aguardando a fila de gravação de pedidos");
+            }
+            throw new IllegalStateException(
+                    "Gravação do pedido não confirmada em " + timeoutMillis + " ms; consulte o pedido antes de repetir");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando gravação do pedido", e);
+        } catch (ExecutionException e) {
+            // Repassa a exceção original para o GlobalExceptionHandler (400, 404, 500...)
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getPendentes() {
+        return fila.size();
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        ativo = false;
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        Solicitacao pendente;
+        while ((pendente = fila.poll()) != null) {
+            pendente.resultado().completeExceptionally(new SobrecargaException("Aplicação encerrando"));
+        }
+    }
+
+    private void escrever() {
+        List<Solicitacao> lote = new ArrayList<>(tamanhoLote);
+        while (ativo) {
+            try {
+                coletar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lote.forEach(s -> s.resultado().completeExceptionally(new SobrecargaException("Aplicação encerrando")));
+                return;
+            }
+            try {
+                gravar(lote);
+            } catch (Throwable e) {
+                // Error (p.ex. OutOfMemoryError) não pode deixar quem aguarda sem resposta
+                log.error("Escritor de pedidos falhou gravando lote de {} pedidos", lote.size(), e);
+                lote.forEach(s -> s.resultado().completeExceptionally(e));
+            }
+            lote.clear();
+        }
+    }
+
+    /**
+     * Bloqueia até haver ao menos um pedido e espera até espera-lote-ms por mais,
+     * para que lotes pequenos em baixa carga não atrasem as respostas.
+     */
+    private void coletar(List<Solicitacao> lote) throws InterruptedException {
+        lote.add(fila.take());
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaLoteMillis);
+        while (lote.size() < tamanhoLote) {
+            fila.drainTo(lote, tamanhoLote - lote.size());
+            long restante = limite - System.nanoTime();
+            if (lote.size() >= tamanhoLote || restante <= 0) {
+                return;
+            }
+            Solicitacao proxima = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proxima == null) {
+                return;
+            }
+            lote.add(proxima);
+        }
+    }
+
+    private void gravar(List<Solicitacao> lote) {
+        List<PedidoService.PedidoGravado> gravados;
+        try {
+            gravados = pedidoService.gravarLote(lote.stream().map(Solicitacao::dto).toList());
+        } catch (RuntimeException e) {
+            if (lote.size() == 1) {
+                lote.get(0).resultado().completeExceptionally(e);
+                return;
+            }
+            // Rollback do lote inteiro, nenhum pedido gravado: regrava um a um para que só
+            // o pedido problemático falhe
+            log.warn("Falha ao gravar lote de {} pedidos; regravando um a um", lote.size(), e);
+            lote.forEach(s -> gravar(List.of(s)));
+            return;
+        }
+
+        for (int i = 0; i < lote.size(); i++) {
+            PedidoService.PedidoGravado gravado = gravados.get(i);
+            if (gravado.pedido() != null) {
+                lote.get(i).resultado().complete(gravado.pedido());
+            } else {
+                lote.get(i).resultado().completeExceptionally(new IllegalArgumentException(gravado.erro()));
+            }
+        }
+    }
+}
@@ -1,18 +1,46 @@
 package com.delivery_api.Projeto.Delivery.API.service;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import com.delivery_api.Projeto.Delivery.API.dto.request.ItemPedidoRequestDTO;
 import com.delivery_api.Projeto.Delivery.API.dto.request.PedidoRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.request.RestauranteRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.PageCursor;
+import com.delivery_api.Projeto.Delivery.API.dto.response.ResultadoLotePedidoDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.delivery_api.Projeto.Delivery.API.entity.Cliente;
 import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
-import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.entity.PedidoItem;
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
 import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.event.PedidoCriadoEvent;
+import com.delivery_api.Projeto.Delivery.API.event.StatusPedidoAlteradoEvent;
+import com.delivery_api.Projeto.Delivery.API.exceptions.ConflitoStatusException;
+import com.delivery_api.Projeto.Delivery.API.exceptions.EntityNotFoundException;
 import com.delivery_api.Projeto.Delivery.API.repository.ClienteRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoLoteRepository;
 import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
 import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
 import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
@@ -29,19 +57,140 @@ public class PedidoService {
     @Autowired
     private RestauranteRepository restauranteRepository;
 
+    @Autowired
+    private RestauranteCacheService restauranteCacheService;
+
     @Autowired
     private ProdutoRepository produtoRepository;
 
+    @Autowired
+    private TaxaEntregaService taxaEntregaService;
+
+    @Autowired
+    private PedidoLoteRepository pedidoLoteRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${delivery.pedidos.lote.tamanho-maximo:500}")
+    private int tamanhoMaximoLote;
+
     /**
      * Criar novo pedido
      */
+    @Transactional
     public Pedido criarPedido(PedidoRequestDTO dto) {
         Cliente cliente = clienteRepository.findById(dto.getClienteId())
                 .orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado: " + dto.getClienteId()));
 
-        Restaurante restaurante = restauranteRepository.findById(dto.getRestauranteId())
+        // Restaurante vem do cache: a validação não consulta o banco
+        RestauranteRequestDTO restaurante = restauranteCacheService.buscarPorId(dto.getRestauranteId())
                 .orElseThrow(() -> new IllegalArgumentException("Restaurante não encontrado: " + dto.getRestauranteId()));
 
+        // Uma única consulta IN para todos os produtos do pedido
+        Map<Long, Produto> produtos = porId(produtoRepository.findAllById(idsProdutos(List.of(dto))), Produto::getId);
+
+        Pedido pedido = montarPedido(dto, cliente, restaurante, produtos);
+
+        // Itens são gravados por cascata, em lote, na mesma transação
+        Pedido salvo = pedidoRepository.save(pedido);
+        eventPublisher.publishEvent(new PedidoCriadoEvent(salvo));
+        return salvo;
+    }
+
+    /**
+     * Criar pedidos em lote (integração com marketplaces).
+     * Clientes, restaurantes e produtos são resolvidos com uma consulta IN cada, a validação
+     * é feita em memória e os pedidos válidos são inseridos em lotes JDBC. Pedidos inválidos
+     * não impedem a gravação dos demais.
+     */
+    @Transactional
+    public List<ResultadoLotePedidoDTO> criarPedidosEmLote(List<PedidoRequestDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new IllegalArgumentException("Lote deve conter ao menos um pedido");
+        }
+        if (dtos.size() > tamanhoMaximoLote) {
+            throw new IllegalArgumentException("Lote excede o limite de " + tamanhoMaximoLote + " pedidos");
+        }
+
+        List<PedidoGravado> gravados = gravarLote(dtos);
+
+        List<ResultadoLotePedidoDTO> resultados = new ArrayList<>(gravados.size());
+        for (int i = 0; i < gravados.size(); i++) {
+            PedidoGravado gravado = gravados.get(i);
+            resultados.add(gravado.pedido() != null
+                    ? ResultadoLotePedidoDTO.sucesso(i, gravado.pedido().getId(),
+                            gravado.pedido().getNumeroPedido(), gravado.pedido().getValorTotal())
+                    : ResultadoLotePedidoDTO.falha(i, dtos.get(i).getNumeroPedido(), gravado.erro()));
+        }
+        return resultados;
+    }
+
+    /**
+     * Resultado de um pedido do lote: o pedido gravado ou o motivo da rejeição
+     */
+    public record PedidoGravado(Pedido pedido, String erro) {
+    }
+
+    /**
+     * Validar e gravar vários pedidos numa única transação, na ordem recebida.
+     * Usado pelo endpoint de lote e pelo pipeline de gravação (PedidoPipelineService).
+     */
+    @Transactional
+    public List<PedidoGravado> gravarLote(List<PedidoRequestDTO> dtos) {
+        Map<Long, Cliente> clientes = porId(clienteRepository.findAllById(
+                dtos.stream().map(PedidoRequestDTO::getClienteId).filter(Objects::nonNull).distinct().toList()),
+                Cliente::getId);
+        Map<Long, RestauranteRequestDTO> restaurantes = new HashMap<>();
+        dtos.stream().map(PedidoRequestDTO::getRestauranteId).filter(Objects::nonNull).distinct()
+                .forEach(id -> restauranteCacheService.buscarPorId(id).ifPresent(r -> restaurantes.put(id, r)));
+        Map<Long, Produto> produtos = porId(produtoRepository.findAllById(idsProdutos(dtos)), Produto::getId);
+
+        PedidoGravado[] resultados = new PedidoGravado[dtos.size()];
+        List<Pedido> validos = new ArrayList<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            PedidoRequestDTO dto = dtos.get(i);
+            try {
+                Set<ConstraintViolation<PedidoRequestDTO>> violacoes = validator.validate(dto, Default.class, PedidoRequestDTO.Gravacao.class);
+                if (!violacoes.isEmpty()) {
+                    throw new IllegalArgumentException(violacoes.stream()
+                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .collect(Collectors.joining("; ")));
+                }
+                Cliente cliente = clientes.get(dto.getClienteId());
+                if (cliente == null) {
+                    throw new IllegalArgumentException("Cliente não encontrado: " + dto.getClienteId());
+                }
+                RestauranteRequestDTO restaurante = restaurantes.get(dto.getRestauranteId());
+                if (restaurante == null) {
+                    throw new IllegalArgumentException("Restaurante não encontrado: " + dto.getRestauranteId());
+                }
+                Pedido pedido = montarPedido(dto, cliente, restaurante, produtos);
+                validos.add(pedido);
+                resultados[i] = new PedidoGravado(pedido, null);
+            } catch (IllegalArgumentException e) {
+                resultados[i] = new PedidoGravado(null, e.getMessage());
+            }
+        }
+
+        if (!validos.isEmpty()) {
+            pedidoLoteRepository.inserir(validos);
+            validos.forEach(pedido -> eventPublisher.publishEvent(new PedidoCriadoEvent(pedido)));
+        }
+
+        return Arrays.asList(resultados);
+    }
+
+    /**
+     * Valida cliente, restaurante e itens e monta o pedido (ainda não persistido).
+     * O restaurante do pedido é uma referência (proxy) pelo id: só a chave estrangeira é usada.
+     */
+    private Pedido montarPedido(PedidoRequestDTO dto, Cliente cliente, RestauranteRequestDTO restaurante,
+                                Map<Long, Produto> produtos) {
         if (!cliente.getAtivo()) {
             throw new IllegalArgumentException("Cliente inativo não pode fazer pedidos");
         }
@@ -50,17 +199,83 @@ public class PedidoService {
             throw new IllegalArgumentException("Restaurante não está disponível");
         }
 
+        if (dto.getItens() == null || dto.getItens().isEmpty()) {
+            throw new IllegalArgumentException("Pedido deve ter ao menos um item");
+        }
+
         Pedido pedido = new Pedido();
         pedido.setClienteId(cliente.getId());
-        pedido.setRestaurante(restaurante);
+        pedido.setRestaurante(restauranteRepository.getReferenceById(restaurante.getId()));
         pedido.setStatus(StatusPedido.PENDENTE.name());
-        pedido.setDataPedido(dto.getDataPedido());
+        // data obrigatória: é a chave da paginação por cursor
+        pedido.setDataPedido(dto.getDataPedido() != null ? dto.getDataPedido() : LocalDateTime.now());
         pedido.setNumeroPedido(dto.getNumeroPedido());
-        pedido.setValorTotal(dto.getValorTotal());
         pedido.setObservacoes(dto.getObservacoes());
-        pedido.setItens(dto.getItens());
 
-        return pedidoRepository.save(pedido);
+        adicionarItens(pedido, dto.getItens(), produtos, restaurante);
+        // Com CEP, cobra a mesma taxa que GET /api/restaurantes/{id}/taxa-entrega/{cep} cotou
+        BigDecimal taxaEntrega = dto.getCepEntrega() != null
+                ? taxaEntregaService.taxaPedido(restaurante.getId(), dto.getCepEntrega())
+                : restaurante.getTaxaEntrega();
+        if (taxaEntrega != null) {
+            pedido.setValorTotal(pedido.getValorTotal().add(taxaEntrega));
+        }
+        return pedido;
+    }
+
+    private List<Long> idsProdutos(List<PedidoRequestDTO> dtos) {
+        return dtos.stream()
+                .filter(dto -> dto.getItens() != null)
+                .flatMap(dto -> dto.getItens().stream())
+                .map(ItemPedidoRequestDTO::getProdutoId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    private <T> Map<Long, T> porId(List<T> entidades, Function<T, Long> id) {
+        return entidades.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    /**
+     * Monta os itens do pedido com o preço atual de cada produto e calcula o valor total
+     * dos itens (a taxa de entrega é somada por montarPedido).
+     */
+    private void adicionarItens(Pedido pedido, List<ItemPedidoRequestDTO> itensDto, Map<Long, Produto> produtos,
+                                RestauranteRequestDTO restaurante) {
+        BigDecimal total = BigDecimal.ZERO;
+        int linha = 1;
+
+        for (ItemPedidoRequestDTO itemDto : itensDto) {
+            Produto produto = produtos.get(itemDto.getProdutoId());
+            if (produto == null) {
+                throw new IllegalArgumentException("Produto não encontrado: " + itemDto.getProdutoId());
+            }
+            if (!restaurante.getId().equals(produto.getRestauranteId())) {
+                throw new IllegalArgumentException("Produto não pertence ao restaurante: " + produto.getId());
+            }
+            if (!Boolean.TRUE.equals(produto.getDisponivel())) {
+                throw new IllegalArgumentException("Produto indisponível: " + produto.getNome());
+            }
+
+            PedidoItem item = new PedidoItem();
+            item.setPedido(pedido);
+            item.setLinha(linha++);
+            item.setProdutoId(produto.getId());
+            item.setQuantidade(itemDto.getQuantidade());
+            item.setPrecoUnitario(produto.getPreco());
+            pedido.getItens().add(item);
+
+            total = total.add(item.getSubtotal());
+        }
+        pedido.setValorTotal(total);
+    }
+
+    // Inicializa os itens dentro da transação. Com @BatchSize o Hibernate carrega
+    // os itens de até 50 pedidos por consulta, em vez de uma consulta por pedido.
+    private List<Pedido> comItens(List<Pedido> pedidos) {
+        pedidos.forEach(pedido -> Hibernate.initialize(pedido.getItens()));
+        return pedidos;
     }
 
     /**
@@ -68,40 +283,85 @@ public class PedidoService {
      */
     @Transactional(readOnly = true)
     public List<Pedido> listarPorCliente(Long clienteId) {
-        return pedidoRepository.findByClienteIdOrderByDataPedidoDesc(clienteId);
+        return comItens(pedidoRepository.findByClienteIdOrderByDataPedidoDesc(clienteId));
     }
 
     /**
      * Atualizar status do pedido
      */
+    @Transactional
     public Pedido atualizarStatus(Long pedidoId, StatusPedido status) {
-        Pedido pedido = pedidoRepository.findById(pedidoId)
-                .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado: " + pedidoId));
+        List<String> origens = StatusPedido.origensPermitidas(status).stream()
+                .map(StatusPedido::name)
+                .toList();
+
+        // Um único UPDATE condicional: seguro sob concorrência sem SELECT prévio nem lock.
+        // O mesmo UPDATE guarda o status de origem em status_anterior, lido junto com o pedido.
+        int atualizados = origens.isEmpty() ? 0 : pedidoRepository.transicionarStatus(pedidoId, status.name(), origens);
 
-        if (pedido.getStatus().equals(StatusPedido.ENTREGUE.name())) {
-            throw new IllegalArgumentException("Pedido já finalizado: " + pedidoId);
+        if (atualizados == 0) {
+            String atual = pedidoRepository.buscarStatus(pedidoId)
+                    .orElseThrow(() -> new EntityNotFoundException("Pedido não encontrado: " + pedidoId));
+            throw new ConflitoStatusException("Pedido " + pedidoId + " está " + atual
+                    + " e não pode passar para " + status.name()
+                    + ". Próximos status permitidos: " + StatusPedido.valueOf(atual).getProximos());
         }
 
-        pedido.setStatus(status.name());
-        return pedidoRepository.save(pedido);
+        Pedido pedido = pedidoRepository.findComItensById(pedidoId)
+                .orElseThrow(() -> new EntityNotFoundException("Pedido não encontrado: " + pedidoId));
+        eventPublisher.publishEvent(new StatusPedidoAlteradoEvent(pedido,
+                StatusPedido.valueOf(pedido.getStatusAnterior()), status));
+        return pedido;
     }
     // Pedidos por cliente
+    @Transactional(readOnly = true)
     public List<Pedido> buscarPedidosPorCliente(Long clienteId) {
-        return pedidoRepository.findByClienteId(clienteId);
+        return comItens(pedidoRepository.findByClienteId(clienteId));
     }
     // listar por status
+    @Transactional(readOnly = true)
     public List<Pedido> listarPorStatus(StatusPedido status) {
-        return pedidoRepository.findByStatus(status);
+        return comItens(pedidoRepository.findByStatus(status.name()));
     }
     // Listar os 10 pedidos mais recentes
+    @Transactional(readOnly = true)
     public List<Pedido> listarRecentes() {
-        return pedidoRepository.findTop10ByOrderByDataPedidoDesc();
+        return comItens(pedidoRepository.findTop10ByOrderByDataPedidoDesc());
+    }
+    /**
+     * Listar pedidos de um restaurante (paginado, com filtro opcional de status)
+     */
+    @Transactional(readOnly = true)
+    public Page<Pedido> listarPorRestaurante(Long restauranteId, StatusPedido status, Pageable pageable) {
+        Page<Pedido> pedidos = status != null
+                ? pedidoRepository.findByRestauranteIdAndStatus(restauranteId, status.name(), pageable)
+                : pedidoRepository.findByRestauranteId(restauranteId, pageable);
+        comItens(pedidos.getContent());
+        return pedidos;
+    }
+    /**
+     * Listar pedidos com paginação keyset por (dataPedido, id).
+     * O custo de qualquer página é o mesmo da primeira.
+     */
+    @Transactional(readOnly = true)
+    public List<Pedido> listarPorCursor(StatusPedido status, LocalDateTime inicio, LocalDateTime fim,
+                                        PageCursor cursor, int limite) {
+        LocalDateTime cursorData = cursor != null && cursor.chave() != null ? LocalDateTime.parse(cursor.chave()) : null;
+        Long cursorId = cursor != null ? cursor.id() : null;
+        return comItens(pedidoRepository.buscarPorCursor(status != null ? status.name() : null, inicio, fim,
+                cursorData, cursorId, PageRequest.of(0, limite)));
+    }
+
+    @Transactional(readOnly = true)
+    public long contar(StatusPedido status, LocalDateTime inicio, LocalDateTime fim) {
+        return pedidoRepository.contarComFiltros(status != null ? status.name() : null, inicio, fim);
     }
     /**
      * Listar pedidos por período
      */
+    @Transactional(readOnly = true)
     public List<Pedido> listarPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
-        return pedidoRepository.findByDataPedidoBetween(inicio, fim);
+        return comItens(pedidoRepository.findByDataPedidoBetween(inicio, fim));
     }
 
     /**
@@ -109,8 +369,8 @@ public class PedidoService {
      */
     @Transactional(readOnly = true)
     public Pedido buscarPorId(Long id) {
-        return pedidoRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado: " + id));
+        return pedidoRepository.findComItensById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Pedido não encontrado: " + id));
     }
 
     /**
@@ -118,7 +378,7 @@ public class PedidoService {
      */
     @Transactional(readOnly = true)
     public List<Pedido> listarTodos() {
-        return pedidoRepository.findAll();
+        return comItens(pedidoRepository.findAll());
     }
 }
 
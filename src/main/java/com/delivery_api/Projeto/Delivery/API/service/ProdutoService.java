@@ -2,6 +2,7 @@ package com.delivery_api.Projeto.Delivery.API.service;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import com.delivery_api.Projeto.Delivery.API.dto.request.ProdutoRequestDTO;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +22,9 @@ public class ProdutoService {
     @Autowired
     private RestauranteRepository restauranteRepository;
 
+    @Autowired
+    private RankingProdutosService rankingProdutosService;
+
     /**
      * Cadastrar novo produto
      */
@@ -63,6 +67,10 @@ public class ProdutoService {
 
         validarDadosProduto(produtoAtualizado);
 
+        // O ranking em memória guarda o nome do produto
+        if (!Objects.equals(produtoExistente.getNome(), produtoAtualizado.getNome())) {
+            rankingProdutosService.invalidarNome(id);
+        }
         produtoExistente.setNome(produtoAtualizado.getNome());
         produtoExistente.setDescricao(produtoAtualizado.getDescricao());
         produtoExistente.setPreco(produtoAtualizado.getPreco());
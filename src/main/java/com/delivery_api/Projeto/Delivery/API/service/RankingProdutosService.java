@@ -0,0 +1,236 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.ProdutoRankingDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.entity.PedidoItem;
+import com.delivery_api.Projeto.Delivery.API.entity.Produto;
+import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.event.PedidoCriadoEvent;
+import com.delivery_api.Projeto.Delivery.API.event.StatusPedidoAlteradoEvent;
+import com.delivery_api.Projeto.Delivery.API.projection.RankingProduto;
+import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ranking de produtos mais vendidos mantido em memória. Cada pedido confirmado no banco
+ * incrementa contadores por produto; periodicamente um heap limitado extrai o top-K
+ * (geral e por restaurante) para um snapshot imutável, então a leitura não depende do
+ * volume de pedidos. Consultas com período vão ao banco (GROUP BY ... LIMIT).
+ *
+ * Os totais já gravados são carregados na criação do bean, antes de o servidor aceitar
+ * requisições: nenhum pedido desta instância é gravado entre a carga e o primeiro evento,
+ * então nada é contado duas vezes.
+ */
+@Service
+public class RankingProdutosService {
+
+    private static final Comparator<Total> POR_QUANTIDADE = Comparator
+            .comparingLong(Total::quantidade)
+            .thenComparing(Total::produtoId, Comparator.reverseOrder());
+
+    // Valores lidos dos contadores no momento do snapshot (o heap não pode ordenar valores que mudam)
+    private record Total(Long produtoId, Long restauranteId, long quantidade, long centavos) {
+    }
+
+    private record Snapshot(List<ProdutoRankingDTO> geral, Map<Long, List<ProdutoRankingDTO>> porRestaurante) {
+    }
+
+    private static final class Contador {
+        private final Long produtoId;
+        private final Long restauranteId;
+        private final LongAdder quantidade = new LongAdder();
+        // Em centavos: soma exata sem BigDecimal compartilhado entre threads
+        private final LongAdder centavos = new LongAdder();
+
+        Contador(Long produtoId, Long restauranteId) {
+            this.produtoId = produtoId;
+            this.restauranteId = restauranteId;
+        }
+
+        Total total() {
+            return new Total(produtoId, restauranteId, quantidade.sum(), centavos.sum());
+        }
+    }
+
+    private final Map<Long, Contador> contadores = new ConcurrentHashMap<>();
+    private final Map<Long, String> nomes = new ConcurrentHashMap<>();
+    private final AtomicBoolean alterado = new AtomicBoolean(true);
+    private volatile Snapshot snapshot = new Snapshot(List.of(), Map.of());
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Value("${delivery.ranking.tamanho:100}")
+    private int tamanho;
+
+    /**
+     * Carregar os totais já gravados ao subir a aplicação
+     */
+    @PostConstruct
+    public void carregar() {
+        for (RankingProduto linha : produtoRepository.rankingVendas(null, null, null, Pageable.unpaged())) {
+            Contador contador = contador(linha.getProdutoId(), linha.getRestauranteId());
+            contador.quantidade.add(linha.getQuantidade());
+            contador.centavos.add(centavos(linha.getTotalVendas()));
+            nomes.put(linha.getProdutoId(), linha.getProduto());
+        }
+        atualizarSnapshot();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPedidoCriado(PedidoCriadoEvent event) {
+        acumular(event.pedido(), 1);
+    }
+
+    // Pedido cancelado deixa de contar como venda
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusAlterado(StatusPedidoAlteradoEvent event) {
+        if (event.novoStatus() == StatusPedido.CANCELADO) {
+            acumular(event.pedido(), -1);
+        }
+    }
+
+    /**
+     * Descartar o nome guardado do produto (agora e, dentro de uma transação, após o commit);
+     * o próximo snapshot lê o nome atual do banco
+     */
+    public void invalidarNome(Long produtoId) {
+        esquecerNome(produtoId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    esquecerNome(produtoId);
+                }
+            });
+        }
+    }
+
+    private void esquecerNome(Long produtoId) {
+        if (nomes.remove(produtoId) != null) {
+            alterado.set(true);
+        }
+    }
+
+    /**
+     * Top produtos do snapshot atual, geral ou de um restaurante
+     */
+    public List<ProdutoRankingDTO> ranking(Long restauranteId, int limite) {
+        Snapshot atual = snapshot;
+        List<ProdutoRankingDTO> ranking = restauranteId == null
+                ? atual.geral()
+                : atual.porRestaurante().getOrDefault(restauranteId, List.of());
+        return ranking.subList(0, Math.min(limite, ranking.size()));
+    }
+
+    /**
+     * Ranking de um período, calculado no banco
+     */
+    public List<ProdutoRankingDTO> rankingPorPeriodo(Long restauranteId, LocalDateTime inicio, LocalDateTime fim,
+                                                     int limite) {
+        return produtoRepository.rankingVendas(restauranteId, inicio, fim, PageRequest.of(0, limite)).stream()
+                .map(linha -> new ProdutoRankingDTO(linha.getProdutoId(), linha.getProduto(),
+                        linha.getRestauranteId(), linha.getQuantidade(), linha.getTotalVendas()))
+                .toList();
+    }
+
+    public int getTamanhoMaximo() {
+        return tamanho;
+    }
+
+    @Scheduled(fixedRateString = "${delivery.ranking.atualizacao-ms:1000}")
+    public void atualizarSnapshot() {
+        if (!alterado.getAndSet(false)) {
+            return;
+        }
+
+        PriorityQueue<Total> geral = new PriorityQueue<>(tamanho + 1, POR_QUANTIDADE);
+        Map<Long, PriorityQueue<Total>> porRestaurante = new HashMap<>();
+        for (Contador contador : contadores.values()) {
+            Total total = contador.total();
+            if (total.quantidade() <= 0) {
+                continue;
+            }
+            oferecer(geral, total);
+            oferecer(porRestaurante.computeIfAbsent(total.restauranteId(),
+                    id -> new PriorityQueue<>(tamanho + 1, POR_QUANTIDADE)), total);
+        }
+
+        resolverNomes(geral);
+        Map<Long, List<ProdutoRankingDTO>> rankingsRestaurante = new HashMap<>();
+        porRestaurante.forEach((restauranteId, heap) -> {
+            resolverNomes(heap);
+            rankingsRestaurante.put(restauranteId, ordenar(heap));
+        });
+        snapshot = new Snapshot(ordenar(geral), Map.copyOf(rankingsRestaurante));
+    }
+
+    private void acumular(Pedido pedido, int sinal) {
+        Long restauranteId = pedido.getRestaurante().getId();
+        for (PedidoItem item : pedido.getItens()) {
+            Contador contador = contador(item.getProdutoId(), restauranteId);
+            contador.quantidade.add((long) sinal * item.getQuantidade());
+            contador.centavos.add(sinal * centavos(item.getSubtotal()));
+        }
+        alterado.set(true);
+    }
+
+    private Contador contador(Long produtoId, Long restauranteId) {
+        return contadores.computeIfAbsent(produtoId, id -> new Contador(id, restauranteId));
+    }
+
+    // Heap mínimo limitado: mantém apenas os K maiores, O(n log K)
+    private void oferecer(PriorityQueue<Total> heap, Total total) {
+        heap.offer(total);
+        if (heap.size() > tamanho) {
+            heap.poll();
+        }
+    }
+
+    private void resolverNomes(PriorityQueue<Total> heap) {
+        List<Long> semNome = heap.stream()
+                .map(Total::produtoId)
+                .filter(id -> !nomes.containsKey(id))
+                .toList();
+        if (!semNome.isEmpty()) {
+            for (Produto produto : produtoRepository.findAllById(semNome)) {
+                nomes.put(produto.getId(), produto.getNome());
+            }
+        }
+    }
+
+    private List<ProdutoRankingDTO> ordenar(PriorityQueue<Total> heap) {
+        List<Total> ordenados = new ArrayList<>(heap);
+        ordenados.sort(POR_QUANTIDADE.reversed());
+        return ordenados.stream()
+                .map(t -> new ProdutoRankingDTO(t.produtoId(), nomes.get(t.produtoId()), t.restauranteId(),
+                        t.quantidade(), BigDecimal.valueOf(t.centavos(), 2)))
+                .toList();
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor != null ? valor.movePointRight(2).longValue() : 0;
+    }
+}
@@ -0,0 +1,276 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.MetricasCacheRelatorioDTO;
+import com.delivery_api.Projeto.Delivery.API.event.PedidoCriadoEvent;
+import com.delivery_api.Projeto.Delivery.API.event.StatusPedidoAlteradoEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache dos resultados de /api/relatorios, por relatório + parâmetros.
+ *
+ * Dentro do TTL a entrada é servida direto. Depois do TTL, e até TTL + janela-stale, a
+ * entrada antiga continua sendo servida enquanto uma única atualização roda em segundo
+ * plano. Sem entrada utilizável, requisições simultâneas para a mesma chave esperam um
+ * único cálculo. Com consistência estrita, qualquer pedido gravado depois do cálculo
+ * invalida a entrada. Acima de max-entradas, cada inserção descarta a entrada usada há
+ * mais tempo.
+ */
+@Service
+public class RelatorioCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatorioCacheService.class);
+
+    // geracao: valor de geracaoPedidos quando o cálculo começou
+    private record Entrada(Object valor, long calculadoEm, long geracao) {
+    }
+
+    private static final class Metricas {
+        private final Duration ttl;
+        private final LongAdder acertos = new LongAdder();
+        private final LongAdder acertosStale = new LongAdder();
+        private final LongAdder faltas = new LongAdder();
+        private final LongAdder calculos = new LongAdder();
+        private final LongAdder tempoCalculoNanos = new LongAdder();
+        private final LongAccumulator maiorCalculoNanos = new LongAccumulator(Math::max, 0);
+
+        Metricas(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    // accessOrder = true: a primeira entrada é a menos usada. Acesso sempre sob o lock do mapa.
+    private final Map<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+            return size() > maxEntradas;
+        }
+    };
+    private final Map<String, CompletableFuture<Object>> emCalculo = new ConcurrentHashMap<>();
+    private final Map<String, Metricas> metricas = new ConcurrentHashMap<>();
+    // Incrementada a cada pedido criado ou status alterado
+    private final AtomicLong geracaoPedidos = new AtomicLong();
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${delivery.relatorios.cache.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${delivery.relatorios.cache.ttl-padrao:30s}")
+    private Duration ttlPadrao;
+
+    @Value("${delivery.relatorios.cache.janela-stale:5m}")
+    private Duration janelaStale;
+
+    @Value("${delivery.relatorios.cache.max-entradas:1000}")
+    private int maxEntradas;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPedidoCriado(PedidoCriadoEvent event) {
+        geracaoPedidos.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusAlterado(StatusPedidoAlteradoEvent event) {
+        geracaoPedidos.incrementAndGet();
+    }
+
+    /**
+     * Obter o resultado do relatório do cache ou calculá-lo.
+     * O TTL vem de delivery.relatorios.cache.ttl.{relatorio} (padrão: ttl-padrao).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T obter(String relatorio, String parametros, boolean estrito, Supplier<T> calculo) {
+        Metricas m = metricas(relatorio);
+        if (!habilitado) {
+            m.faltas.increment();
+            return medir(m, calculo);
+        }
+
+        String chave = relatorio + '?' + parametros;
+        Entrada entrada;
+        synchronized (entradas) {
+            entrada = entradas.get(chave);
+        }
+        long agora = System.nanoTime();
+        if (entrada != null && (!estrito || entrada.geracao() == geracaoPedidos.get())) {
+            long idade = agora - entrada.calculadoEm();
+            if (idade < m.ttl.toNanos()) {
+                m.acertos.increment();
+                return (T) entrada.valor();
+            }
+            if (!estrito && idade < m.ttl.plus(janelaStale).toNanos()) {
+                m.acertosStale.increment();
+                atualizarEmSegundoPlano(chave, m, calculo);
+                return (T) entrada.valor();
+            }
+        }
+
+        m.faltas.increment();
+        return (T) calcular(chave, m, calculo, estrito);
+    }
+
+    /**
+     * Métricas de acerto, falta e tempo de cálculo por relatório
+     */
+    public List<MetricasCacheRelatorioDTO> metricas() {
+        return metricas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> {
+                    Metricas m = e.getValue();
+                    long calculos = m.calculos.sum();
+                    long tempo = m.tempoCalculoNanos.sum();
+                    return new MetricasCacheRelatorioDTO(e.getKey(), m.ttl.toMillis(),
+                            m.acertos.sum(), m.acertosStale.sum(), m.faltas.sum(), calculos,
+                            calculos > 0 ? TimeUnit.NANOSECONDS.toMillis(tempo / calculos) : 0,
+                            TimeUnit.NANOSECONDS.toMillis(m.maiorCalculoNanos.get()));
+                })
+                .toList();
+    }
+
+    public void limpar() {
+        synchronized (entradas) {
+            entradas.clear();
+        }
+    }
+
+    /**
+     * Remove as entradas que já passaram da janela stale. O limite de max-entradas é
+     * aplicado na inserção.
+     */
+    @Scheduled(fixedRateString = "${delivery.relatorios.cache.limpeza-ms:60000}")
+    public void limparExpiradas() {
+        long agora = System.nanoTime();
+        synchronized (entradas) {
+            entradas.entrySet().removeIf(e -> {
+                Metricas m = metricas.get(relatorio(e.getKey()));
+                long limite = (m != null ? m.ttl : ttlPadrao).plus(janelaStale).toNanos();
+                return agora - e.getValue().calculadoEm() >= limite;
+            });
+        }
+    }
+
+    /**
+     * Cálculo com coalescência: quem chega primeiro calcula na própria thread e os demais
+     * aguardam o mesmo resultado. Um cálculo em andamento iniciado antes de uma gravação
+     * de pedido não serve para leitura estrita.
+     */
+    private Object calcular(String chave, Metricas m, Supplier<?> calculo, boolean estrito) {
+        CompletableFuture<Object> novo = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emCalculo.putIfAbsent(chave, novo);
+        if (existente != null && !estrito) {
+            return aguardar(existente);
+        }
+        if (existente != null) {
+            // Leitura estrita não reaproveita o cálculo em andamento e não o substitui
+            return medir(m, calculo);
+        }
+
+        try {
+            long geracao = geracaoPedidos.get();
+            Object valor = medir(m, calculo);
+            guardar(chave, valor, geracao);
+            novo.complete(valor);
+            return valor;
+        } catch (RuntimeException e) {
+            novo.completeExceptionally(e);
+            throw e;
+        } finally {
+            emCalculo.remove(chave, novo);
+        }
+    }
+
+    private void atualizarEmSegundoPlano(String chave, Metricas m, Supplier<?> calculo) {
+        CompletableFuture<Object> novo = new CompletableFuture<>();
+        if (emCalculo.putIfAbsent(chave, novo) != null) {
+            return;
+        }
+
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    long geracao = geracaoPedidos.get();
+                    Object valor = medir(m, calculo);
+                    guardar(chave, valor, geracao);
+                    novo.complete(valor);
+                } catch (RuntimeException e) {
+                    // A entrada antiga continua sendo servida até sair da janela stale
+                    log.warn("Falha ao atualizar relatório {} em segundo plano", chave, e);
+                    novo.completeExceptionally(e);
+                } finally {
+                    emCalculo.remove(chave, novo);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Executor saturado: a próxima leitura stale tenta de novo
+            emCalculo.remove(chave, novo);
+            novo.completeExceptionally(e);
+        }
+    }
+
+    private void guardar(String chave, Object valor, long geracao) {
+        synchronized (entradas) {
+            entradas.put(chave, new Entrada(valor, System.nanoTime(), geracao));
+        }
+    }
+
+    private <T> T medir(Metricas m, Supplier<T> calculo) {
+        long inicio = System.nanoTime();
+        try {
+            return calculo.get();
+        } finally {
+            long duracao = System.nanoTime() - inicio;
+            m.calculos.increment();
+            m.tempoCalculoNanos.add(duracao);
+            m.maiorCalculoNanos.accumulate(duracao);
+        }
+    }
+
+    private static Object aguardar(CompletableFuture<Object> calculo) {
+        try {
+            return calculo.join();
+        } catch (CompletionException e) {
+            // Repassa a exceção original para o GlobalExceptionHandler
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private Metricas metricas(String relatorio) {
+        return metricas.computeIfAbsent(relatorio, r -> new Metricas(
+                environment.getProperty("delivery.relatorios.cache.ttl." + r, Duration.class, ttlPadrao)));
+    }
+
+    private static String relatorio(String chave) {
+        return chave.substring(0, chave.indexOf('?'));
+    }
+}
@@ -0,0 +1,352 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.delivery_api.Projeto.Delivery.API.dto.request.RelatorioJobRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.RelatorioJobDTO;
+import com.delivery_api.Projeto.Delivery.API.enums.FormatoExportacao;
+import com.delivery_api.Projeto.Delivery.API.enums.SituacaoJob;
+import com.delivery_api.Projeto.Delivery.API.enums.TipoRelatorioJob;
+import com.delivery_api.Projeto.Delivery.API.exceptions.EntityNotFoundException;
+import com.delivery_api.Projeto.Delivery.API.exceptions.ResultadoIndisponivelException;
+import com.delivery_api.Projeto.Delivery.API.exceptions.SobrecargaException;
+import com.delivery_api.Projeto.Delivery.API.projection.ResumoPedidos;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Relatórios de período longo executados fora das threads HTTP. Os jobs rodam num pool
+ * próprio e limitado de threads de plataforma, então no máximo delivery.relatorios.jobs.threads
+ * conexões do pool ficam com relatórios e o restante continua disponível para pedidos.
+ * Cada tipo tem ainda seu próprio limite de execuções simultâneas; jobs acima do limite
+ * esperam numa fila por tipo. O resultado é gravado em disco e servido como arquivo.
+ *
+ * Os jobs ficam em memória: após um reinício os IDs antigos deixam de existir.
+ */
+@Service
+public class RelatorioJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatorioJobService.class);
+
+    public record Arquivo(Path caminho, String contentType, String nome) {
+    }
+
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final RelatorioJobRequestDTO definicao;
+        private final LocalDateTime criadoEm = LocalDateTime.now();
+        private final AtomicLong linhasProcessadas = new AtomicLong();
+        private volatile SituacaoJob situacao = SituacaoJob.AGUARDANDO;
+        private volatile Long linhasTotal;
+        private volatile Long tamanhoBytes;
+        private volatile String erro;
+        private volatile LocalDateTime iniciadoEm;
+        private volatile LocalDateTime concluidoEm;
+        private volatile Path arquivo;
+
+        Job(RelatorioJobRequestDTO definicao) {
+            this.definicao = definicao;
+        }
+
+        TipoRelatorioJob tipo() {
+            return definicao.getTipo();
+        }
+
+        boolean finalizado() {
+            return situacao == SituacaoJob.CONCLUIDO || situacao == SituacaoJob.FALHOU;
+        }
+    }
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<TipoRelatorioJob, Queue<Job>> filas = new EnumMap<>(TipoRelatorioJob.class);
+    private final Map<TipoRelatorioJob, Semaphore> limites = new EnumMap<>(TipoRelatorioJob.class);
+    private final AtomicInteger aguardando = new AtomicInteger();
+
+    @Autowired
+    private PedidoExportacaoService pedidoExportacaoService;
+
+    @Autowired
+    private VendaHoraService vendaHoraService;
+
+    @Autowired
+    private RankingProdutosService rankingProdutosService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${delivery.relatorios.jobs.threads:2}")
+    private int threads;
+
+    @Value("${delivery.relatorios.jobs.capacidade-fila:50}")
+    private int capacidadeFila;
+
+    @Value("${delivery.relatorios.jobs.limite-padrao:1}")
+    private int limitePadrao;
+
+    @Value("${delivery.relatorios.jobs.diretorio:${java.io.tmpdir}/delivery-relatorios}")
+    private Path diretorio;
+
+    @Value("${delivery.relatorios.jobs.retencao:1h}")
+    private Duration retencao;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        Files.createDirectories(diretorio);
+        for (TipoRelatorioJob tipo : TipoRelatorioJob.values()) {
+            filas.put(tipo, new ConcurrentLinkedQueue<>());
+            int limite = environment.getProperty("delivery.relatorios.jobs.limite." + tipo.getChave(),
+                    Integer.class, limitePadrao);
+            limites.put(tipo, new Semaphore(Math.max(1, limite)));
+        }
+        AtomicInteger sequencia = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "relatorio-job-" + sequencia.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+
+    /**
+     * Registrar o job e colocá-lo na fila do seu tipo
+     */
+    public RelatorioJobDTO submeter(RelatorioJobRequestDTO definicao) {
+        validar(definicao);
+        if (aguardando.incrementAndGet() > capacidadeFila) {
+            aguardando.decrementAndGet();
+            throw new SobrecargaException("Fila de relatórios cheia");
+        }
+
+        Job job = new Job(definicao);
+        jobs.put(job.id, job);
+        filas.get(job.tipo()).add(job);
+        despachar(job.tipo());
+        return toDTO(job);
+    }
+
+    public RelatorioJobDTO buscar(String id) {
+        return toDTO(job(id));
+    }
+
+    /**
+     * Arquivo do job concluído
+     */
+    public Arquivo resultado(String id) {
+        Job job = job(id);
+        if (job.situacao != SituacaoJob.CONCLUIDO) {
+            throw new ResultadoIndisponivelException("Relatório " + id + " ainda não está disponível (situação: "
+                    + job.situacao + ")");
+        }
+        FormatoExportacao formato = formato(job.definicao);
+        String contentType = formato != null ? formato.getContentType() : "application/json";
+        String extensao = formato != null ? formato.getExtensao() : "json";
+        return new Arquivo(job.arquivo, contentType, job.tipo().getChave() + "-" + id + "." + extensao);
+    }
+
+    /**
+     * Remove jobs finalizados há mais que a retenção, com os respectivos arquivos
+     */
+    @Scheduled(fixedRateString = "${delivery.relatorios.jobs.limpeza-ms:300000}")
+    public void limparExpirados() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencao);
+        jobs.values().removeIf(job -> {
+            if (!job.finalizado() || job.concluidoEm.isAfter(limite)) {
+                return false;
+            }
+            apagar(job.arquivo);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Envia ao pool os jobs do tipo enquanto houver permissão. Chamado na submissão e no
+     * fim de cada job; a fila é conferida de novo após devolver a permissão, então um job
+     * enfileirado durante essa janela não fica parado.
+     */
+    private void despachar(TipoRelatorioJob tipo) {
+        Queue<Job> fila = filas.get(tipo);
+        Semaphore semaforo = limites.get(tipo);
+        while (!fila.isEmpty() && semaforo.tryAcquire()) {
+            Job job = fila.poll();
+            if (job == null) {
+                semaforo.release();
+                continue;
+            }
+            aguardando.decrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        executar(job);
+                    } finally {
+                        semaforo.release();
+                        despachar(tipo);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Pool encerrando
+                semaforo.release();
+                falhar(job, e);
+            }
+        }
+    }
+
+    private void executar(Job job) {
+        job.iniciadoEm = LocalDateTime.now();
+        job.situacao = SituacaoJob.EXECUTANDO;
+        Path parcial = diretorio.resolve(job.id + ".parcial");
+        try {
+            try (OutputStream out = Files.newOutputStream(parcial)) {
+                gerar(job, out);
+            }
+            Path destino = diretorio.resolve(job.id);
+            Files.move(parcial, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.arquivo = destino;
+            job.tamanhoBytes = Files.size(destino);
+            job.concluidoEm = LocalDateTime.now();
+            job.situacao = SituacaoJob.CONCLUIDO;
+        } catch (Throwable e) {
+            // Inclui Error (p.ex. OutOfMemoryError): o job não pode ficar EXECUTANDO para sempre
+            log.warn("Falha no relatório {} ({})", job.id, job.tipo(), e);
+            apagar(parcial);
+            falhar(job, e);
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private void gerar(Job job, OutputStream out) throws IOException {
+        RelatorioJobRequestDTO d = job.definicao;
+        switch (job.tipo()) {
+            case EXPORTACAO_PEDIDOS -> {
+                job.linhasTotal = pedidoRepository.resumirPorPeriodo(d.getDataInicio(), d.getDataFim(), null)
+                        .getTotalPedidos();
+                pedidoExportacaoService.exportar(d.getDataInicio(), d.getDataFim(), formato(d), out,
+                        job.linhasProcessadas::set);
+            }
+            case VENDAS_POR_RESTAURANTE -> {
+                List<?> linhas = vendaHoraService.relatorioVendasPorRestaurante(d.getDataInicio(), d.getDataFim());
+                escreverJson(job, out, linhas, linhas.size());
+            }
+            case PRODUTOS_MAIS_VENDIDOS -> {
+                List<?> linhas = rankingProdutosService.rankingPorPeriodo(d.getRestauranteId(), d.getDataInicio(),
+                        d.getDataFim(), d.getLimite() != null ? d.getLimite() : 100);
+                escreverJson(job, out, linhas, linhas.size());
+            }
+            case PEDIDOS_POR_PERIODO -> {
+                ResumoPedidos resumo = pedidoRepository.resumirPorPeriodo(d.getDataInicio(), d.getDataFim(),
+                        d.getStatus() != null ? d.getStatus().name() : null);
+                long totalPedidos = resumo.getTotalPedidos();
+                BigDecimal valorTotal = resumo.getValorTotal();
+                Map<String, Object> relatorio = new LinkedHashMap<>();
+                relatorio.put("periodo", Map.of("inicio", d.getDataInicio(), "fim", d.getDataFim()));
+                relatorio.put("totalPedidos", totalPedidos);
+                relatorio.put("valorTotal", valorTotal);
+                relatorio.put("ticketMedio", totalPedidos > 0
+                        ? valorTotal.divide(BigDecimal.valueOf(totalPedidos), 2, RoundingMode.HALF_EVEN)
+                        : BigDecimal.ZERO);
+                escreverJson(job, out, relatorio, 1);
+            }
+        }
+    }
+
+    private void escreverJson(Job job, OutputStream out, Object conteudo, long linhas) throws IOException {
+        objectMapper.writeValue(out, conteudo);
+        job.linhasTotal = linhas;
+        job.linhasProcessadas.set(linhas);
+    }
+
+    private void validar(RelatorioJobRequestDTO definicao) {
+        boolean exigePeriodo = definicao.getTipo() == TipoRelatorioJob.EXPORTACAO_PEDIDOS
+                || definicao.getTipo() == TipoRelatorioJob.PEDIDOS_POR_PERIODO;
+        if (exigePeriodo && (definicao.getDataInicio() == null || definicao.getDataFim() == null)) {
+            throw new IllegalArgumentException("dataInicio e dataFim são obrigatórios para " + definicao.getTipo());
+        }
+        if (definicao.getDataInicio() != null && definicao.getDataFim() != null
+                && definicao.getDataFim().isBefore(definicao.getDataInicio())) {
+            throw new IllegalArgumentException("dataFim deve ser posterior a dataInicio");
+        }
+    }
+
+    private void falhar(Job job, Throwable e) {
+        job.erro = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        job.concluidoEm = LocalDateTime.now();
+        job.situacao = SituacaoJob.FALHOU;
+    }
+
+    private Job job(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new EntityNotFoundException("Relatório não encontrado: " + id);
+        }
+        return job;
+    }
+
+    // Apenas a exportação gera CSV/NDJSON; os demais tipos são JSON
+    private static FormatoExportacao formato(RelatorioJobRequestDTO definicao) {
+        if (definicao.getTipo() != TipoRelatorioJob.EXPORTACAO_PEDIDOS) {
+            return null;
+        }
+        return definicao.getFormato() != null ? definicao.getFormato() : FormatoExportacao.NDJSON;
+    }
+
+    private static void apagar(Path arquivo) {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar {}", arquivo, e);
+        }
+    }
+
+    private RelatorioJobDTO toDTO(Job job) {
+        return new RelatorioJobDTO(job.id, job.tipo(), job.situacao, job.linhasProcessadas.get(),
+                job.linhasTotal, job.tamanhoBytes, job.erro, job.criadoEm, job.iniciadoEm, job.concluidoEm);
+    }
+}
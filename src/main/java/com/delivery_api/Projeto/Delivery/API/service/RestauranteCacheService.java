@@ -0,0 +1,135 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import com.delivery_api.Projeto.Delivery.API.cache.CacheLru;
+import com.delivery_api.Projeto.Delivery.API.dto.request.RestauranteRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.MetricasCacheRestauranteDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache de leitura dos restaurantes: por id (usado na criação de pedidos), lista de ativos
+ * e lista por categoria. Os valores são cópias (DTO), nunca entidades gerenciadas, e não
+ * devem ser alterados por quem os recebe.
+ *
+ * Toda alteração de restaurante passa por invalidar(), que remove a entrada do id e todas
+ * as listas na hora e de novo após o commit, para que uma leitura concorrente não guarde
+ * o estado anterior à transação.
+ */
+@Service
+public class RestauranteCacheService {
+
+    private static final String ATIVOS = "ativos";
+    private static final String CATEGORIA = "categoria:";
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Value("${delivery.restaurantes.cache.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${delivery.restaurantes.cache.max-por-id:10000}")
+    private int maxPorId;
+
+    @Value("${delivery.restaurantes.cache.max-listas:200}")
+    private int maxListas;
+
+    @Value("${delivery.restaurantes.cache.ttl:10m}")
+    private Duration ttl;
+
+    private CacheLru<Long, Optional<RestauranteRequestDTO>> porId;
+    private CacheLru<String, List<RestauranteRequestDTO>> listas;
+
+    @PostConstruct
+    void iniciar() {
+        porId = new CacheLru<>(maxPorId, ttl);
+        listas = new CacheLru<>(maxListas, ttl);
+    }
+
+    public Optional<RestauranteRequestDTO> buscarPorId(Long id) {
+        if (!habilitado) {
+            return carregar(id);
+        }
+        return porId.obter(id, this::carregar);
+    }
+
+    public List<RestauranteRequestDTO> listarAtivos() {
+        if (!habilitado) {
+            return paraDTO(restauranteRepository.findByAtivoTrue());
+        }
+        return listas.obter(ATIVOS, chave -> paraDTO(restauranteRepository.findByAtivoTrue()));
+    }
+
+    public List<RestauranteRequestDTO> buscarPorCategoria(String categoria) {
+        if (!habilitado) {
+            return paraDTO(restauranteRepository.findByCategoria(categoria));
+        }
+        return listas.obter(CATEGORIA + categoria,
+                chave -> paraDTO(restauranteRepository.findByCategoria(categoria)));
+    }
+
+    /**
+     * Invalidar o restaurante e as listas (agora e, dentro de uma transação, após o commit)
+     */
+    public void invalidar(Long id) {
+        remover(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remover(id);
+                }
+            });
+        }
+    }
+
+    public void limpar() {
+        porId.limpar();
+        listas.limpar();
+    }
+
+    /**
+     * Métricas de acerto e ocupação dos caches
+     */
+    public List<MetricasCacheRestauranteDTO> metricas() {
+        return List.of(MetricasCacheRestauranteDTO.de("por-id", porId), MetricasCacheRestauranteDTO.de("listas", listas));
+    }
+
+    private void remover(Long id) {
+        if (id != null) {
+            porId.invalidar(id);
+        }
+        listas.limpar();
+    }
+
+    private Optional<RestauranteRequestDTO> carregar(Long id) {
+        return restauranteRepository.findById(id).map(this::paraDTO);
+    }
+
+    private List<RestauranteRequestDTO> paraDTO(List<Restaurante> restaurantes) {
+        return restaurantes.stream().map(this::paraDTO).toList();
+    }
+
+    private RestauranteRequestDTO paraDTO(Restaurante restaurante) {
+        return new RestauranteRequestDTO(
+                restaurante.getId(),
+                restaurante.getNome(),
+                restaurante.getCategoria(),
+                restaurante.getEndereco(),
+                restaurante.getTelefone(),
+                restaurante.getTaxaEntrega(),
+                restaurante.getAvaliacao(),
+                restaurante.getAtivo(),
+                restaurante.getLatitude(),
+                restaurante.getLongitude());
+    }
+}
@@ -0,0 +1,111 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.RestauranteProximoDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.exceptions.EntityNotFoundException;
+import com.delivery_api.Projeto.Delivery.API.geo.Coordenada;
+import com.delivery_api.Projeto.Delivery.API.geo.IndiceEspacial;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Busca de restaurantes próximos a um CEP. Os restaurantes ativos com coordenadas ficam
+ * num índice espacial em memória, carregado na inicialização e mantido pelo
+ * RestauranteService a cada cadastro, atualização, inativação e exclusão; a consulta
+ * não toca o banco.
+ */
+@Service
+public class RestauranteGeoService {
+
+    private static final Logger log = LoggerFactory.getLogger(RestauranteGeoService.class);
+
+    // Dados exibidos na lista de próximos, copiados no momento da indexação
+    private record Resumo(Long id, String nome, String categoria, String endereco,
+                          BigDecimal taxaEntrega, BigDecimal avaliacao) {
+    }
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private CepService cepService;
+
+    @Value("${delivery.geo.celula-graus:0.01}")
+    private double celulaGraus;
+
+    @Value("${delivery.geo.raio-maximo-km:15}")
+    private double raioMaximoKm;
+
+    @Value("${delivery.geo.limite-maximo:100}")
+    private int limiteMaximo;
+
+    private IndiceEspacial<Resumo> indice;
+
+    @PostConstruct
+    void iniciar() {
+        indice = new IndiceEspacial<>(celulaGraus);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        restauranteRepository.findByAtivoTrueAndLatitudeIsNotNullAndLongitudeIsNotNull().forEach(this::atualizar);
+        log.info("Índice de proximidade carregado: {} restaurantes em {} ms",
+                indice.getTamanho(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Indexar o restaurante, ou tirá-lo do índice se estiver inativo ou sem coordenadas
+     */
+    public void atualizar(Restaurante restaurante) {
+        if (!Boolean.TRUE.equals(restaurante.getAtivo())
+                || restaurante.getLatitude() == null || restaurante.getLongitude() == null) {
+            indice.remover(restaurante.getId());
+            return;
+        }
+        indice.colocar(restaurante.getId(),
+                new Coordenada(restaurante.getLatitude(), restaurante.getLongitude()),
+                new Resumo(restaurante.getId(), restaurante.getNome(), restaurante.getCategoria(),
+                        restaurante.getEndereco(), restaurante.getTaxaEntrega(), restaurante.getAvaliacao()));
+    }
+
+    public void remover(Long id) {
+        indice.remover(id);
+    }
+
+    /**
+     * Restaurantes a até raioKm do CEP, do mais próximo para o mais distante.
+     * Com limite, só os k mais próximos; sem raio, vale o raio máximo.
+     */
+    public List<RestauranteProximoDTO> buscarProximos(String cep, Integer limite, Double raioKm) {
+        if (limite != null && (limite < 1 || limite > limiteMaximo)) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + limiteMaximo);
+        }
+        if (raioKm != null && (raioKm <= 0 || raioKm > raioMaximoKm)) {
+            throw new IllegalArgumentException("Raio deve ser maior que zero e no máximo " + raioMaximoKm + " km");
+        }
+        Coordenada origem = cepService.localizar(cep)
+                .orElseThrow(() -> new EntityNotFoundException("CEP não encontrado na base de referência: " + cep));
+        double raio = raioKm != null ? raioKm : raioMaximoKm;
+
+        List<IndiceEspacial.Resultado<Resumo>> resultados = limite != null
+                ? indice.maisProximos(origem, limite, raio)
+                : indice.dentroDoRaio(origem, raio);
+        return resultados.stream()
+                .map(r -> new RestauranteProximoDTO(r.valor().id(), r.valor().nome(), r.valor().categoria(),
+                        r.valor().endereco(), r.valor().taxaEntrega(), r.valor().avaliacao(),
+                        BigDecimal.valueOf(r.distanciaKm()).setScale(2, RoundingMode.HALF_UP)))
+                .toList();
+    }
+}
@@ -1,15 +1,27 @@
 package com.delivery_api.Projeto.Delivery.API.service;
 
 import java.math.BigDecimal;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 
 import com.delivery_api.Projeto.Delivery.API.dto.request.RestauranteRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.PageCursor;
+import com.delivery_api.Projeto.Delivery.API.dto.response.RestauranteResponseDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.FaixaTaxaEntrega;
+import com.delivery_api.Projeto.Delivery.API.geo.Coordenada;
+import com.delivery_api.Projeto.Delivery.API.repository.FaixaTaxaEntregaRepository;
 import com.delivery_api.Projeto.Delivery.API.projection.RelatorioVendas;
 import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
 import com.delivery_api.Projeto.Delivery.API.repository.ProdutoRepository;
+import com.delivery_api.Projeto.Delivery.API.repository.RestauranteFiltros;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +40,21 @@ public class RestauranteService {
     @Autowired
     private PedidoRepository pedidoRepository;
 
+    @Autowired
+    private VendaHoraService vendaHoraService;
+
+    @Autowired
+    private RestauranteCacheService restauranteCacheService;
+
+    @Autowired
+    private RestauranteGeoService restauranteGeoService;
+
+    @Autowired
+    private TaxaEntregaService taxaEntregaService;
+
+    @Autowired
+    private FaixaTaxaEntregaRepository faixaTaxaEntregaRepository;
+
     /**
      * Cadastrar novo restaurante
      */
@@ -40,7 +67,10 @@ public class RestauranteService {
         validarDadosRestaurante(restaurante);
         restaurante.setAtivo(true);
 
-        return restauranteRepository.save(restaurante);
+        Restaurante salvo = restauranteRepository.save(restaurante);
+        restauranteCacheService.invalidar(salvo.getId());
+        restauranteGeoService.atualizar(salvo);
+        return salvo;
     }
 
     /**
@@ -51,65 +81,61 @@ public class RestauranteService {
         return restauranteRepository.findById(id);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Buscar por ID (cache)
+     */
     public Optional<RestauranteRequestDTO> findById(Long id) {
-        Optional<Restaurante> byId = restauranteRepository.findById(id);
-        if (byId.isEmpty()) {
-            return Optional.empty();
-        }
-        return byId.map(restaurante -> new RestauranteRequestDTO(
-                restaurante.getId(),
-                restaurante.getNome(),
-                restaurante.getCategoria(),
-                restaurante.getEndereco(),
-                restaurante.getTelefone(),
-                restaurante.getTaxaEntrega(),
-                restaurante.getAvaliacao(),
-                restaurante.getAtivo()));
+        return restauranteCacheService.buscarPorId(id);
     }
+
     /**
-     * Listar restaurantes ativos
+     * Listar restaurantes ativos (cache)
      */
-    @Transactional(readOnly = true)
     public List<RestauranteRequestDTO> listarAtivos() {
-        List<Restaurante> byAtivoTrue = restauranteRepository.findByAtivoTrue();
-        if (byAtivoTrue.isEmpty()) {
+        List<RestauranteRequestDTO> ativos = restauranteCacheService.listarAtivos();
+        if (ativos.isEmpty()) {
             throw new IllegalArgumentException("Nenhum restaurante ativo encontrado");
         }
-        return byAtivoTrue.stream()
-                .map(restaurante -> new RestauranteRequestDTO(
-                        restaurante.getId(),
-                        restaurante.getNome(),
-                        restaurante.getCategoria(),
-                        restaurante.getEndereco(),
-                        restaurante.getTelefone(),
-                        restaurante.getTaxaEntrega(),
-                        restaurante.getAvaliacao(),
-                        restaurante.getAtivo()))
-                .toList();
+        return ativos;
     }
 
     /**
-     * Buscar por categoria
+     * Listar restaurantes com filtros combinados (todos opcionais), paginados no banco
      */
     @Transactional(readOnly = true)
+    public Page<RestauranteResponseDTO> listar(String categoria, Boolean ativo, BigDecimal taxaMaxima,
+                                               BigDecimal avaliacaoMinima, Pageable pageable) {
+        Specification<Restaurante> filtro = RestauranteFiltros.de(categoria, ativo, taxaMaxima, avaliacaoMinima);
+        List<RestauranteResponseDTO> conteudo = restauranteRepository.buscarResumos(filtro, pageable);
+        // O COUNT é dispensado quando a própria página mostra que é a última
+        return PageableExecutionUtils.getPage(conteudo, pageable, () -> restauranteRepository.count(filtro));
+    }
+
+    /**
+     * Listar restaurantes ativos com paginação keyset por (nome, id)
+     */
+    @Transactional(readOnly = true)
+    public List<Restaurante> listarAtivosPorCursor(String categoria, PageCursor cursor, int limite) {
+        return restauranteRepository.buscarAtivosPorCursor(categoria,
+                cursor != null ? cursor.chave() : null,
+                cursor != null ? cursor.id() : null,
+                PageRequest.of(0, limite));
+    }
+
+    @Transactional(readOnly = true)
+    public long contarAtivos(String categoria) {
+        return restauranteRepository.contarAtivos(categoria);
+    }
+
+    /**
+     * Buscar por categoria (cache)
+     */
     public List<RestauranteRequestDTO> buscarPorCategoria(String categoria) {
-        List<Restaurante> byCategoria = restauranteRepository.findByCategoria(categoria);
+        List<RestauranteRequestDTO> byCategoria = restauranteCacheService.buscarPorCategoria(categoria);
         if (byCategoria.isEmpty()) {
             throw new IllegalArgumentException("Nenhum restaurante encontrado para a categoria: " + categoria);
         }
-
-        return byCategoria.stream()
-                .map(restaurante -> new RestauranteRequestDTO(
-                        restaurante.getId(),
-                        restaurante.getNome(),
-                        restaurante.getCategoria(),
-                        restaurante.getEndereco(),
-                        restaurante.getTelefone(),
-                        restaurante.getTaxaEntrega(),
-                        restaurante.getAvaliacao(),
-                        restaurante.getAtivo()))
-                .toList();
+        return byCategoria;
     }
 
     /**
@@ -130,8 +156,15 @@ public class RestauranteService {
         restaurante.setEndereco(restauranteAtualizado.getEndereco());
         restaurante.setTelefone(restauranteAtualizado.getTelefone());
         restaurante.setTaxaEntrega(restauranteAtualizado.getTaxaEntrega());
+        validarCoordenadas(restauranteAtualizado);
+        restaurante.setLatitude(restauranteAtualizado.getLatitude());
+        restaurante.setLongitude(restauranteAtualizado.getLongitude());
 
-        return restauranteRepository.save(restaurante);
+        Restaurante salvo = restauranteRepository.save(restaurante);
+        restauranteCacheService.invalidar(id);
+        restauranteGeoService.atualizar(salvo);
+        taxaEntregaService.invalidar(id);
+        return salvo;
     }
 
     /**
@@ -143,6 +176,9 @@ public class RestauranteService {
 
         restaurante.setAtivo(false);
         restauranteRepository.save(restaurante);
+        restauranteCacheService.invalidar(id);
+        restauranteGeoService.remover(id);
+        taxaEntregaService.invalidar(id);
     }
 
     private void validarDadosRestaurante(Restaurante restaurante) {
@@ -154,12 +190,63 @@ public class RestauranteService {
                 restaurante.getTaxaEntrega().compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Taxa de entrega não pode ser negativa");
         }
+
+        validarCoordenadas(restaurante);
+    }
+
+    private void validarCoordenadas(Restaurante restaurante) {
+        if ((restaurante.getLatitude() == null) != (restaurante.getLongitude() == null)) {
+            throw new IllegalArgumentException("Latitude e longitude devem ser informadas juntas");
+        }
+        if (restaurante.getLatitude() != null) {
+            // Coordenada valida os intervalos
+            new Coordenada(restaurante.getLatitude(), restaurante.getLongitude());
+        }
     }
 
     public void deletar(Long id) {
         Restaurante restaurante = buscarPorId(id)
                 .orElseThrow(() -> new IllegalArgumentException("Restaurante não encontrado: " + id));
         restauranteRepository.delete(restaurante);
+        restauranteCacheService.invalidar(id);
+        restauranteGeoService.remover(id);
+        // As faixas próprias são apagadas em cascata no banco
+        taxaEntregaService.definirFaixas(id, List.of());
+    }
+
+    /**
+     * Substituir as faixas de distância próprias do restaurante (lista vazia volta às faixas padrão)
+     */
+    @Transactional
+    public List<FaixaTaxaEntrega> atualizarFaixasTaxaEntrega(Long id, List<FaixaTaxaEntrega> faixas) {
+        buscarPorId(id).orElseThrow(() -> new IllegalArgumentException("Restaurante não encontrado: " + id));
+
+        for (FaixaTaxaEntrega faixa : faixas) {
+            if (faixa.getAteKm() == null || faixa.getAteKm().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Distância da faixa deve ser maior que zero");
+            }
+            if (faixa.getAcrescimo() == null || faixa.getAcrescimo().compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalArgumentException("Acréscimo da faixa não pode ser negativo");
+            }
+        }
+
+        List<FaixaTaxaEntrega> ordenadas = faixas.stream()
+                .sorted(Comparator.comparing(FaixaTaxaEntrega::getAteKm))
+                .toList();
+        BigDecimal anterior = BigDecimal.ZERO;
+        for (FaixaTaxaEntrega faixa : ordenadas) {
+            if (faixa.getAteKm().compareTo(anterior) == 0) {
+                throw new IllegalArgumentException("Faixas com a mesma distância: " + faixa.getAteKm());
+            }
+            anterior = faixa.getAteKm();
+            faixa.setId(null);
+            faixa.setRestauranteId(id);
+        }
+
+        faixaTaxaEntregaRepository.removerPorRestaurante(id);
+        List<FaixaTaxaEntrega> salvas = faixaTaxaEntregaRepository.saveAll(ordenadas);
+        taxaEntregaService.definirFaixas(id, salvas);
+        return salvas;
     }
 
     public List<Restaurante> buscarPorTaxaEntregaMenorOuIgual(BigDecimal taxa) {
@@ -171,7 +258,7 @@ public class RestauranteService {
     }
 
     public List<RelatorioVendas> relatorioVendasPorRestaurante() {
-        return restauranteRepository.relatorioVendasPorRestaurante();
+        return vendaHoraService.relatorioVendasPorRestaurante(null, null);
     }
 }
 
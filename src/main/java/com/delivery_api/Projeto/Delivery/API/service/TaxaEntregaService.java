@@ -0,0 +1,262 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.delivery_api.Projeto.Delivery.API.cache.CacheLru;
+import com.delivery_api.Projeto.Delivery.API.dto.request.RestauranteRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.MetricasCacheRestauranteDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.TaxaEntregaDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.FaixaTaxaEntrega;
+import com.delivery_api.Projeto.Delivery.API.exceptions.EntityNotFoundException;
+import com.delivery_api.Projeto.Delivery.API.geo.Coordenada;
+import com.delivery_api.Projeto.Delivery.API.repository.FaixaTaxaEntregaRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Taxa de entrega por distância: taxa base do restaurante + acréscimo da faixa de distância
+ * entre o restaurante e o CEP. Cada restaurante pode ter faixas próprias; sem elas valem
+ * as faixas padrão (delivery.taxa-entrega.faixas). Além da última faixa não há entrega.
+ * Restaurante sem coordenadas cobra só a taxa base.
+ *
+ * O preço é por zona: a distância é medida até o setor do CEP (5 primeiros dígitos) e o
+ * resultado fica memorizado por (restaurante, setor) num cache LRU. Cada restaurante tem
+ * uma geração que entra na chave e é incrementada a cada alteração do restaurante ou das
+ * suas faixas: a invalidação não percorre o cache, e as cotações da geração anterior deixam
+ * de ser encontradas e saem pela ordem LRU (ou pelo TTL).
+ */
+@Service
+public class TaxaEntregaService {
+
+    private record Faixa(BigDecimal ateKm, BigDecimal acrescimo) {
+    }
+
+    // codigo: setor do CEP, ou o CEP completo quando só ele está na base
+    private record Zona(String codigo, Coordenada coordenada) {
+    }
+
+    private record Chave(Long restauranteId, long geracao, String zona) {
+    }
+
+    // motivo preenchido quando não há entrega
+    private record Cotacao(BigDecimal distanciaKm, BigDecimal taxa, String motivo) {
+    }
+
+    @Autowired
+    private RestauranteCacheService restauranteCacheService;
+
+    @Autowired
+    private CepService cepService;
+
+    @Autowired
+    private FaixaTaxaEntregaRepository faixaTaxaEntregaRepository;
+
+    @Value("${delivery.taxa-entrega.faixas:3:0.00,6:2.00,10:4.00,15:7.00}")
+    private String faixasPadraoConfig;
+
+    @Value("${delivery.taxa-entrega.cache.max-entradas:50000}")
+    private int maxEntradas;
+
+    @Value("${delivery.taxa-entrega.cache.ttl:1h}")
+    private Duration ttl;
+
+    @Value("${delivery.taxa-entrega.lote.max-restaurantes:100}")
+    private int maxRestaurantesLote;
+
+    private List<Faixa> faixasPadrao;
+    private final Map<Long, List<Faixa>> faixasPorRestaurante = new ConcurrentHashMap<>();
+    private final Map<Long, Long> geracoes = new ConcurrentHashMap<>();
+    private CacheLru<Chave, Cotacao> cotacoes;
+
+    @PostConstruct
+    void iniciar() {
+        List<Faixa> faixas = new ArrayList<>();
+        for (String faixa : faixasPadraoConfig.split(",")) {
+            String[] partes = faixa.trim().split(":");
+            if (partes.length != 2) {
+                throw new IllegalStateException("Faixa de taxa de entrega inválida: " + faixa);
+            }
+            faixas.add(new Faixa(new BigDecimal(partes[0].trim()), new BigDecimal(partes[1].trim())));
+        }
+        faixasPadrao = ordenadas(faixas);
+        cotacoes = new CacheLru<>(maxEntradas, ttl);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarFaixas() {
+        faixaTaxaEntregaRepository.findAll(Sort.by("restauranteId", "ateKm")).stream()
+                .collect(Collectors.groupingBy(FaixaTaxaEntrega::getRestauranteId))
+                .forEach((restauranteId, faixas) -> faixasPorRestaurante.put(restauranteId, paraFaixas(faixas)));
+    }
+
+    /**
+     * Taxa de entrega de um restaurante para o CEP
+     */
+    public TaxaEntregaDTO calcular(Long restauranteId, String cep) {
+        Zona zona = zona(cep);
+        long geracao = geracao(restauranteId);
+        RestauranteRequestDTO restaurante = restauranteCacheService.buscarPorId(restauranteId)
+                .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado: " + restauranteId));
+        return paraDTO(restauranteId, cep, cotar(restaurante, geracao, zona));
+    }
+
+    /**
+     * Taxa a cobrar num pedido entregue no CEP: a mesma cotação (e a mesma entrada do cache)
+     * de calcular. CEP fora da base ou fora da área de entrega é dado inválido do pedido.
+     */
+    public BigDecimal taxaPedido(Long restauranteId, String cep) {
+        String digitos = CepService.normalizar(cep);
+        Zona zona = localizar(digitos)
+                .orElseThrow(() -> new IllegalArgumentException("CEP de entrega não encontrado na base de referência: " + cep));
+        long geracao = geracao(restauranteId);
+        RestauranteRequestDTO restaurante = restauranteCacheService.buscarPorId(restauranteId)
+                .orElseThrow(() -> new IllegalArgumentException("Restaurante não encontrado: " + restauranteId));
+        Cotacao cotacao = cotar(restaurante, geracao, zona);
+        if (cotacao.motivo() != null) {
+            throw new IllegalArgumentException(cotacao.motivo() + ": CEP " + digitos);
+        }
+        return cotacao.taxa();
+    }
+
+    /**
+     * Taxas de vários restaurantes para o mesmo CEP, na ordem pedida. Restaurante
+     * inexistente vem como indisponível em vez de falhar o lote.
+     */
+    public List<TaxaEntregaDTO> calcularLote(String cep, List<Long> restauranteIds) {
+        if (restauranteIds == null || restauranteIds.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um restaurante");
+        }
+        List<Long> ids = restauranteIds.stream().distinct().toList();
+        if (ids.size() > maxRestaurantesLote) {
+            throw new IllegalArgumentException("Lote excede o limite de " + maxRestaurantesLote + " restaurantes");
+        }
+
+        Zona zona = zona(cep);
+        String digitos = CepService.normalizar(cep);
+        return ids.stream()
+                .map(id -> {
+                    long geracao = geracao(id);
+                    return restauranteCacheService.buscarPorId(id)
+                            .map(restaurante -> paraDTO(id, digitos, cotar(restaurante, geracao, zona)))
+                            .orElseGet(() -> new TaxaEntregaDTO(id, digitos, null, null, false, "Restaurante não encontrado"));
+                })
+                .toList();
+    }
+
+    /**
+     * Descartar as taxas memorizadas do restaurante (agora e, dentro de uma transação, após o commit)
+     */
+    public void invalidar(Long restauranteId) {
+        Runnable descartar = () -> novaGeracao(restauranteId);
+        descartar.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            aposCommit(descartar);
+        }
+    }
+
+    /**
+     * Trocar as faixas próprias do restaurante (lista vazia volta às faixas padrão).
+     * Dentro de uma transação, vale só após o commit.
+     */
+    public void definirFaixas(Long restauranteId, List<FaixaTaxaEntrega> faixas) {
+        aposCommit(() -> {
+            if (faixas.isEmpty()) {
+                faixasPorRestaurante.remove(restauranteId);
+            } else {
+                faixasPorRestaurante.put(restauranteId, paraFaixas(faixas));
+            }
+            novaGeracao(restauranteId);
+        });
+    }
+
+    public MetricasCacheRestauranteDTO metricas() {
+        return MetricasCacheRestauranteDTO.de("taxas-entrega", cotacoes);
+    }
+
+    private void novaGeracao(Long restauranteId) {
+        geracoes.merge(restauranteId, 1L, Long::sum);
+    }
+
+    // Lida antes do restaurante: uma cotação calculada com dados anteriores a uma alteração
+    // fica guardada na geração antiga, que ninguém mais consulta
+    private long geracao(Long restauranteId) {
+        return geracoes.getOrDefault(restauranteId, 0L);
+    }
+
+    private Cotacao cotar(RestauranteRequestDTO restaurante, long geracao, Zona zona) {
+        return cotacoes.obter(new Chave(restaurante.getId(), geracao, zona.codigo()),
+                chave -> calcularCotacao(restaurante, zona.coordenada()));
+    }
+
+    private Cotacao calcularCotacao(RestauranteRequestDTO restaurante, Coordenada destino) {
+        if (!Boolean.TRUE.equals(restaurante.getAtivo())) {
+            return new Cotacao(null, null, "Restaurante não está disponível");
+        }
+        BigDecimal base = restaurante.getTaxaEntrega() != null ? restaurante.getTaxaEntrega() : BigDecimal.ZERO;
+        if (restaurante.getLatitude() == null || restaurante.getLongitude() == null) {
+            return new Cotacao(null, base.setScale(2, RoundingMode.HALF_UP), null);
+        }
+
+        BigDecimal distancia = BigDecimal.valueOf(
+                new Coordenada(restaurante.getLatitude(), restaurante.getLongitude()).distanciaKm(destino))
+                .setScale(2, RoundingMode.HALF_UP);
+        for (Faixa faixa : faixasPorRestaurante.getOrDefault(restaurante.getId(), faixasPadrao)) {
+            if (distancia.compareTo(faixa.ateKm()) <= 0) {
+                return new Cotacao(distancia, base.add(faixa.acrescimo()).setScale(2, RoundingMode.HALF_UP), null);
+            }
+        }
+        return new Cotacao(distancia, null, "Fora da área de entrega do restaurante");
+    }
+
+    private Zona zona(String cep) {
+        return localizar(CepService.normalizar(cep))
+                .orElseThrow(() -> new EntityNotFoundException("CEP não encontrado na base de referência: " + cep));
+    }
+
+    private Optional<Zona> localizar(String digitos) {
+        return cepService.localizarSetor(digitos)
+                .map(coordenada -> new Zona(digitos.substring(0, 5), coordenada))
+                .or(() -> cepService.localizar(digitos).map(coordenada -> new Zona(digitos, coordenada)));
+    }
+
+    private static TaxaEntregaDTO paraDTO(Long restauranteId, String cep, Cotacao cotacao) {
+        return new TaxaEntregaDTO(restauranteId, CepService.normalizar(cep), cotacao.distanciaKm(), cotacao.taxa(),
+                cotacao.motivo() == null, cotacao.motivo());
+    }
+
+    private static List<Faixa> paraFaixas(List<FaixaTaxaEntrega> faixas) {
+        return ordenadas(faixas.stream().map(f -> new Faixa(f.getAteKm(), f.getAcrescimo())).toList());
+    }
+
+    private static List<Faixa> ordenadas(List<Faixa> faixas) {
+        return faixas.stream().sorted((a, b) -> a.ateKm().compareTo(b.ateKm())).toList();
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.event.PedidoCriadoEvent;
+import com.delivery_api.Projeto.Delivery.API.event.StatusPedidoAlteradoEvent;
+import com.delivery_api.Projeto.Delivery.API.projection.RelatorioVendas;
+import com.delivery_api.Projeto.Delivery.API.repository.VendaHoraRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Mantém o agregado de vendas por hora (vendas_hora). Os listeners são síncronos:
+ * rodam dentro da transação que grava o pedido, então o agregado nunca diverge dos pedidos.
+ */
+@Service
+public class VendaHoraService {
+
+    @Autowired
+    private VendaHoraRepository vendaHoraRepository;
+
+    @EventListener
+    public void onPedidoCriado(PedidoCriadoEvent event) {
+        Pedido pedido = event.pedido();
+        acumular(pedido, pedido.getStatus(), 1, valor(pedido));
+    }
+
+    // Move o pedido do balde do status anterior para o do novo status
+    @EventListener
+    public void onStatusAlterado(StatusPedidoAlteradoEvent event) {
+        Pedido pedido = event.pedido();
+        BigDecimal valor = valor(pedido);
+        acumular(pedido, event.statusAnterior().name(), -1, valor.negate());
+        acumular(pedido, event.novoStatus().name(), 1, valor);
+    }
+
+    /**
+     * Relatório de vendas por restaurante. O período tem granularidade de hora:
+     * inclui os baldes cuja hora está entre o início e o fim informados.
+     */
+    @Transactional(readOnly = true)
+    public List<RelatorioVendas> relatorioVendasPorRestaurante(LocalDateTime inicio, LocalDateTime fim) {
+        return vendaHoraRepository.relatorioVendasPorRestaurante(
+                inicio != null ? balde(inicio) : null,
+                fim != null ? balde(fim) : null);
+    }
+
+    private void acumular(Pedido pedido, String status, long quantidade, BigDecimal valor) {
+        vendaHoraRepository.acumular(pedido.getRestaurante().getId(), balde(pedido.getDataPedido()),
+                status, quantidade, valor);
+    }
+
+    private static LocalDateTime balde(LocalDateTime data) {
+        return data.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static BigDecimal valor(Pedido pedido) {
+        return pedido.getValorTotal() != null ? pedido.getValorTotal() : BigDecimal.ZERO;
+    }
+}
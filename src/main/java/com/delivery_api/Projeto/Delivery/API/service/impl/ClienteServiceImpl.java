@@ -2,12 +2,14 @@ package com.delivery_api.Projeto.Delivery.API.service.impl;
 
 import com.delivery_api.Projeto.Delivery.API.dto.request.ClienteRequestDTO;
 import com.delivery_api.Projeto.Delivery.API.dto.response.ClienteResponseDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.response.PageCursor;
 import com.delivery_api.Projeto.Delivery.API.entity.Cliente;
 import com.delivery_api.Projeto.Delivery.API.exceptions.BusinessException;
 import com.delivery_api.Projeto.Delivery.API.repository.ClienteRepository;
 import com.delivery_api.Projeto.Delivery.API.service.ClienteService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -70,13 +72,34 @@ public class ClienteServiceImpl implements ClienteService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ClienteResponseDTO> listarAtivos() {
-        return List.of();
+        return clienteRepository.findByAtivoTrue().stream()
+                .map(cliente -> modelMapper.map(cliente, ClienteResponseDTO.class))
+                .toList();
     }
 
     @Override
     public List<ClienteResponseDTO> buscarPorNome(String nome) {
         return List.of();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClienteResponseDTO> listarAtivosPorCursor(PageCursor cursor, int limite) {
+        return clienteRepository.buscarAtivosPorCursor(
+                        cursor != null ? cursor.chave() : null,
+                        cursor != null ? cursor.id() : null,
+                        PageRequest.of(0, limite))
+                .stream()
+                .map(cliente -> modelMapper.map(cliente, ClienteResponseDTO.class))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long contarAtivos() {
+        return clienteRepository.countByAtivoTrue();
+    }
 }
 
@@ -0,0 +1,131 @@
+package com.delivery_api.Projeto.Delivery.API.sketch;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * HyperLogLog com precisão 12: 4096 registradores de 1 byte, erro padrão de
+ * 1,04 / sqrt(4096) ≈ 1,6% na estimativa de elementos distintos, independente da
+ * cardinalidade. A união de dois sketches (máximo registrador a registrador) é exata,
+ * então sketches diários podem ser combinados em qualquer período.
+ *
+ * Não é thread-safe.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISAO = 12;
+    public static final double ERRO_PADRAO = 1.04 / Math.sqrt(1 << PRECISAO);
+
+    private static final int REGISTRADORES = 1 << PRECISAO;
+    private static final double ALFA = 0.7213 / (1 + 1.079 / REGISTRADORES);
+
+    private final byte[] registradores;
+
+    public HyperLogLog() {
+        this(new byte[REGISTRADORES]);
+    }
+
+    private HyperLogLog(byte[] registradores) {
+        this.registradores = registradores;
+    }
+
+    public void adicionar(long valor) {
+        long hash = misturar(valor);
+        int indice = (int) (hash >>> (64 - PRECISAO));
+        // Posição do primeiro bit 1 nos bits restantes
+        byte posicao = (byte) (Math.min(Long.numberOfLeadingZeros(hash << PRECISAO), 64 - PRECISAO) + 1);
+        if (posicao > registradores[indice]) {
+            registradores[indice] = posicao;
+        }
+    }
+
+    public void unir(HyperLogLog outro) {
+        for (int i = 0; i < REGISTRADORES; i++) {
+            if (outro.registradores[i] > registradores[i]) {
+                registradores[i] = outro.registradores[i];
+            }
+        }
+    }
+
+    public long estimar() {
+        double soma = 0;
+        int zerados = 0;
+        for (byte registrador : registradores) {
+            soma += 1.0 / (1L << registrador);
+            if (registrador == 0) {
+                zerados++;
+            }
+        }
+        double estimativa = ALFA * REGISTRADORES * REGISTRADORES / soma;
+        // Correção para cardinalidades pequenas (linear counting)
+        if (estimativa <= 2.5 * REGISTRADORES && zerados > 0) {
+            estimativa = REGISTRADORES * Math.log((double) REGISTRADORES / zerados);
+        }
+        return Math.round(estimativa);
+    }
+
+    public HyperLogLog copiar() {
+        return new HyperLogLog(registradores.clone());
+    }
+
+    /**
+     * Serializa comprimido: poucos clientes por dia deixam a maior parte dos
+     * registradores zerada, e o Deflate reduz o sketch a algumas dezenas de bytes
+     */
+    public byte[] comprimir() {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(registradores);
+            deflater.finish();
+            ByteArrayOutputStream saida = new ByteArrayOutputStream(256);
+            saida.write(PRECISAO);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                saida.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return saida.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static HyperLogLog descomprimir(byte[] dados) {
+        if (dados.length == 0 || dados[0] != PRECISAO) {
+            throw new IllegalArgumentException("Sketch HyperLogLog com precisão incompatível");
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(dados, 1, dados.length - 1);
+            byte[] registradores = new byte[REGISTRADORES];
+            int lidos = 0;
+            while (lidos < REGISTRADORES && !inflater.finished()) {
+                int n = inflater.inflate(registradores, lidos, REGISTRADORES - lidos);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                lidos += n;
+            }
+            if (lidos != REGISTRADORES) {
+                throw new IllegalArgumentException("Sketch HyperLogLog truncado");
+            }
+            return new HyperLogLog(registradores);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Sketch HyperLogLog inválido", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // Finalizador do MurmurHash3 (fmix64): espalha IDs sequenciais por todos os bits
+    private static long misturar(long valor) {
+        long h = valor;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53fe3a5L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
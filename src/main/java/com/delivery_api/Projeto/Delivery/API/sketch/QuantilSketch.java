@@ -0,0 +1,205 @@
+package com.delivery_api.Projeto.Delivery.API.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Sketch de quantis com baldes logarítmicos (no estilo do DDSketch): o balde i conta os
+ * valores em (γ^(i-1), γ^i], com γ = (1 + α) / (1 - α). Qualquer quantil é devolvido
+ * com erro relativo de no máximo α = 1% sobre o valor real, a inserção é O(1) e a união
+ * soma os contadores balde a balde, então sketches de períodos diferentes são combináveis.
+ *
+ * Valores de 0,01 a 10^6 ocupam cerca de 1000 baldes. Valores menores ou iguais a zero
+ * são contados à parte. Um valor pode ser removido (contagem negativa num incremento, que
+ * a união desconta do sketch gravado); mínimo e máximo seguem sendo os de tudo o que já foi
+ * adicionado. Não é thread-safe.
+ */
+public final class QuantilSketch {
+
+    public static final double PRECISAO_RELATIVA = 0.01;
+
+    private static final byte VERSAO = 1;
+    private static final double GAMA = (1 + PRECISAO_RELATIVA) / (1 - PRECISAO_RELATIVA);
+    private static final double LOG_GAMA = Math.log(GAMA);
+
+    // contagens[k] é o balde de índice deslocamento + k
+    private long[] contagens = new long[0];
+    private int deslocamento;
+    private long zeros;
+    private long total;
+    private double minimo = Double.POSITIVE_INFINITY;
+    private double maximo = Double.NEGATIVE_INFINITY;
+
+    public void adicionar(double valor) {
+        total++;
+        minimo = Math.min(minimo, valor);
+        maximo = Math.max(maximo, valor);
+        if (valor <= 0) {
+            zeros++;
+            return;
+        }
+        int indice = (int) Math.ceil(Math.log(valor) / LOG_GAMA);
+        garantir(indice, indice);
+        contagens[indice - deslocamento]++;
+    }
+
+    /**
+     * Desconta um valor adicionado antes (neste sketch ou num sketch que será unido a este)
+     */
+    public void remover(double valor) {
+        total--;
+        if (valor <= 0) {
+            zeros--;
+            return;
+        }
+        int indice = (int) Math.ceil(Math.log(valor) / LOG_GAMA);
+        garantir(indice, indice);
+        contagens[indice - deslocamento]--;
+    }
+
+    // Sem atalho para total == 0: um incremento com uma adição e uma remoção soma zero,
+    // mas ainda move contagens entre baldes
+    public void unir(QuantilSketch outro) {
+        if (outro.contagens.length > 0) {
+            garantir(outro.deslocamento, outro.deslocamento + outro.contagens.length - 1);
+            for (int k = 0; k < outro.contagens.length; k++) {
+                contagens[outro.deslocamento + k - deslocamento] += outro.contagens[k];
+            }
+        }
+        zeros += outro.zeros;
+        total += outro.total;
+        minimo = Math.min(minimo, outro.minimo);
+        maximo = Math.max(maximo, outro.maximo);
+    }
+
+    /**
+     * Valor do quantil q (0 a 1), ou null sem amostras
+     */
+    public Double quantil(double q) {
+        if (total == 0) {
+            return null;
+        }
+        long posicao = (long) Math.floor(q * (total - 1));
+        long acumulado = zeros;
+        if (posicao < acumulado) {
+            return Math.max(minimo, Math.min(0, maximo));
+        }
+        for (int k = 0; k < contagens.length; k++) {
+            acumulado += contagens[k];
+            if (posicao < acumulado) {
+                // Ponto do balde com erro relativo simétrico em relação às bordas
+                double valor = 2 * Math.pow(GAMA, deslocamento + k) / (GAMA + 1);
+                return Math.max(minimo, Math.min(valor, maximo));
+            }
+        }
+        return maximo;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Double getMinimo() {
+        return total > 0 ? minimo : null;
+    }
+
+    public Double getMaximo() {
+        return total > 0 ? maximo : null;
+    }
+
+    public QuantilSketch copiar() {
+        QuantilSketch copia = new QuantilSketch();
+        copia.unir(this);
+        return copia;
+    }
+
+    /**
+     * Serializa comprimido, com os contadores em varint
+     */
+    public byte[] comprimir() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeByte(VERSAO);
+            escreverVarLong(out, total);
+            escreverVarLong(out, zeros);
+            out.writeDouble(minimo);
+            out.writeDouble(maximo);
+            out.writeInt(deslocamento);
+            escreverVarLong(out, contagens.length);
+            for (long contagem : contagens) {
+                escreverVarLong(out, contagem);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static QuantilSketch descomprimir(byte[] dados) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(dados)))) {
+            if (in.readByte() != VERSAO) {
+                throw new IllegalArgumentException("Versão de sketch de quantis desconhecida");
+            }
+            QuantilSketch sketch = new QuantilSketch();
+            sketch.total = lerVarLong(in);
+            sketch.zeros = lerVarLong(in);
+            sketch.minimo = in.readDouble();
+            sketch.maximo = in.readDouble();
+            sketch.deslocamento = in.readInt();
+            sketch.contagens = new long[(int) lerVarLong(in)];
+            for (int k = 0; k < sketch.contagens.length; k++) {
+                sketch.contagens[k] = lerVarLong(in);
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Sketch de quantis inválido", e);
+        }
+    }
+
+    // Amplia o vetor para cobrir os índices [menor, maior]; cresce com folga para amortizar as cópias
+    private void garantir(int menor, int maior) {
+        if (contagens.length == 0) {
+            deslocamento = menor;
+            contagens = new long[maior - menor + 1];
+            return;
+        }
+        int primeiro = deslocamento;
+        int ultimo = deslocamento + contagens.length - 1;
+        if (menor >= primeiro && maior <= ultimo) {
+            return;
+        }
+        int folga = Math.max(8, contagens.length / 4);
+        int novoPrimeiro = menor < primeiro ? menor - folga : primeiro;
+        int novoUltimo = maior > ultimo ? maior + folga : ultimo;
+        long[] novas = new long[novoUltimo - novoPrimeiro + 1];
+        System.arraycopy(contagens, 0, novas, primeiro - novoPrimeiro, contagens.length);
+        contagens = novas;
+        deslocamento = novoPrimeiro;
+    }
+
+    private static void escreverVarLong(DataOutputStream out, long valor) throws IOException {
+        while ((valor & ~0x7FL) != 0) {
+            out.writeByte((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        out.writeByte((int) valor);
+    }
+
+    private static long lerVarLong(DataInputStream in) throws IOException {
+        long valor = 0;
+        for (int deslocamentoBits = 0; deslocamentoBits < 64; deslocamentoBits += 7) {
+            byte b = in.readByte();
+            valor |= (long) (b & 0x7F) << deslocamentoBits;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("varint longo demais");
+    }
+}
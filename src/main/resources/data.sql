@@ -8,10 +8,10 @@ INSERT INTO clientes (nome, email, telefone, endereco, data_cadastro, ativo) VAL
 ('Pedro Oliveira', 'pedro@email.com', '(11) 99999-3333', 'Rua C, 789 - São Paulo/SP', CURRENT_TIMESTAMP, true);
 
 -- Inserir restaurantes
-INSERT INTO restaurantes (nome, categoria, endereco, telefone, taxa_entrega, avaliacao, ativo) VALUES
-('Pizzaria Bella', 'Italiana', 'Av. Paulista, 1000 - São Paulo/SP', '(11) 3333-1111', 5.00, 4.5, true),
-('Burger House', 'Hamburgueria', 'Rua Augusta, 500 - São Paulo/SP', '(11) 3333-2222', 3.50, 4.2, true),
-('Sushi Master', 'Japonesa', 'Rua Liberdade, 200 - São Paulo/SP', '(11) 3333-3333', 8.00, 4.8, true);
+INSERT INTO restaurantes (nome, categoria, endereco, telefone, taxa_entrega, avaliacao, ativo, latitude, longitude) VALUES
+('Pizzaria Bella', 'Italiana', 'Av. Paulista, 1000 - São Paulo/SP', '(11) 3333-1111', 5.00, 4.5, true, -23.5646, -46.6527),
+('Burger House', 'Hamburgueria', 'Rua Augusta, 500 - São Paulo/SP', '(11) 3333-2222', 3.50, 4.2, true, -23.5503, -46.6466),
+('Sushi Master', 'Japonesa', 'Rua Liberdade, 200 - São Paulo/SP', '(11) 3333-3333', 8.00, 4.8, true, -23.5560, -46.6355);
 
 -- Inserir produtos
 INSERT INTO produtos (nome, descricao, preco, categoria, disponivel, restaurante_id) VALUES
@@ -31,9 +31,30 @@ INSERT INTO produtos (nome, descricao, preco, categoria, disponivel, restaurante
 ('Temaki Atum', 'Temaki de atum com cream cheese', 15.90, 'Temaki', true, 3);
 
 -- Inserir pedidos de exemplo
-INSERT INTO pedidos (numero_pedido, data_pedido, status, valor_total, observacoes, cliente_id, restaurante_id, itens) VALUES
-('PED1234567890', CURRENT_TIMESTAMP, 'PENDENTE', 54.80, 'Sem cebola na pizza', 1, 1, 'Pizza Margherita, Pizza Calabresa'),
-('PED1234567891', CURRENT_TIMESTAMP, 'CONFIRMADO', 41.80, '', 2, 2, 'X-Burger, Batata Frita'),
-('PED1234567892', CURRENT_TIMESTAMP, 'ENTREGUE', 78.80, 'Wasabi à parte', 3, 3, 'Combo Sashimi, Hot Roll Salmão, Temaki Atum');
-
-
+INSERT INTO pedidos (numero_pedido, data_pedido, status, valor_total, observacoes, cliente_id, restaurante_id) VALUES
+('PED1234567890', CURRENT_TIMESTAMP, 'PENDENTE', 79.80, 'Sem cebola na pizza', 1, 1),
+('PED1234567891', CURRENT_TIMESTAMP, 'CONFIRMADO', 35.30, '', 2, 2),
+('PED1234567892', CURRENT_TIMESTAMP, 'ENTREGUE', 102.70, 'Wasabi à parte', 3, 3);
+
+-- Inserir itens dos pedidos
+INSERT INTO pedido_itens (pedido_id, linha, produto_id, quantidade, preco_unitario) VALUES
+(1, 1, 1, 1, 35.90),
+(1, 2, 2, 1, 38.90),
+(2, 1, 4, 1, 18.90),
+(2, 2, 6, 1, 12.90),
+(3, 1, 7, 1, 45.90),
+(3, 2, 8, 1, 32.90),
+(3, 3, 9, 1, 15.90);
+
+-- Agregado de vendas por hora dos pedidos de exemplo (mesma regra de VendaHoraService)
+INSERT INTO vendas_hora (restaurante_id, hora, status, quantidade_pedidos, valor_total)
+SELECT restaurante_id, DATE_FORMAT(data_pedido, '%Y-%m-%d %H:00:00'), status, COUNT(*), SUM(valor_total)
+FROM pedidos
+GROUP BY restaurante_id, DATE_FORMAT(data_pedido, '%Y-%m-%d %H:00:00'), status;
+
+-- Resumo por cliente dos pedidos de exemplo (mesma regra de ClienteResumoService)
+INSERT INTO cliente_resumo (cliente_id, total_pedidos, valor_total, ultimo_pedido)
+SELECT cliente_id, COUNT(*), SUM(valor_total), MAX(data_pedido)
+FROM pedidos
+WHERE status <> 'CANCELADO'
+GROUP BY cliente_id;
@@ -8,6 +8,9 @@ CREATE TABLE clientes (
     ativo BOOLEAN
 );
 
+CREATE UNIQUE INDEX uk_clientes_email ON clientes (email);
+CREATE INDEX idx_clientes_ativo_nome ON clientes (ativo, nome);
+
 CREATE TABLE restaurantes (
     id INT AUTO_INCREMENT PRIMARY KEY,
     nome VARCHAR(100) NOT NULL,
@@ -16,9 +19,16 @@ CREATE TABLE restaurantes (
     telefone VARCHAR(20),
     taxa_entrega DECIMAL(10,2),
     avaliacao DECIMAL(2,1),
-    ativo BOOLEAN
+    ativo BOOLEAN,
+    latitude DOUBLE,
+    longitude DOUBLE
 );
 
+CREATE INDEX idx_restaurantes_ativo_nome ON restaurantes (ativo, nome);
+CREATE INDEX idx_restaurantes_categoria_ativo_nome ON restaurantes (categoria, ativo, nome);
+CREATE UNIQUE INDEX uk_restaurantes_nome ON restaurantes (nome);
+CREATE INDEX idx_restaurantes_taxa_entrega ON restaurantes (taxa_entrega);
+
 CREATE TABLE produtos (
     id INT AUTO_INCREMENT PRIMARY KEY,
     nome VARCHAR(100) NOT NULL,
@@ -29,17 +39,109 @@ CREATE TABLE produtos (
     restaurante_id INT
 );
 
+CREATE INDEX idx_produtos_restaurante ON produtos (restaurante_id);
+CREATE INDEX idx_produtos_categoria ON produtos (categoria);
+CREATE INDEX idx_produtos_preco ON produtos (preco);
+
 CREATE TABLE pedidos (
     id INT AUTO_INCREMENT PRIMARY KEY,
     numero_pedido VARCHAR(20) NOT NULL,
     data_pedido TIMESTAMP,
     status VARCHAR(20),
+    status_anterior VARCHAR(20),
+    versao BIGINT NOT NULL DEFAULT 0,
     valor_total DECIMAL(10,2),
     observacoes VARCHAR(200),
     cliente_id INT,
     restaurante_id INT,
-    itens VARCHAR(200),
     FOREIGN KEY (cliente_id) REFERENCES clientes(id),
     FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id)
 );
 
+CREATE TABLE pedido_itens (
+    pedido_id INT NOT NULL,
+    linha INT NOT NULL,
+    produto_id INT NOT NULL,
+    quantidade INT NOT NULL,
+    preco_unitario DECIMAL(10,2) NOT NULL,
+    PRIMARY KEY (pedido_id, linha),
+    FOREIGN KEY (pedido_id) REFERENCES pedidos(id),
+    FOREIGN KEY (produto_id) REFERENCES produtos(id)
+);
+
+CREATE INDEX idx_pedidos_restaurante_data ON pedidos (restaurante_id, data_pedido);
+CREATE INDEX idx_pedidos_data_status ON pedidos (data_pedido, status, valor_total);
+CREATE INDEX idx_pedidos_status_data ON pedidos (status, data_pedido);
+CREATE INDEX idx_pedidos_cliente_data ON pedidos (cliente_id, data_pedido);
+CREATE INDEX idx_pedidos_restaurante_status_data ON pedidos (restaurante_id, status, data_pedido);
+
+CREATE TABLE idempotencia_chaves (
+    chave VARCHAR(100) PRIMARY KEY,
+    hash_requisicao CHAR(64) NOT NULL,
+    status_http INT,
+    content_type VARCHAR(100),
+    corpo MEDIUMTEXT,
+    criado_em TIMESTAMP NOT NULL,
+    expira_em TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotencia_expira ON idempotencia_chaves (expira_em);
+
+CREATE TABLE vendas_hora (
+    restaurante_id INT NOT NULL,
+    hora TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    quantidade_pedidos BIGINT NOT NULL,
+    valor_total DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (restaurante_id, hora, status),
+    FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id)
+);
+
+CREATE INDEX idx_vendas_hora_hora ON vendas_hora (hora, restaurante_id);
+
+CREATE TABLE cliente_resumo (
+    cliente_id INT PRIMARY KEY,
+    total_pedidos BIGINT NOT NULL,
+    valor_total DECIMAL(14,2) NOT NULL,
+    ultimo_pedido TIMESTAMP NULL,
+    FOREIGN KEY (cliente_id) REFERENCES clientes(id)
+);
+
+CREATE INDEX idx_cliente_resumo_pedidos ON cliente_resumo (total_pedidos, cliente_id);
+CREATE INDEX idx_cliente_resumo_valor ON cliente_resumo (valor_total, cliente_id);
+
+CREATE TABLE clientes_unicos_dia (
+    restaurante_id INT NOT NULL,
+    dia DATE NOT NULL,
+    sketch BLOB NOT NULL,
+    PRIMARY KEY (restaurante_id, dia),
+    FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id)
+);
+
+CREATE INDEX idx_clientes_unicos_dia_dia ON clientes_unicos_dia (dia, restaurante_id);
+
+CREATE TABLE marcas_agregado (
+    agregado VARCHAR(50) PRIMARY KEY,
+    pedido_id BIGINT NOT NULL
+);
+
+CREATE TABLE distribuicao_dia (
+    restaurante_id INT NOT NULL,
+    dia DATE NOT NULL,
+    metrica VARCHAR(20) NOT NULL,
+    sketch BLOB NOT NULL,
+    PRIMARY KEY (restaurante_id, dia, metrica),
+    FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id)
+);
+
+CREATE INDEX idx_distribuicao_dia_metrica ON distribuicao_dia (metrica, dia, restaurante_id);
+
+CREATE TABLE taxa_entrega_faixas (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    restaurante_id INT NOT NULL,
+    ate_km DECIMAL(5,2) NOT NULL,
+    acrescimo DECIMAL(10,2) NOT NULL,
+    FOREIGN KEY (restaurante_id) REFERENCES restaurantes(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_taxa_entrega_faixas_restaurante ON taxa_entrega_faixas (restaurante_id, ate_km);
@@ -0,0 +1,162 @@
+package com.delivery_api.Projeto.Delivery.API.benchmark;
+
+import com.delivery_api.Projeto.Delivery.API.ProjetoDeliveryApiApplication;
+import com.delivery_api.Projeto.Delivery.API.dto.request.ItemPedidoRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.request.PedidoRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compara throughput e p99 de criarPedido e buscarPorId com threads de plataforma e com
+ * threads virtuais, subindo a aplicação uma vez em cada modo contra o MySQL local.
+ * Os contextos não executam schema.sql/data.sql (os CREATE TABLE falhariam num banco já
+ * criado): o banco precisa ter sido inicializado antes, p.ex. subindo a aplicação uma vez.
+ *
+ * Não roda no build (o nome não segue o padrão do surefire). Execução:
+ *   mvn -Pvirtual test -Dtest=PedidoCargaBenchmark -Dbenchmark=true
+ * O profile virtual ativa -Djdk.tracePinnedThreads=short: pilhas impressas durante a
+ * execução indicam pontos em que uma thread virtual prendeu o carrier. A aplicação tem
+ * blocos synchronized (CacheLru, IndiceEspacial, sketches de clientes únicos e de
+ * distribuição), todos curtos e sem I/O; pinning com espera de I/O vem de bibliotecas.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PedidoCargaBenchmark {
+
+    private static final int CONCORRENCIA = Integer.getInteger("benchmark.concorrencia", 1000);
+    private static final int REQUISICOES = Integer.getInteger("benchmark.requisicoes", 20000);
+    private static final int AQUECIMENTO = 2000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final AtomicInteger sequencia = new AtomicInteger();
+
+    @Test
+    public void compararModos() throws Exception {
+        List<String> linhas = new ArrayList<>();
+        for (boolean virtual : new boolean[] {false, true}) {
+            try (ConfigurableApplicationContext context = iniciar(virtual)) {
+                String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                String modo = virtual ? "virtual" : "plataforma";
+
+                executar(base, this::criarPedido, AQUECIMENTO);
+                linhas.add(formatar(modo, "criarPedido", executar(base, this::criarPedido, REQUISICOES)));
+
+                executar(base, this::buscarPorId, AQUECIMENTO);
+                linhas.add(formatar(modo, "buscarPorId", executar(base, this::buscarPorId, REQUISICOES)));
+            }
+        }
+
+        System.out.printf("%nconcorrência=%d requisições=%d%n", CONCORRENCIA, REQUISICOES);
+        System.out.printf("%-11s %-12s %10s %9s %9s %7s%n", "modo", "endpoint", "req/s", "p50(ms)", "p99(ms)", "erros");
+        linhas.forEach(System.out::println);
+    }
+
+    private ConfigurableApplicationContext iniciar(boolean virtual) {
+        return new SpringApplicationBuilder(ProjetoDeliveryApiApplication.class)
+                .profiles(virtual ? "virtual" : "default")
+                .properties(
+                        "server.port=0",
+                        "spring.sql.init.mode=never",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.org.springframework.web=WARN",
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration")
+                .run();
+    }
+
+    private Resultado executar(String base, Requisicao requisicao, int total) throws Exception {
+        long[] latencias = new long[total];
+        AtomicInteger proxima = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> trabalhadores = new ArrayList<>();
+            for (int t = 0; t < CONCORRENCIA; t++) {
+                trabalhadores.add(executor.submit(() -> {
+                    int i;
+                    while ((i = proxima.getAndIncrement()) < total) {
+                        HttpRequest request = requisicao.criar(base, i);
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> resposta = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (resposta.statusCode() >= 300) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                        }
+                        latencias[i] = System.nanoTime() - t0;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> trabalhador : trabalhadores) {
+                trabalhador.get();
+            }
+        }
+        long duracao = System.nanoTime() - inicio;
+
+        Arrays.sort(latencias);
+        return new Resultado(total * 1_000_000_000.0 / duracao,
+                latencias[(int) (total * 0.50)] / 1_000_000.0,
+                latencias[Math.min(total - 1, (int) (total * 0.99))] / 1_000_000.0,
+                erros.get());
+    }
+
+    private HttpRequest criarPedido(String base, int i) {
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setNumeroPedido("BENCH" + sequencia.incrementAndGet());
+        dto.setClienteId(1L);
+        dto.setRestauranteId(1L);
+        dto.setItens(List.of(new ItemPedidoRequestDTO(1L, 1)));
+        try {
+            return HttpRequest.newBuilder(URI.create(base + "/api/pedidos"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(dto)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest buscarPorId(String base, int i) {
+        // Pedidos 1 a 3 vêm do data.sql
+        return HttpRequest.newBuilder(URI.create(base + "/api/pedidos/" + (i % 3 + 1)))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private String formatar(String modo, String endpoint, Resultado r) {
+        return String.format("%-11s %-12s %10.0f %9.1f %9.1f %7d", modo, endpoint, r.porSegundo, r.p50, r.p99, r.erros);
+    }
+
+    private interface Requisicao {
+        HttpRequest criar(String base, int indice);
+    }
+
+    private record Resultado(double porSegundo, double p50, double p99, int erros) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.delivery_api.Projeto.Delivery.API.colunar;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.delivery_api.Projeto.Delivery.API.colunar.EscritorColunar.Coluna;
+import com.delivery_api.Projeto.Delivery.API.colunar.EscritorColunar.Tipo;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.util.ByteArrayReadableSeekableByteChannel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Ida e volta do Arrow IPC: o que EscritorColunar grava, LeitorColunar devolve igual.
+ */
+public class EscritorColunarTest {
+
+    private static final List<Coluna> COLUNAS = List.of(
+            new Coluna("id", Tipo.INT64),
+            new Coluna("nome", Tipo.STRING),
+            new Coluna("valor", Tipo.INT64),
+            new Coluna("data", Tipo.TIMESTAMP));
+
+    @Test
+    public void testIdaEVoltaComVariosGruposENulos() throws IOException {
+        List<Object[]> linhas = new ArrayList<>();
+        for (long i = 0; i < 1000; i++) {
+            linhas.add(new Object[] {
+                    i % 7 == 0 ? null : 1_000_000L + i * 3 - (i % 5),
+                    i % 11 == 0 ? null : "pedido-" + i + (i % 3 == 0 ? " ção\n\"x\"" : ""),
+                    i % 13 == 0 ? null : (i % 2 == 0 ? -i * 1_000_003L : Long.MAX_VALUE - i),
+                    i % 17 == 0 ? null : LocalDateTime.of(2024, 3, 10, 0, 0).plusSeconds(i * 37).plusNanos(i % 4 * 1_000_000)});
+        }
+
+        // Grupo menor que o total e que não divide o total: último grupo parcial
+        byte[] arquivo = escrever(linhas, 64);
+        List<Object[]> lidas = ler(arquivo);
+
+        assertEquals(linhas.size(), lidas.size());
+        for (int i = 0; i < linhas.size(); i++) {
+            assertArrayEquals(linhas.get(i), lidas.get(i), "linha " + i);
+        }
+
+        // Arrow IPC padrão: um record batch por grupo, comprimido
+        try (RootAllocator allocator = new RootAllocator();
+             ArrowFileReader reader = new ArrowFileReader(new ByteArrayReadableSeekableByteChannel(arquivo),
+                     allocator, CommonsCompressionFactory.INSTANCE)) {
+            assertEquals((linhas.size() + 63) / 64, reader.getRecordBlocks().size());
+        }
+    }
+
+    @Test
+    public void testIntegerVoltaComoLong() throws IOException {
+        List<Object[]> lidas = ler(escrever(List.<Object[]>of(new Object[] {1, "a", -2, null}), 10));
+        assertArrayEquals(new Object[] {1L, "a", -2L, null}, lidas.get(0));
+    }
+
+    @Test
+    public void testArquivoSemLinhas() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new EscritorColunar(bytes, COLUNAS, 10).close();
+
+        try (LeitorColunar leitor = new LeitorColunar(new ByteArrayReadableSeekableByteChannel(bytes.toByteArray()))) {
+            assertEquals(COLUNAS, leitor.getColunas());
+            assertNull(leitor.ler());
+        }
+    }
+
+    @Test
+    public void testRejeitaArquivoDeOutroFormato() {
+        byte[] parquet = "PAR1xxxxxxxxxxxxxxxxPAR1".getBytes(StandardCharsets.US_ASCII);
+        assertThrows(IOException.class, () -> new LeitorColunar(new ByteArrayReadableSeekableByteChannel(parquet)));
+    }
+
+    private static byte[] escrever(List<Object[]> linhas, int linhasPorGrupo) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (EscritorColunar escritor = new EscritorColunar(bytes, COLUNAS, linhasPorGrupo)) {
+            for (Object[] linha : linhas) {
+                escritor.escrever(linha);
+            }
+            assertEquals(linhas.size(), escritor.getLinhas());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Object[]> ler(byte[] arquivo) throws IOException {
+        List<Object[]> lidas = new ArrayList<>();
+        try (LeitorColunar leitor = new LeitorColunar(new ByteArrayReadableSeekableByteChannel(arquivo))) {
+            assertEquals(COLUNAS, leitor.getColunas());
+            Object[] linha;
+            while ((linha = leitor.ler()) != null) {
+                lidas.add(linha);
+            }
+        }
+        return lidas;
+    }
+}
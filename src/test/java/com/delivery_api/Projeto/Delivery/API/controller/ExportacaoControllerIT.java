@@ -0,0 +1,174 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import com.delivery_api.Projeto.Delivery.API.colunar.EscritorColunar.Coluna;
+import com.delivery_api.Projeto.Delivery.API.colunar.LeitorColunar;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.enums.TabelaExportacao;
+import com.delivery_api.Projeto.Delivery.API.repository.PedidoRepository;
+import com.delivery_api.Projeto.Delivery.API.service.ExportacaoColunarService;
+import org.apache.arrow.vector.util.ByteArrayReadableSeekableByteChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ExportacaoControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExportacaoColunarService exportacaoColunarService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    // Diretório novo a cada teste: partições de execuções anteriores não contam
+    @TempDir
+    private Path diretorio;
+
+    private Object diretorioOriginal;
+
+    @BeforeEach
+    void usarDiretorioTemporario() throws Exception {
+        for (TabelaExportacao tabela : TabelaExportacao.values()) {
+            Files.createDirectories(diretorio.resolve(tabela.getNome()));
+        }
+        diretorioOriginal = ReflectionTestUtils.getField(exportacaoColunarService, "diretorio");
+        ReflectionTestUtils.setField(exportacaoColunarService, "diretorio", diretorio);
+    }
+
+    @AfterEach
+    void restaurarDiretorio() {
+        ReflectionTestUtils.setField(exportacaoColunarService, "diretorio", diretorioOriginal);
+    }
+
+    @Test
+    public void testExportarEBaixarParticaoDePedidos() throws Exception {
+        // Pedidos de exemplo são de hoje
+        LocalDate dia = LocalDate.now();
+        String hoje = dia.toString();
+        mockMvc.perform(post("/api/exportacoes/colunar")
+                .param("dataInicio", hoje)
+                .param("dataFim", hoje)
+                .param("substituir", "true"))
+                .andExpect(status().isAccepted());
+
+        byte[] arquivo = aguardarParticao("/api/exportacoes/colunar/pedidos/" + hoje, Duration.ofSeconds(10));
+
+        // Linhas do arquivo por id, comparadas com os pedidos do dia no banco
+        Map<Long, List<Object>> lidas = new TreeMap<>();
+        try (LeitorColunar leitor = new LeitorColunar(new ByteArrayReadableSeekableByteChannel(arquivo))) {
+            assertEquals(List.of("id", "numero_pedido", "data_pedido", "status", "valor_total_centavos",
+                    "cliente_id", "restaurante_id"), leitor.getColunas().stream().map(Coluna::nome).toList());
+            Object[] linha;
+            while ((linha = leitor.ler()) != null) {
+                assertNull(lidas.put((Long) linha[0], List.of(linha)), "pedido repetido: " + linha[0]);
+            }
+        }
+
+        Map<Long, List<Object>> esperadas = new TreeMap<>();
+        for (Pedido pedido : pedidoRepository.findByDataPedidoBetween(dia.atStartOfDay(), dia.atTime(LocalTime.MAX))) {
+            esperadas.put(pedido.getId(), List.of(
+                    pedido.getId(),
+                    pedido.getNumeroPedido(),
+                    pedido.getDataPedido().truncatedTo(ChronoUnit.MILLIS),
+                    pedido.getStatus(),
+                    pedido.getValorTotal().movePointRight(2).longValue(),
+                    pedido.getClienteId(),
+                    pedido.getRestaurante().getId()));
+        }
+        assertEquals(esperadas, lidas);
+
+        // Pedidos de exemplo do data.sql, com os valores em centavos
+        Map<String, Long> valores = new TreeMap<>();
+        lidas.values().forEach(linha -> valores.put((String) linha.get(1), (Long) linha.get(4)));
+        assertEquals(7980L, valores.get("PED1234567890"));
+        assertEquals(3530L, valores.get("PED1234567891"));
+        assertEquals(10270L, valores.get("PED1234567892"));
+
+        mockMvc.perform(get("/api/exportacoes/colunar/pedidos").param("desde", hoje))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].dia").value(hoje))
+                .andExpect(jsonPath("$.data[0].tamanhoBytes").value(arquivo.length));
+
+        // Regerar cria uma geração nova; a anterior continua no disco durante a retenção
+        Path particao = diretorio.resolve("pedidos").resolve("dia=" + hoje);
+        exportacaoColunarService.agendar(dia, dia, true);
+        long prazo = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        List<Path> geracoes = geracoes(particao);
+        while (geracoes.size() < 2) {
+            if (System.nanoTime() > prazo) {
+                fail("Nova geração não exportada");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            geracoes = geracoes(particao);
+        }
+        mockMvc.perform(get("/api/exportacoes/colunar/pedidos/" + hoje))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue("Content-Length", Files.size(geracoes.get(1))));
+    }
+
+    @Test
+    public void testParticaoNaoExportada() throws Exception {
+        mockMvc.perform(get("/api/exportacoes/colunar/pedidos/" + LocalDate.now()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testTabelaInvalida() throws Exception {
+        mockMvc.perform(get("/api/exportacoes/colunar/clientes"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static List<Path> geracoes(Path particao) throws Exception {
+        try (Stream<Path> arquivos = Files.list(particao)) {
+            return arquivos.filter(arquivo -> arquivo.getFileName().toString().endsWith(".arrow")).sorted().toList();
+        }
+    }
+
+    private byte[] aguardarParticao(String url, Duration limite) throws Exception {
+        long prazo = System.nanoTime() + limite.toNanos();
+        while (true) {
+            MvcResult resultado = mockMvc.perform(get(url)).andReturn();
+            if (resultado.getResponse().getStatus() == 200) {
+                byte[] arquivo = resultado.getResponse().getContentAsByteArray();
+                assertEquals(arquivo.length, resultado.getResponse().getContentLengthLong());
+                return arquivo;
+            }
+            assertEquals(404, resultado.getResponse().getStatus());
+            if (System.nanoTime() > prazo) {
+                fail("Partição não exportada em " + limite);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+}
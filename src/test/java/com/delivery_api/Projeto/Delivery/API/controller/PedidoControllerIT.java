@@ -0,0 +1,372 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import com.delivery_api.Projeto.Delivery.API.dto.request.ItemPedidoRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.request.PedidoRequestDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class PedidoControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testCriarPedidoComItens() throws Exception {
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setNumeroPedido("PEDTESTE0001");
+        dto.setClienteId(1L);
+        dto.setRestauranteId(1L);
+        dto.setItens(List.of(
+                new ItemPedidoRequestDTO(1L, 2),
+                new ItemPedidoRequestDTO(3L, 1)));
+
+        mockMvc.perform(post("/api/pedidos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.itens.length()").value(2))
+                .andExpect(jsonPath("$.data.itens[0].precoUnitario").value(35.90))
+                .andExpect(jsonPath("$.data.valorTotal").value(105.70));
+    }
+
+    @Test
+    public void testCriarPedidoCobraTaxaCotadaParaOCep() throws Exception {
+        // Setor 02011 fica a ~7,5 km da Pizzaria Bella: taxa base + acréscimo da faixa
+        String cotacao = mockMvc.perform(get("/api/restaurantes/1/taxa-entrega/02011-000"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        BigDecimal taxa = objectMapper.readTree(cotacao).get("data").decimalValue();
+        assertTrue(taxa.compareTo(new BigDecimal("5.00")) > 0, "cotação deve passar da taxa base: " + taxa);
+
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setNumeroPedido("PEDTESTE0003");
+        dto.setClienteId(1L);
+        dto.setRestauranteId(1L);
+        dto.setCepEntrega("02011-000");
+        dto.setItens(List.of(new ItemPedidoRequestDTO(1L, 1)));
+
+        mockMvc.perform(post("/api/pedidos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.valorTotal").value(new BigDecimal("35.90").add(taxa).doubleValue()));
+
+        dto.setNumeroPedido("PEDTESTE0004");
+        dto.setCepEntrega("99999-999");
+        mockMvc.perform(post("/api/pedidos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testCriarPedidoComProdutoDeOutroRestaurante() throws Exception {
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setNumeroPedido("PEDTESTE0002");
+        dto.setClienteId(1L);
+        dto.setRestauranteId(1L);
+        dto.setItens(List.of(new ItemPedidoRequestDTO(4L, 1)));
+
+        mockMvc.perform(post("/api/pedidos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testCriarPedidosEmLoteComResultadoIndividual() throws Exception {
+        PedidoRequestDTO valido = new PedidoRequestDTO();
+        valido.setNumeroPedido("PEDLOTE0001");
+        valido.setClienteId(2L);
+        valido.setRestauranteId(2L);
+        valido.setItens(List.of(new ItemPedidoRequestDTO(4L, 2)));
+
+        PedidoRequestDTO clienteInexistente = new PedidoRequestDTO();
+        clienteInexistente.setNumeroPedido("PEDLOTE0002");
+        clienteInexistente.setClienteId(9999L);
+        clienteInexistente.setRestauranteId(2L);
+        clienteInexistente.setItens(List.of(new ItemPedidoRequestDTO(4L, 1)));
+
+        mockMvc.perform(post("/api/pedidos/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(valido, clienteInexistente))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].sucesso").value(true))
+                .andExpect(jsonPath("$.data[0].pedidoId").exists())
+                .andExpect(jsonPath("$.data[1].sucesso").value(false))
+                .andExpect(jsonPath("$.data[1].erro").value("Cliente não encontrado: 9999"));
+    }
+
+    @Test
+    public void testLoteComElementoNulo() throws Exception {
+        mockMvc.perform(post("/api/pedidos/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[null]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    public void testLoteRejeitaSoPedidoComCamposForaDoTamanho() throws Exception {
+        PedidoRequestDTO valido = new PedidoRequestDTO();
+        valido.setNumeroPedido("PEDLOTE0003");
+        valido.setClienteId(2L);
+        valido.setRestauranteId(2L);
+        valido.setItens(List.of(new ItemPedidoRequestDTO(4L, 1)));
+
+        PedidoRequestDTO numeroLongo = new PedidoRequestDTO();
+        numeroLongo.setNumeroPedido("PEDLOTE000000000000000004");
+        numeroLongo.setClienteId(2L);
+        numeroLongo.setRestauranteId(2L);
+        numeroLongo.setObservacoes("x".repeat(201));
+        numeroLongo.setItens(List.of(new ItemPedidoRequestDTO(4L, 1)));
+
+        mockMvc.perform(post("/api/pedidos/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(valido, numeroLongo))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].sucesso").value(true))
+                .andExpect(jsonPath("$.data[1].sucesso").value(false))
+                .andExpect(jsonPath("$.data[1].erro").value(containsString("numeroPedido")))
+                .andExpect(jsonPath("$.data[1].erro").value(containsString("observacoes")));
+    }
+
+    @Test
+    public void testBuscarPedidoComItens() throws Exception {
+        mockMvc.perform(get("/api/pedidos/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.itens.length()").value(3));
+    }
+
+    @Test
+    public void testTransicaoDeStatusNaoPermitida() throws Exception {
+        // Pedido 3 já está ENTREGUE
+        mockMvc.perform(patch("/api/pedidos/3/status")
+                .param("status", "CANCELADO"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error.code").value("STATUS_CONFLICT"));
+    }
+
+    @Test
+    public void testTransicaoDeStatusPedidoInexistente() throws Exception {
+        mockMvc.perform(patch("/api/pedidos/9999/status")
+                .param("status", "CONFIRMADO"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testListarPedidosDoRestaurante() throws Exception {
+        mockMvc.perform(get("/api/pedidos/restaurantes/1/pedidos")
+                .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.page.size").value(5));
+    }
+
+    @Test
+    public void testListarPedidosDoRestauranteLimitaTamanho() throws Exception {
+        mockMvc.perform(get("/api/pedidos/restaurantes/1/pedidos")
+                .param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.size").value(100));
+
+        mockMvc.perform(get("/api/pedidos/restaurantes/1/pedidos")
+                .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testListarPedidosPorCursor() throws Exception {
+        mockMvc.perform(get("/api/pedidos")
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.cursor.hasNext").value(true))
+                .andExpect(jsonPath("$.cursor.totalElements").doesNotExist());
+    }
+
+    @Test
+    public void testListarPedidosPorCursorLimitaTamanho() throws Exception {
+        mockMvc.perform(get("/api/pedidos")
+                .param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cursor.size").value(100));
+    }
+
+    @Test
+    public void testListarPedidosComCursorAdulterado() throws Exception {
+        // id válido, chave que não é data
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("5:nao-e-data".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/api/pedidos")
+                .param("cursor", cursor))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("INVALID_ARGUMENT"));
+    }
+
+    @Test
+    public void testExportarPedidosEmNdjson() throws Exception {
+        String corpo = exportar("NDJSON", "application/x-ndjson");
+
+        boolean encontrado = false;
+        for (String linha : corpo.split("\n")) {
+            JsonNode pedido = objectMapper.readTree(linha);
+            if ("PED1234567890".equals(pedido.get("numeroPedido").asText())) {
+                assertEquals("Sem cebola na pizza", pedido.get("observacoes").asText());
+                assertEquals(1, pedido.get("restauranteId").asInt());
+                encontrado = true;
+            }
+        }
+        assertTrue(encontrado, "Pedido PED1234567890 ausente da exportação");
+    }
+
+    @Test
+    public void testExportarPedidosEmCsvComQuebraDeLinha() throws Exception {
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setNumeroPedido("PEDCSV0001");
+        dto.setClienteId(2L);
+        dto.setRestauranteId(2L);
+        dto.setObservacoes("tocar\rinterfone, \"casa 2\"");
+        dto.setItens(List.of(new ItemPedidoRequestDTO(4L, 1)));
+        mockMvc.perform(post("/api/pedidos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+
+        String corpo = exportar("CSV", "text/csv");
+
+        assertTrue(corpo.startsWith("id,numeroPedido,dataPedido,status,valorTotal,clienteId,restauranteId,observacoes\n"));
+        assertTrue(corpo.contains(",\"tocar\rinterfone, \"\"casa 2\"\"\"\n"), "Observação com \\r não foi escapada");
+    }
+
+    private String exportar(String formato, String contentType) throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/pedidos/exportar")
+                .param("dataInicio", "2000-01-01T00:00:00")
+                .param("dataFim", "2100-01-01T00:00:00")
+                .param("formato", formato))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(contentType))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testAcompanharPedidoAbreStreamDeEventos() throws Exception {
+        mockMvc.perform(get("/api/pedidos/1/eventos")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    public void testAcompanharPedidoInexistente() throws Exception {
+        mockMvc.perform(get("/api/pedidos/9999/eventos")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testCriarPedidoComIdempotencyKeyRepetida() throws Exception {
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setNumeroPedido("PEDIDEMP0001");
+        dto.setClienteId(1L);
+        dto.setRestauranteId(1L);
+        dto.setItens(List.of(new ItemPedidoRequestDTO(1L, 1)));
+        String corpo = objectMapper.writeValueAsString(dto);
+        String chave = UUID.randomUUID().toString();
+
+        String primeira = mockMvc.perform(post("/api/pedidos")
+                .header("Idempotency-Key", chave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/pedidos")
+                .header("Idempotency-Key", chave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(primeira));
+
+        dto.setObservacoes("outro corpo");
+        mockMvc.perform(post("/api/pedidos")
+                .header("Idempotency-Key", chave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void testLoteComIdempotencyKeyRepetida() throws Exception {
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setNumeroPedido("PEDIDEMP0003");
+        dto.setClienteId(1L);
+        dto.setRestauranteId(1L);
+        dto.setItens(List.of(new ItemPedidoRequestDTO(1L, 1)));
+        String corpo = objectMapper.writeValueAsString(List.of(dto));
+        String chave = UUID.randomUUID().toString();
+
+        String primeira = mockMvc.perform(post("/api/pedidos/lote")
+                .header("Idempotency-Key", chave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].sucesso").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        // Barra final cai no mesmo endpoint e na mesma chave
+        mockMvc.perform(post("/api/pedidos/lote/")
+                .header("Idempotency-Key", chave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(primeira));
+    }
+
+    @Test
+    public void testIdempotencyKeyComCorpoAcimaDoLimite() throws Exception {
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setNumeroPedido("PEDIDEMP0002");
+        dto.setClienteId(1L);
+        dto.setRestauranteId(1L);
+        dto.setObservacoes("x".repeat(1_100_000));
+        dto.setItens(List.of(new ItemPedidoRequestDTO(1L, 1)));
+
+        mockMvc.perform(post("/api/pedidos")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().is(413))
+                .andExpect(jsonPath("$.error.code").value("PAYLOAD_TOO_LARGE"));
+    }
+}
@@ -0,0 +1,231 @@
+package com.delivery_api.Projeto.Delivery.API.controller;
+
+import com.delivery_api.Projeto.Delivery.API.dto.request.ItemPedidoRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.request.PedidoRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.dto.request.RelatorioJobRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.enums.TipoRelatorioJob;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RelatorioControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testVendasPorRestauranteForaDoPeriodo() throws Exception {
+        // Pedidos de exemplo são de hoje: um período antigo não tem vendas
+        mockMvc.perform(get("/api/relatorios/vendas-por-restaurante")
+                .param("dataInicio", "2000-01-01T00:00:00")
+                .param("dataFim", "2000-01-31T23:59:59"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].quantidePedidos").value(0));
+    }
+
+    @Test
+    public void testVendasPorRestauranteSemPeriodo() throws Exception {
+        mockMvc.perform(get("/api/relatorios/vendas-por-restaurante"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").isArray());
+    }
+
+    @Test
+    public void testPedidosPorPeriodoComStatus() throws Exception {
+        mockMvc.perform(get("/api/relatorios/pedidos-por-periodo")
+                .param("dataInicio", "2000-01-01T00:00:00")
+                .param("dataFim", "2100-01-01T00:00:00")
+                .param("status", "ENTREGUE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalPedidos").value(1))
+                .andExpect(jsonPath("$.data.valorTotal").value(102.70))
+                .andExpect(jsonPath("$.data.ticketMedio").value(102.70));
+    }
+
+    @Test
+    public void testProdutosMaisVendidosPorRestaurante() throws Exception {
+        mockMvc.perform(get("/api/relatorios/produtos-mais-vendidos")
+                .param("restauranteId", "3")
+                .param("dataInicio", "2000-01-01T00:00:00")
+                .param("limite", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].restauranteId").value(3));
+    }
+
+    @Test
+    public void testClientesAtivosPorValor() throws Exception {
+        mockMvc.perform(get("/api/relatorios/clientes-ativos")
+                .param("ordenarPor", "valor")
+                .param("limite", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].cliente").exists());
+    }
+
+    @Test
+    public void testClientesUnicosPorRestaurante() throws Exception {
+        // Pedido de exemplo do restaurante 3 é de hoje, de um único cliente
+        String hoje = LocalDate.now().toString();
+        mockMvc.perform(get("/api/relatorios/clientes-unicos")
+                .param("restauranteId", "3")
+                .param("dataInicio", hoje)
+                .param("dataFim", hoje)
+                .param("agrupamento", "DIA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].clientesUnicos").value(1))
+                .andExpect(jsonPath("$.data[0].inicio").value(hoje));
+    }
+
+    @Test
+    public void testDistribuicaoValorPedido() throws Exception {
+        // Único pedido do restaurante 3 nos dados de exemplo: 102,70
+        String hoje = LocalDate.now().toString();
+        mockMvc.perform(get("/api/relatorios/distribuicao")
+                .param("metrica", "VALOR_PEDIDO")
+                .param("restauranteId", "3")
+                .param("dataInicio", hoje)
+                .param("dataFim", hoje))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.amostras").value(1))
+                .andExpect(jsonPath("$.data.p50").value(102.70))
+                .andExpect(jsonPath("$.data.p99").value(102.70));
+    }
+
+    @Test
+    public void testDistribuicaoValorPedidoDescontaCancelado() throws Exception {
+        long antes = amostrasValorPedido(2L);
+
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setNumeroPedido("PEDDIST0001");
+        dto.setClienteId(1L);
+        dto.setRestauranteId(2L);
+        dto.setItens(List.of(new ItemPedidoRequestDTO(5L, 1)));
+        String resposta = mockMvc.perform(post("/api/pedidos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(resposta).path("data").path("id").asLong();
+        assertEquals(antes + 1, amostrasValorPedido(2L));
+
+        mockMvc.perform(delete("/api/pedidos/" + id))
+                .andExpect(status().isOk());
+        assertEquals(antes, amostrasValorPedido(2L));
+    }
+
+    private long amostrasValorPedido(Long restauranteId) throws Exception {
+        String hoje = LocalDate.now().toString();
+        return objectMapper.readTree(mockMvc.perform(get("/api/relatorios/distribuicao")
+                .param("metrica", "VALOR_PEDIDO")
+                .param("restauranteId", String.valueOf(restauranteId))
+                .param("dataInicio", hoje)
+                .param("dataFim", hoje)
+                .param("consistente", "true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).path("data").path("amostras").asLong();
+    }
+
+    @Test
+    public void testCacheDeRelatorioRegistraAcerto() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/relatorios/clientes-ativos")
+                    .param("limite", "3"))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/relatorios/cache/metricas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[?(@.relatorio == 'clientes-ativos')].acertos",
+                        contains(greaterThanOrEqualTo(1))));
+    }
+
+    @Test
+    public void testJobPedidosPorPeriodo() throws Exception {
+        RelatorioJobRequestDTO dto = new RelatorioJobRequestDTO();
+        dto.setTipo(TipoRelatorioJob.PEDIDOS_POR_PERIODO);
+        dto.setDataInicio(LocalDateTime.of(2000, 1, 1, 0, 0));
+        dto.setDataFim(LocalDateTime.of(2100, 1, 1, 0, 0));
+        dto.setStatus(StatusPedido.ENTREGUE);
+
+        String resposta = mockMvc.perform(post("/api/relatorios/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(resposta).path("data").path("id").asText();
+
+        JsonNode job = aguardarJob(id, Duration.ofSeconds(10));
+        assertEquals("CONCLUIDO", job.path("situacao").asText(), "erro: " + job.path("erro").asText());
+
+        mockMvc.perform(get("/api/relatorios/jobs/" + id + "/resultado"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"pedidos-por-periodo-" + id + ".json\""))
+                .andExpect(jsonPath("$.totalPedidos").value(1))
+                .andExpect(jsonPath("$.valorTotal").value(102.70));
+    }
+
+    @Test
+    public void testJobComLimiteAcimaDoMaximo() throws Exception {
+        RelatorioJobRequestDTO dto = new RelatorioJobRequestDTO();
+        dto.setTipo(TipoRelatorioJob.PRODUTOS_MAIS_VENDIDOS);
+        dto.setLimite(1001);
+
+        mockMvc.perform(post("/api/relatorios/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testJobInexistente() throws Exception {
+        mockMvc.perform(get("/api/relatorios/jobs/inexistente/resultado"))
+                .andExpect(status().isNotFound());
+    }
+
+    // Consulta a situação até o job terminar ou o prazo acabar; devolve o último estado lido
+    private JsonNode aguardarJob(String id, Duration prazo) throws Exception {
+        long limite = System.nanoTime() + prazo.toNanos();
+        while (true) {
+            JsonNode job = objectMapper.readTree(mockMvc.perform(get("/api/relatorios/jobs/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString()).path("data");
+            String situacao = job.path("situacao").asText();
+            if (situacao.equals("CONCLUIDO") || situacao.equals("FALHOU")) {
+                return job;
+            }
+            if (System.nanoTime() > limite) {
+                fail("Job " + id + " não terminou em " + prazo + " (situação: " + situacao + ")");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+    }
+}
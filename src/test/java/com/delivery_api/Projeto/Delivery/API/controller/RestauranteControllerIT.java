@@ -1,5 +1,6 @@
 package com.delivery_api.Projeto.Delivery.API.controller;
 
+import com.delivery_api.Projeto.Delivery.API.dto.request.FaixaTaxaEntregaDTO;
 import com.delivery_api.Projeto.Delivery.API.dto.request.RestauranteRequestDTO;
 import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,7 +12,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.List;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -58,6 +62,55 @@ public class RestauranteControllerIT {
                 .andExpect(jsonPath("$.content").isArray());
     }
 
+    @Test
+    public void testListarRestaurantesComFiltrosCombinados() throws Exception {
+        mockMvc.perform(get("/api/restaurantes")
+                .param("taxaMaxima", "5.00")
+                .param("avaliacaoMinima", "4.3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].nome").value("Pizzaria Bella"))
+                .andExpect(jsonPath("$.page.totalElements").value(1));
+    }
+
+    @Test
+    public void testListarRestaurantesPaginaAlemDoFim() throws Exception {
+        mockMvc.perform(get("/api/restaurantes")
+                .param("page", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    @Test
+    public void testListarRestaurantesLimitaTamanhoDaPagina() throws Exception {
+        mockMvc.perform(get("/api/restaurantes")
+                .param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.size").value(100));
+    }
+
+    @Test
+    public void testListarRestaurantesDeslocamentoAcimaDoLimite() throws Exception {
+        mockMvc.perform(get("/api/restaurantes")
+                .param("page", String.valueOf(Integer.MAX_VALUE))
+                .param("size", "100"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testFaixaTaxaEntregaAcimaDoLimiteDaColuna() throws Exception {
+        // ate_km é DECIMAL(5,2): 1000 km não cabe
+        List<FaixaTaxaEntregaDTO> faixas = List.of(
+                new FaixaTaxaEntregaDTO(new BigDecimal("3.00"), new BigDecimal("0.00")),
+                new FaixaTaxaEntregaDTO(new BigDecimal("1000.00"), new BigDecimal("5.00")));
+
+        mockMvc.perform(put("/api/restaurantes/1/taxa-entrega/faixas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(faixas)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("VALIDATION_ERROR"));
+    }
+
     @Test
     public void testBuscarRestaurantePorId() throws Exception {
         mockMvc.perform(get("/api/restaurantes/1"))
@@ -71,5 +124,48 @@ public class RestauranteControllerIT {
         mockMvc.perform(get("/api/restaurantes/9999"))
                 .andExpect(status().isNotFound());
     }
-}
 
+    @Test
+    public void testBuscarRestaurantesProximos() throws Exception {
+        mockMvc.perform(get("/api/restaurantes/proximos/01310-100")
+                .param("limite", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].nome").value("Pizzaria Bella"))
+                .andExpect(jsonPath("$.data[0].distanciaKm").exists());
+    }
+
+    @Test
+    public void testBuscarRestaurantesProximosCepDesconhecido() throws Exception {
+        mockMvc.perform(get("/api/restaurantes/proximos/99999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testCalcularTaxaEntregaPorDistancia() throws Exception {
+        mockMvc.perform(get("/api/restaurantes/1/taxa-entrega/01310-100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(5.00));
+    }
+
+    @Test
+    public void testCalcularTaxasEntregaEmLote() throws Exception {
+        mockMvc.perform(get("/api/restaurantes/taxa-entrega/01310100")
+                .param("restauranteIds", "1", "3", "9999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(3))
+                .andExpect(jsonPath("$.data[0].taxa").value(5.00))
+                .andExpect(jsonPath("$.data[1].taxa").value(8.00))
+                .andExpect(jsonPath("$.data[2].disponivel").value(false));
+    }
+
+    @Test
+    public void testCacheDeRestauranteRegistraAcerto() throws Exception {
+        mockMvc.perform(get("/api/restaurantes/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/restaurantes/1")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/restaurantes/cache/metricas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[?(@.cache == 'por-id')].acertos", contains(greaterThanOrEqualTo(1))));
+    }
+}
@@ -0,0 +1,394 @@
+package com.delivery_api.Projeto.Delivery.API.repository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chama cada consulta dos repositórios (derivadas, @Query, Criteria e @Modifying) contra um
+ * H2 em memória criado com o schema.sql, captura o SQL que o Hibernate realmente envia ao
+ * driver, com os valores ligados, e roda EXPLAIN em cada comando: falha se alguma tabela
+ * fora das permitidas para a consulta cair em varredura completa.
+ *
+ * O dialeto continua o MySQLDialect da aplicação, e as colunas BOOLEAN viram TINYINT como no
+ * MySQL. Os valores são escritos no SQL como
+ * literais antes do EXPLAIN, como faz o Connector/J com prepared statements do lado do
+ * cliente (o padrão): assim os filtros opcionais "(:x IS NULL OR ...)" se simplificam como
+ * no MySQL, em vez de impedir o uso de índice no plano genérico do H2.
+ *
+ * Ficam de fora:
+ * - findByNomeContainingIgnoreCase: LIKE '%...%' sobre LOWER não usa índice B-tree em nenhum banco;
+ * - findTop10ByOrderByDataPedidoDesc e buscarPorCursor sem filtro: o MySQL lê
+ *   idx_pedidos_data_status de trás para frente, o H2 não percorre índices ao contrário;
+ * - rankingVendas sem restaurante nem período: agrega todos os itens vendidos;
+ * - os upserts nativos (ON DUPLICATE KEY UPDATE), que só tocam a chave primária.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PlanoConsultasTest.Captura.class)
+public class PlanoConsultasTest {
+
+    private static final String URL = "jdbc:h2:mem:planos;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final Pattern VARREDURA = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime FIM = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+
+    // Comandos enviados ao driver desde a última limpeza
+    private static final List<Comando> COMANDOS = new ArrayList<>();
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ClienteResumoRepository clienteResumoRepository;
+    @Autowired
+    private ClientesUnicosDiaRepository clientesUnicosDiaRepository;
+    @Autowired
+    private DistribuicaoDiaRepository distribuicaoDiaRepository;
+    @Autowired
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+    @Autowired
+    private FaixaTaxaEntregaRepository faixaTaxaEntregaRepository;
+    @Autowired
+    private PedidoRepository pedidoRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+    @Autowired
+    private VendaHoraRepository vendaHoraRepository;
+
+    private record Comando(String sql, Map<Integer, Object> valores) {
+    }
+
+    private interface Consulta {
+        void executar(PlanoConsultasTest repositorios);
+    }
+
+    static Stream<Arguments> consultas() {
+        return Stream.of(
+                // ClienteRepository
+                consulta("Cliente.findByEmail", r -> r.clienteRepository.findByEmail("joao@email.com")),
+                consulta("Cliente.existsByEmail", r -> r.clienteRepository.existsByEmail("joao@email.com")),
+                // Derivadas "AtivoTrue" saem como "WHERE ativo", sem comparação: no MySQL isso vira
+                // ativo <> 0, e devolver quase todos os ativos é mais barato lendo a tabela
+                consulta("Cliente.findByAtivoTrue", r -> r.clienteRepository.findByAtivoTrue(), "clientes"),
+                consulta("Cliente.countByAtivoTrue", r -> r.clienteRepository.countByAtivoTrue()),
+                consulta("Cliente.buscarAtivosPorCursor (primeira página)",
+                        r -> r.clienteRepository.buscarAtivosPorCursor(null, null, PageRequest.of(0, 10))),
+                consulta("Cliente.buscarAtivosPorCursor (com cursor)",
+                        r -> r.clienteRepository.buscarAtivosPorCursor("João Silva", 1L, PageRequest.of(0, 10))),
+
+                // ClienteResumoRepository
+                consulta("ClienteResumo.rankingPorPedidos",
+                        r -> r.clienteResumoRepository.rankingPorPedidos(PageRequest.of(0, 10))),
+                consulta("ClienteResumo.rankingPorValor",
+                        r -> r.clienteResumoRepository.rankingPorValor(PageRequest.of(0, 10))),
+
+                // ClientesUnicosDiaRepository
+                consulta("ClientesUnicosDia.buscarParaAtualizar",
+                        r -> r.clientesUnicosDiaRepository.buscarParaAtualizar(1L, INICIO.toLocalDate())),
+                consulta("ClientesUnicosDia.buscarPorPeriodo",
+                        r -> r.clientesUnicosDiaRepository.buscarPorPeriodo(null, INICIO.toLocalDate(), FIM.toLocalDate())),
+                consulta("ClientesUnicosDia.buscarPorPeriodo (restaurante)",
+                        r -> r.clientesUnicosDiaRepository.buscarPorPeriodo(1L, INICIO.toLocalDate(), FIM.toLocalDate())),
+
+                // DistribuicaoDiaRepository
+                consulta("DistribuicaoDia.buscarParaAtualizar",
+                        r -> r.distribuicaoDiaRepository.buscarParaAtualizar(1L, INICIO.toLocalDate(), "valor")),
+                consulta("DistribuicaoDia.buscarPorPeriodo",
+                        r -> r.distribuicaoDiaRepository.buscarPorPeriodo("valor", null,
+                                INICIO.toLocalDate(), FIM.toLocalDate())),
+
+                // ChaveIdempotenciaRepository
+                consulta("ChaveIdempotencia.removerExpiradas",
+                        r -> r.chaveIdempotenciaRepository.removerExpiradas(INICIO)),
+                consulta("ChaveIdempotencia.removerSeExpirada",
+                        r -> r.chaveIdempotenciaRepository.removerSeExpirada("chave", INICIO)),
+
+                // FaixaTaxaEntregaRepository
+                consulta("FaixaTaxaEntrega.findByRestauranteIdOrderByAteKmAsc",
+                        r -> r.faixaTaxaEntregaRepository.findByRestauranteIdOrderByAteKmAsc(1L)),
+                consulta("FaixaTaxaEntrega.removerPorRestaurante",
+                        r -> r.faixaTaxaEntregaRepository.removerPorRestaurante(1L)),
+
+                // PedidoRepository
+                consulta("Pedido.findComItensById", r -> r.pedidoRepository.findComItensById(1L)),
+                consulta("Pedido.findByClienteIdOrderByDataPedidoDesc",
+                        r -> r.pedidoRepository.findByClienteIdOrderByDataPedidoDesc(1L)),
+                consulta("Pedido.findByClienteId", r -> r.pedidoRepository.findByClienteId(1L)),
+                consulta("Pedido.findByStatus", r -> r.pedidoRepository.findByStatus("PENDENTE")),
+                consulta("Pedido.findByDataPedidoBetween", r -> r.pedidoRepository.findByDataPedidoBetween(INICIO, FIM)),
+                // Segunda página vazia: a consulta de contagem também é executada
+                consulta("Pedido.findByRestauranteId", r -> r.pedidoRepository.findByRestauranteId(1L,
+                        PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "dataPedido")))),
+                consulta("Pedido.findByRestauranteIdAndStatus", r -> r.pedidoRepository.findByRestauranteIdAndStatus(1L,
+                        "PENDENTE", PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "dataPedido")))),
+                consulta("Pedido.buscarPorCursor (status)", r -> r.pedidoRepository.buscarPorCursor("PENDENTE",
+                        null, null, null, null, PageRequest.of(0, 20))),
+                consulta("Pedido.buscarPorCursor (período)", r -> r.pedidoRepository.buscarPorCursor(null,
+                        INICIO, FIM, null, null, PageRequest.of(0, 20))),
+                consulta("Pedido.buscarPorCursor (status e cursor)", r -> r.pedidoRepository.buscarPorCursor("PENDENTE",
+                        null, null, FIM, 10L, PageRequest.of(0, 20))),
+                consulta("Pedido.transicionarStatus", r -> r.pedidoRepository.transicionarStatus(1L, "CONFIRMADO",
+                        List.of("PENDENTE"))),
+                consulta("Pedido.buscarStatus", r -> r.pedidoRepository.buscarStatus(1L)),
+                consulta("Pedido.streamPorPeriodo", r -> {
+                    try (Stream<?> pedidos = r.pedidoRepository.streamPorPeriodo(INICIO, FIM)) {
+                        pedidos.count();
+                    }
+                }),
+                consulta("Pedido.streamClientesApos", r -> {
+                    try (Stream<?> pedidos = r.pedidoRepository.streamClientesApos(0L)) {
+                        pedidos.count();
+                    }
+                }),
+                consulta("Pedido.maiorId", r -> r.pedidoRepository.maiorId()),
+                consulta("Pedido.streamValoresEntre", r -> {
+                    try (Stream<?> pedidos = r.pedidoRepository.streamValoresEntre(0L, 1000L)) {
+                        pedidos.count();
+                    }
+                }),
+                consulta("Pedido.contarComFiltros (status)",
+                        r -> r.pedidoRepository.contarComFiltros("PENDENTE", null, null)),
+                consulta("Pedido.contarComFiltros (período)",
+                        r -> r.pedidoRepository.contarComFiltros(null, INICIO, FIM)),
+                consulta("Pedido.resumirPorPeriodo", r -> r.pedidoRepository.resumirPorPeriodo(INICIO, FIM, null)),
+
+                // ProdutoRepository
+                consulta("Produto.findByRestauranteId", r -> r.produtoRepository.findByRestauranteId(1L)),
+                // Quase todo o catálogo está disponível: índice só em disponivel não seleciona nada
+                consulta("Produto.findByDisponivelTrue", r -> r.produtoRepository.findByDisponivelTrue(), "produtos"),
+                consulta("Produto.findByCategoria", r -> r.produtoRepository.findByCategoria("Pizza")),
+                consulta("Produto.findByPrecoLessThanEqual",
+                        r -> r.produtoRepository.findByPrecoLessThanEqual(new BigDecimal("30.00"))),
+                consulta("Produto.rankingVendas (restaurante e período)",
+                        r -> r.produtoRepository.rankingVendas(1L, INICIO, FIM, PageRequest.of(0, 10))),
+
+                // RestauranteRepository
+                consulta("Restaurante.findByNome", r -> r.restauranteRepository.findByNome("Pizzaria Bella")),
+                consulta("Restaurante.findByAtivoTrue", r -> r.restauranteRepository.findByAtivoTrue(), "restaurantes"),
+                consulta("Restaurante.findByCategoria", r -> r.restauranteRepository.findByCategoria("Italiana")),
+                consulta("Restaurante.findByAtivoTrueAndLatitudeIsNotNullAndLongitudeIsNotNull",
+                        r -> r.restauranteRepository.findByAtivoTrueAndLatitudeIsNotNullAndLongitudeIsNotNull(),
+                        "restaurantes"),
+                consulta("Restaurante.findByTaxaEntregaLessThanEqual",
+                        r -> r.restauranteRepository.findByTaxaEntregaLessThanEqual(new BigDecimal("5.00"))),
+                consulta("Restaurante.findTop5ByOrderByNomeAsc", r -> r.restauranteRepository.findTop5ByOrderByNomeAsc()),
+                consulta("Restaurante.buscarAtivosPorCursor",
+                        r -> r.restauranteRepository.buscarAtivosPorCursor("Italiana", "Pizzaria Bella", 1L,
+                                PageRequest.of(0, 10))),
+                consulta("Restaurante.contarAtivos", r -> r.restauranteRepository.contarAtivos(null)),
+                consulta("Restaurante.buscarResumos", r -> r.restauranteRepository.buscarResumos(
+                        RestauranteFiltros.de(null, true, new BigDecimal("5.00"), null),
+                        PageRequest.of(0, 10, Sort.by("nome", "id")))),
+                consulta("Restaurante.count (filtros)",
+                        r -> r.restauranteRepository.count(RestauranteFiltros.de("Italiana", true, null, null))),
+
+                // VendaHoraRepository
+                // O relatório lista todos os restaurantes; os baldes de cada um vêm pela chave primária
+                consulta("VendaHora.relatorioVendasPorRestaurante",
+                        r -> r.vendaHoraRepository.relatorioVendasPorRestaurante(INICIO, FIM), "restaurantes"),
+                consulta("VendaHora.buscarPorPeriodo", r -> r.vendaHoraRepository.buscarPorPeriodo(INICIO, FIM))
+        );
+    }
+
+    private static Arguments consulta(String nome, Consulta consulta, String... varredurasPermitidas) {
+        return Arguments.of(nome, consulta, Set.of(varredurasPermitidas));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultas")
+    public void testConsultaUsaIndice(String nome, Consulta consulta, Set<String> varredurasPermitidas)
+            throws SQLException {
+        List<Comando> comandos;
+        synchronized (COMANDOS) {
+            COMANDOS.clear();
+        }
+        consulta.executar(this);
+        synchronized (COMANDOS) {
+            comandos = List.copyOf(COMANDOS);
+        }
+
+        assertFalse(comandos.isEmpty(), nome + " não enviou nenhum comando ao banco");
+        for (Comando comando : comandos) {
+            String plano = explicar(comLiterais(comando));
+            Set<String> varreduras = new TreeSet<>();
+            Matcher matcher = VARREDURA.matcher(plano);
+            while (matcher.find()) {
+                varreduras.add(matcher.group(1).toLowerCase());
+            }
+            varreduras.removeAll(varredurasPermitidas);
+            assertTrue(varreduras.isEmpty(), nome + " faz varredura completa de " + varreduras + ":\n" + plano);
+        }
+    }
+
+    private static String explicar(String sql) throws SQLException {
+        try (Connection conexao = DriverManager.getConnection(URL, "sa", "");
+             Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN " + sql)) {
+            StringBuilder plano = new StringBuilder();
+            while (rs.next()) {
+                plano.append(rs.getString(1)).append('\n');
+            }
+            return plano.toString();
+        }
+    }
+
+    // Troca cada ? (fora de literais) pelo valor ligado na mesma posição
+    private static String comLiterais(Comando comando) {
+        StringBuilder sql = new StringBuilder();
+        boolean emLiteral = false;
+        int parametro = 0;
+        for (char c : comando.sql().toCharArray()) {
+            if (c == '\'') {
+                emLiteral = !emLiteral;
+            }
+            if (c == '?' && !emLiteral) {
+                sql.append(literal(comando.valores().get(++parametro)));
+            } else {
+                sql.append(c);
+            }
+        }
+        return sql.toString();
+    }
+
+    private static String literal(Object valor) {
+        if (valor == null) {
+            return "NULL";
+        }
+        if (valor instanceof Number || valor instanceof Boolean) {
+            return valor.toString();
+        }
+        if (valor instanceof LocalDateTime data) {
+            valor = Timestamp.valueOf(data);
+        }
+        if (valor instanceof Timestamp) {
+            return "TIMESTAMP '" + valor + "'";
+        }
+        if (valor instanceof LocalDate || valor instanceof java.sql.Date) {
+            return "DATE '" + valor + "'";
+        }
+        return "'" + valor.toString().replace("'", "''") + "'";
+    }
+
+    @TestConfiguration
+    static class Captura {
+
+        @Bean
+        DataSource dataSource() throws SQLException {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "") {
+                @Override
+                protected Connection getConnectionFromDriver(Properties props) throws SQLException {
+                    return capturar(super.getConnectionFromDriver(props));
+                }
+            };
+            try (Connection conexao = DriverManager.getConnection(URL, "sa", "")) {
+                ScriptUtils.executeSqlScript(conexao, new ClassPathResource("schema.sql"));
+                tinyintComoNoMysql(conexao);
+            }
+            return dataSource;
+        }
+
+        // O MySQL guarda BOOLEAN como TINYINT(1), e o MySQLDialect escreve true como 1. Numa
+        // coluna BOOLEAN do H2, "ativo = 1" converte a coluna e perde o índice, o que no
+        // MySQL não acontece.
+        private static void tinyintComoNoMysql(Connection conexao) throws SQLException {
+            List<String> alteracoes = new ArrayList<>();
+            try (Statement stmt = conexao.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS "
+                         + "WHERE TABLE_SCHEMA = 'PUBLIC' AND DATA_TYPE = 'BOOLEAN'")) {
+                while (rs.next()) {
+                    alteracoes.add("ALTER TABLE " + rs.getString(1) + " ALTER COLUMN " + rs.getString(2) + " TINYINT");
+                }
+            }
+            try (Statement stmt = conexao.createStatement()) {
+                for (String alteracao : alteracoes) {
+                    stmt.execute(alteracao);
+                }
+            }
+        }
+    }
+
+    private static Connection capturar(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, metodo, args) -> {
+                    Object resultado = invocar(conexao, metodo, args);
+                    if (metodo.getName().equals("prepareStatement")) {
+                        return capturar((PreparedStatement) resultado, (String) args[0]);
+                    }
+                    return resultado;
+                });
+    }
+
+    private static PreparedStatement capturar(PreparedStatement stmt, String sql) {
+        Map<Integer, Object> valores = new TreeMap<>();
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                (proxy, metodo, args) -> {
+                    String nome = metodo.getName();
+                    if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                        valores.put(indice, nome.equals("setNull") ? null : args[1]);
+                    } else if (nome.equals("clearParameters")) {
+                        valores.clear();
+                    } else if (nome.equals("executeQuery") || nome.equals("executeUpdate")
+                            || nome.equals("executeLargeUpdate") || nome.equals("execute")) {
+                        synchronized (COMANDOS) {
+                            COMANDOS.add(new Comando(sql, new TreeMap<>(valores)));
+                        }
+                    }
+                    return invocar(stmt, metodo, args);
+                });
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.delivery_api.Projeto.Delivery.API.dto.response.LinhaAnaliticaDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import com.delivery_api.Projeto.Delivery.API.entity.Restaurante;
+import com.delivery_api.Projeto.Delivery.API.enums.DimensaoAnalitica;
+import com.delivery_api.Projeto.Delivery.API.enums.StatusPedido;
+import com.delivery_api.Projeto.Delivery.API.event.PedidoCriadoEvent;
+import com.delivery_api.Projeto.Delivery.API.event.StatusPedidoAlteradoEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere a cópia colunar com o banco: carrega pedidos num H2 em memória criado com o
+ * schema.sql e compara cada agrupamento da consulta analítica com o GROUP BY equivalente.
+ */
+public class AnaliticoPedidosServiceTest {
+
+    private static final String URL = "jdbc:h2:mem:analitico;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final int PEDIDOS = 500;
+
+    private static Connection conexao;
+    private static AnaliticoPedidosService analitico;
+
+    @BeforeAll
+    static void carregar() throws SQLException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        conexao = dataSource.getConnection();
+        ScriptUtils.executeSqlScript(conexao, new ClassPathResource("schema.sql"));
+        inserirPedidos();
+
+        analitico = new AnaliticoPedidosService();
+        ReflectionTestUtils.setField(analitico, "dataSource", dataSource);
+        ReflectionTestUtils.setField(analitico, "paralelismo", 2);
+        analitico.iniciar();
+        analitico.carregar();
+    }
+
+    @AfterAll
+    static void fechar() throws SQLException {
+        analitico.encerrar();
+        conexao.close();
+    }
+
+    @Test
+    public void testAgrupamentoPorRestauranteEStatusIgualAoBanco() throws SQLException {
+        assertEquals(
+                banco("SELECT restaurante_id, status, NULL, NULL, COUNT(*), SUM(valor_total) FROM pedidos "
+                        + "GROUP BY restaurante_id, status"),
+                motor(semFiltro(), Set.of(DimensaoAnalitica.RESTAURANTE, DimensaoAnalitica.STATUS)));
+    }
+
+    @Test
+    public void testAgrupamentoPorDiaEHoraIgualAoBancoComPedidosSemData() throws SQLException {
+        Map<String, String> esperado = banco("SELECT NULL, NULL, CAST(data_pedido AS DATE), HOUR(data_pedido), "
+                + "COUNT(*), SUM(valor_total) FROM pedidos "
+                + "GROUP BY CAST(data_pedido AS DATE), HOUR(data_pedido)");
+
+        assertTrue(esperado.containsKey("null|null|null|null"), "massa de teste deve ter pedidos sem data");
+        assertEquals(esperado, motor(semFiltro(), Set.of(DimensaoAnalitica.DIA, DimensaoAnalitica.HORA_DO_DIA)));
+    }
+
+    @Test
+    public void testFiltroPorPeriodoEStatusIgualAoBanco() throws SQLException {
+        LocalDateTime inicio = LocalDateTime.of(2025, 1, 2, 0, 0);
+        LocalDateTime fim = LocalDateTime.of(2025, 1, 4, 0, 0);
+        AnaliticoPedidosService.Filtro filtro = new AnaliticoPedidosService.Filtro(
+                null, StatusPedido.ENTREGUE, null, fim, null, null);
+
+        // Só o fim informado: pedidos sem data não entram, como no BETWEEN/<= do banco
+        assertEquals(
+                banco("SELECT restaurante_id, NULL, CAST(data_pedido AS DATE), NULL, COUNT(*), SUM(valor_total) "
+                        + "FROM pedidos WHERE status = 'ENTREGUE' AND data_pedido <= TIMESTAMP '2025-01-04 00:00:00' "
+                        + "GROUP BY restaurante_id, CAST(data_pedido AS DATE)"),
+                motor(filtro, Set.of(DimensaoAnalitica.RESTAURANTE, DimensaoAnalitica.DIA)));
+
+        filtro = new AnaliticoPedidosService.Filtro(1L, null, inicio, fim, new BigDecimal("20.00"), null);
+        assertEquals(
+                banco("SELECT NULL, status, NULL, NULL, COUNT(*), SUM(valor_total) FROM pedidos "
+                        + "WHERE restaurante_id = 1 AND valor_total >= 20.00 AND data_pedido "
+                        + "BETWEEN TIMESTAMP '2025-01-02 00:00:00' AND TIMESTAMP '2025-01-04 00:00:00' "
+                        + "GROUP BY status"),
+                motor(filtro, Set.of(DimensaoAnalitica.STATUS)));
+    }
+
+    @Test
+    public void testStatusForaDeOrdemFicaComAVersaoMaisNova() {
+        // Instância vazia: os eventos não alteram a cópia comparada com o banco nos outros testes
+        AnaliticoPedidosService eventos = new AnaliticoPedidosService();
+        ReflectionTestUtils.setField(eventos, "paralelismo", 1);
+        eventos.iniciar();
+        try {
+            // Status chega antes da criação: fica pendente até a linha existir
+            eventos.onStatusAlterado(statusAlterado(pedido(10L, StatusPedido.CONFIRMADO, 1L),
+                    StatusPedido.PENDENTE, StatusPedido.CONFIRMADO));
+            eventos.onPedidoCriado(new PedidoCriadoEvent(pedido(10L, StatusPedido.PENDENTE, 0L)));
+
+            // Versão 2 chega antes da 1: a 1 atrasada é ignorada
+            eventos.onPedidoCriado(new PedidoCriadoEvent(pedido(11L, StatusPedido.PENDENTE, 0L)));
+            eventos.onStatusAlterado(statusAlterado(pedido(11L, StatusPedido.PREPARANDO, 2L),
+                    StatusPedido.CONFIRMADO, StatusPedido.PREPARANDO));
+            eventos.onStatusAlterado(statusAlterado(pedido(11L, StatusPedido.CONFIRMADO, 1L),
+                    StatusPedido.PENDENTE, StatusPedido.CONFIRMADO));
+
+            Map<String, Long> porStatus = new TreeMap<>();
+            for (LinhaAnaliticaDTO linha : eventos.consultar(semFiltro(), Set.of(DimensaoAnalitica.STATUS),
+                    List.of(), Integer.MAX_VALUE).getLinhas()) {
+                porStatus.put(linha.getStatus(), linha.getPedidos());
+            }
+            assertEquals(Map.of("CONFIRMADO", 1L, "PREPARANDO", 1L), porStatus);
+        } finally {
+            eventos.encerrar();
+        }
+    }
+
+    private static Pedido pedido(Long id, StatusPedido status, Long versao) {
+        Restaurante restaurante = new Restaurante();
+        restaurante.setId(1L);
+        Pedido pedido = new Pedido();
+        pedido.setId(id);
+        pedido.setRestaurante(restaurante);
+        pedido.setStatus(status.name());
+        pedido.setValorTotal(new BigDecimal("10.00"));
+        pedido.setDataPedido(LocalDateTime.of(2025, 1, 1, 12, 0));
+        pedido.setVersao(versao);
+        return pedido;
+    }
+
+    private static StatusPedidoAlteradoEvent statusAlterado(Pedido pedido, StatusPedido anterior, StatusPedido novo) {
+        return new StatusPedidoAlteradoEvent(pedido, anterior, novo);
+    }
+
+    private static AnaliticoPedidosService.Filtro semFiltro() {
+        return new AnaliticoPedidosService.Filtro(null, null, null, null, null, null);
+    }
+
+    private static Map<String, String> motor(AnaliticoPedidosService.Filtro filtro, Set<DimensaoAnalitica> dimensoes) {
+        Map<String, String> grupos = new TreeMap<>();
+        for (LinhaAnaliticaDTO linha : analitico.consultar(filtro, dimensoes, List.of(), Integer.MAX_VALUE).getLinhas()) {
+            grupos.put(linha.getRestauranteId() + "|" + linha.getStatus() + "|" + linha.getDia() + "|" + linha.getHoraDoDia(),
+                    linha.getPedidos() + "|" + linha.getValorTotal().toPlainString());
+        }
+        return grupos;
+    }
+
+    // Colunas: restaurante, status, dia, hora, quantidade, soma (NULL nas dimensões não agrupadas)
+    private static Map<String, String> banco(String sql) throws SQLException {
+        Map<String, String> grupos = new TreeMap<>();
+        try (Statement stmt = conexao.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                grupos.put(rs.getObject(1, Long.class) + "|" + rs.getString(2) + "|"
+                                + rs.getObject(3, LocalDate.class) + "|" + rs.getObject(4, Integer.class),
+                        rs.getLong(5) + "|" + rs.getBigDecimal(6).toPlainString());
+            }
+        }
+        return grupos;
+    }
+
+    private static void inserirPedidos() throws SQLException {
+        try (Statement stmt = conexao.createStatement()) {
+            stmt.executeUpdate("INSERT INTO clientes (nome, email, ativo) VALUES ('Cliente', 'cliente@email.com', TRUE)");
+            stmt.executeUpdate("INSERT INTO restaurantes (nome, categoria, ativo) VALUES "
+                    + "('Restaurante 1', 'Italiana', TRUE), ('Restaurante 2', 'Japonesa', TRUE), "
+                    + "('Restaurante 3', 'Brasileira', TRUE)");
+        }
+
+        StatusPedido[] status = StatusPedido.values();
+        Random random = new Random(42);
+        try (PreparedStatement insert = conexao.prepareStatement("INSERT INTO pedidos "
+                + "(numero_pedido, data_pedido, status, valor_total, cliente_id, restaurante_id) "
+                + "VALUES (?, ?, ?, ?, 1, ?)")) {
+            for (int i = 0; i < PEDIDOS; i++) {
+                insert.setString(1, "PED" + i);
+                // Um em cada 25 sem data; os demais em minutos cheios ao longo de 5 dias
+                if (i % 25 == 0) {
+                    insert.setNull(2, Types.TIMESTAMP);
+                } else {
+                    insert.setTimestamp(2, Timestamp.valueOf(
+                            LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(random.nextInt(5 * 24 * 60))));
+                }
+                insert.setString(3, status[random.nextInt(status.length)].name());
+                insert.setBigDecimal(4, BigDecimal.valueOf(500 + random.nextInt(15000), 2));
+                insert.setLong(5, 1 + random.nextInt(3));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+}
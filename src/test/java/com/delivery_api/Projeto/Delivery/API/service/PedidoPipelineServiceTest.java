@@ -0,0 +1,121 @@
+package com.delivery_api.Projeto.Delivery.API.service;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.delivery_api.Projeto.Delivery.API.dto.request.PedidoRequestDTO;
+import com.delivery_api.Projeto.Delivery.API.entity.Pedido;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pipeline de gravação com o PedidoService simulado: falha de um pedido no banco,
+ * escritor atingido por um Error e espera limitada de quem enfileirou.
+ */
+public class PedidoPipelineServiceTest {
+
+    private final PedidoService pedidoService = mock(PedidoService.class);
+    private final ExecutorService clientes = Executors.newFixedThreadPool(4);
+    private PedidoPipelineService pipeline;
+
+    @BeforeEach
+    void iniciar() {
+        pipeline = new PedidoPipelineService();
+        ReflectionTestUtils.setField(pipeline, "pedidoService", pedidoService);
+        ReflectionTestUtils.setField(pipeline, "capacidadeFila", 100);
+        ReflectionTestUtils.setField(pipeline, "tamanhoLote", 10);
+        ReflectionTestUtils.setField(pipeline, "escritores", 1);
+        // Espera longa o bastante para os pedidos do teste caírem no mesmo lote
+        ReflectionTestUtils.setField(pipeline, "esperaLoteMillis", 300L);
+        ReflectionTestUtils.setField(pipeline, "timeoutMillis", 2000L);
+        pipeline.iniciar();
+    }
+
+    @AfterEach
+    void encerrar() throws InterruptedException {
+        pipeline.encerrar();
+        clientes.shutdownNow();
+    }
+
+    @Test
+    public void testFalhaNoBancoAfetaSoOPedidoProblematico() throws Exception {
+        when(pedidoService.gravarLote(anyList())).thenAnswer(invocacao -> {
+            List<PedidoRequestDTO> dtos = invocacao.getArgument(0);
+            if (dtos.stream().anyMatch(dto -> "RUIM".equals(dto.getNumeroPedido()))) {
+                throw new DataIntegrityViolationException("violação simulada");
+            }
+            return dtos.stream().map(dto -> new PedidoService.PedidoGravado(pedido(dto), null)).toList();
+        });
+
+        Future<Pedido> primeiro = clientes.submit(() -> pipeline.criarPedido(dto("PED1")));
+        Future<Pedido> ruim = clientes.submit(() -> pipeline.criarPedido(dto("RUIM")));
+        Future<Pedido> segundo = clientes.submit(() -> pipeline.criarPedido(dto("PED2")));
+
+        assertEquals("PED1", primeiro.get(5, TimeUnit.SECONDS).getNumeroPedido());
+        assertEquals("PED2", segundo.get(5, TimeUnit.SECONDS).getNumeroPedido());
+        Exception erro = assertThrows(Exception.class, () -> ruim.get(5, TimeUnit.SECONDS));
+        assertTrue(erro.getCause() instanceof DataIntegrityViolationException);
+    }
+
+    @Test
+    public void testErrorNoEscritorRespondeQuemAguardaEEscritorContinua() throws Exception {
+        AtomicBoolean primeiraChamada = new AtomicBoolean(true);
+        when(pedidoService.gravarLote(anyList())).thenAnswer(invocacao -> {
+            if (primeiraChamada.getAndSet(false)) {
+                throw new OutOfMemoryError("simulado");
+            }
+            List<PedidoRequestDTO> dtos = invocacao.getArgument(0);
+            return dtos.stream().map(dto -> new PedidoService.PedidoGravado(pedido(dto), null)).toList();
+        });
+
+        Future<Pedido> atingido = clientes.submit(() -> pipeline.criarPedido(dto("PED1")));
+        Exception erro = assertThrows(Exception.class, () -> atingido.get(5, TimeUnit.SECONDS));
+        assertTrue(erro.getCause() instanceof IllegalStateException);
+
+        assertEquals("PED2", pipeline.criarPedido(dto("PED2")).getNumeroPedido());
+    }
+
+    @Test
+    public void testEsperaLimitadaQuandoGravacaoNaoConclui() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(pedidoService.gravarLote(anyList())).thenAnswer(invocacao -> {
+            liberar.await();
+            List<PedidoRequestDTO> dtos = invocacao.getArgument(0);
+            return dtos.stream().map(dto -> new PedidoService.PedidoGravado(pedido(dto), null)).toList();
+        });
+
+        long inicio = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> pipeline.criarPedido(dto("PED1")));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 4000);
+        liberar.countDown();
+    }
+
+    private static PedidoRequestDTO dto(String numero) {
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setNumeroPedido(numero);
+        dto.setClienteId(1L);
+        dto.setRestauranteId(1L);
+        return dto;
+    }
+
+    private static Pedido pedido(PedidoRequestDTO dto) {
+        Pedido pedido = new Pedido();
+        pedido.setNumeroPedido(dto.getNumeroPedido());
+        return pedido;
+    }
+}